@@ -0,0 +1,70 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates many enrollments of a generated program, some of which may have
+ * many more events than the others, sequentially or on all processors.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MILLISECONDS )
+@Warmup( iterations = 3, time = 5 )
+@Measurement( iterations = 5, time = 5 )
+@Fork( 1 )
+public class BatchBenchmark
+{
+    @Param( { "100", "1000" } )
+    public int enrollments;
+
+    @Param( { "0", "5" } )
+    public int hugeEnrollments;
+
+    @Param( { "false", "true" } )
+    public boolean parallel;
+
+    private ExecutorService executorService;
+
+    private RuleEngineBatch batch;
+
+    @Setup
+    public void setUp()
+    {
+        RuleEngineBatch.Builder builder = ProgramGenerator.builder()
+            .seed( 1 )
+            .rules( 300 )
+            .enrollments( enrollments )
+            .hugeEnrollments( hugeEnrollments, 5000 )
+            .build().batchBuilder();
+
+        if ( parallel )
+        {
+            executorService = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors() );
+            builder.executorService( executorService );
+        }
+
+        batch = builder.build();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        if ( executorService != null )
+        {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public List<RuleEffects> evaluate()
+        throws Exception
+    {
+        return batch.evaluate().call();
+    }
+}
@@ -0,0 +1,70 @@
+package org.hisp.dhis.rules;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Runs the benchmarks selected on the command line, like the JMH main class
+ * does, but writes the results as JSON to rule-engine-&lt;version&gt;.json
+ * unless another format or file is given, so that runs of different releases
+ * can be compared.
+ */
+public final class Benchmarks
+{
+    private static final String POM_PROPERTIES = "/META-INF/maven/org.hisp.dhis.rules/rule-engine/pom.properties";
+
+    private Benchmarks()
+    {
+    }
+
+    public static void main( String[] args )
+        throws Exception
+    {
+        CommandLineOptions commandLineOptions = new CommandLineOptions( args );
+
+        if ( commandLineOptions.shouldHelp() || commandLineOptions.shouldList() ||
+            commandLineOptions.shouldListProfilers() || commandLineOptions.shouldListResultFormats() )
+        {
+            org.openjdk.jmh.Main.main( args );
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent( commandLineOptions );
+
+        if ( !commandLineOptions.getResultFormat().hasValue() )
+        {
+            options.resultFormat( ResultFormatType.JSON );
+        }
+
+        if ( !commandLineOptions.getResult().hasValue() )
+        {
+            options.result( "rule-engine-" + ruleEngineVersion() + ".json" );
+        }
+
+        new Runner( options.build() ).run();
+    }
+
+    private static String ruleEngineVersion()
+        throws IOException
+    {
+        try ( InputStream inputStream = RuleEngine.class.getResourceAsStream( POM_PROPERTIES ) )
+        {
+            if ( inputStream == null )
+            {
+                return "unknown";
+            }
+
+            Properties properties = new Properties();
+            properties.load( inputStream );
+
+            return properties.getProperty( "version", "unknown" );
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleValueType;
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing an expression with evaluating its compiled form, which is
+ * what the engine does for each rule once the expression has been cached.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ExpressionBenchmark
+{
+    @Param( {
+        "#{a} > 5",
+        "#{a} > 5 && (#{b} + 3) * 2 < 100 || !d2:hasValue('c')",
+        "d2:concatenate(#{a}, '-', #{b}) == '7-42'" } )
+    public String expression;
+
+    private CompiledExpression compiledExpression;
+
+    private EvaluationContext context;
+
+    @Setup
+    public void setUp()
+    {
+        Map<String, RuleVariableValue> valueMap = new HashMap<>();
+        valueMap.put( "a", RuleVariableValue.create( "7", RuleValueType.NUMERIC ) );
+        valueMap.put( "b", RuleVariableValue.create( "42", RuleValueType.NUMERIC ) );
+        valueMap.put( "c", RuleVariableValue.create( RuleValueType.TEXT ) );
+
+        compiledExpression = CompiledExpression.compile( expression );
+        context = new EvaluationContext( valueMap, Collections.<String, List<String>>emptyMap() );
+    }
+
+    @Benchmark
+    public CompiledExpression parse()
+    {
+        return CompiledExpression.compile( expression );
+    }
+
+    @Benchmark
+    public Object evaluate()
+    {
+        return compiledExpression.root().evaluate( context );
+    }
+}
@@ -0,0 +1,67 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleValueType;
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates single d2 functions, compiled once, on variables of each value
+ * type.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class FunctionBenchmark
+{
+    @Param( {
+        "d2:hasValue('number')",
+        "d2:concatenate(#{text}, #{number})",
+        "d2:substring(#{text}, 1, 3)",
+        "d2:validatePattern(#{text}, '[a-z]+')",
+        "d2:split(#{text}, 'e', 1)",
+        "d2:daysBetween(#{date}, '2020-12-31')",
+        "d2:yearsBetween(#{date}, '2020-12-31')",
+        "d2:addDays(#{date}, 10)",
+        "d2:round(#{number})",
+        "d2:modulus(#{number}, 3)",
+        "d2:count('values')",
+        "d2:maxValue('values')",
+        "d2:zing(#{number})",
+        "d2:zScoreWFA(12, 9.5, 'female')" } )
+    public String function;
+
+    private CompiledExpression compiledExpression;
+
+    private EvaluationContext context;
+
+    @Setup
+    public void setUp()
+    {
+        Map<String, RuleVariableValue> valueMap = new HashMap<>();
+        valueMap.put( "number", RuleVariableValue.create( "17.4", RuleValueType.NUMERIC ) );
+        valueMap.put( "text", RuleVariableValue.create( "benchmark", RuleValueType.TEXT ) );
+        valueMap.put( "date", RuleVariableValue.create( "2020-01-15", RuleValueType.DATE ) );
+        valueMap.put( "values", RuleVariableValue.create( "5", RuleValueType.NUMERIC,
+            Arrays.asList( "5", "3", "8", "1" ), "2020-01-15" ) );
+
+        compiledExpression = CompiledExpression.compile( function );
+        context = new EvaluationContext( valueMap, Collections.<String, List<String>>emptyMap() );
+    }
+
+    @Benchmark
+    public Object evaluate()
+    {
+        return compiledExpression.root().evaluate( context );
+    }
+}
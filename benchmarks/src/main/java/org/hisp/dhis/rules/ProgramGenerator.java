@@ -0,0 +1,551 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates programs for load tests and benchmarks: rules with every kind of
+ * action, variables of every kind, and enrollments with events spread across
+ * the program stages. The same seed and shape always give the same program.
+ * <p>
+ * A few enrollments can be given many more events than the others, to
+ * reproduce the skew of production data.
+ */
+public final class ProgramGenerator
+{
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * 2020-01-01, so that generated dates do not depend on the current date.
+     */
+    private static final long EPOCH = 18262 * DAY;
+
+    private static final String[] WORDS = { "alpha", "bravo", "charlie", "delta", "echo", "foxtrot", "golf",
+        "hotel", "india", "juliett" };
+
+    private static final RuleValueType[] VALUE_TYPES = RuleValueType.values();
+
+    private final Random random;
+
+    private final Builder shape;
+
+    private final List<String> stages = new ArrayList<>();
+
+    private final Map<String, RuleValueType> dataElements = new HashMap<>();
+
+    private final Map<String, RuleValueType> attributes = new HashMap<>();
+
+    private final Map<String, RuleValueType> variableTypes = new HashMap<>();
+
+    private ProgramGenerator( Builder shape )
+    {
+        this.random = new Random( shape.seed );
+        this.shape = shape;
+    }
+
+    @Nonnull
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    private Program generate()
+    {
+        for ( int i = 0; i < shape.programStages; i++ )
+        {
+            stages.add( "stage" + i );
+        }
+
+        for ( int i = 0; i < shape.dataElements; i++ )
+        {
+            dataElements.put( "de" + i, VALUE_TYPES[i % VALUE_TYPES.length] );
+        }
+
+        for ( int i = 0; i < shape.attributes; i++ )
+        {
+            attributes.put( "att" + i, VALUE_TYPES[i % VALUE_TYPES.length] );
+        }
+
+        List<RuleVariable> ruleVariables = variables();
+        List<Rule> rules = rules();
+
+        RuleEngineContext ruleEngineContext = RuleEngineContext.builder()
+            .rules( rules )
+            .ruleVariables( ruleVariables )
+            .supplementaryData( new HashMap<String, List<String>>() )
+            .constantsValue( new HashMap<String, String>() )
+            .build();
+
+        List<Enrollment> enrollments = new ArrayList<>( shape.enrollments );
+
+        for ( int i = 0; i < shape.enrollments; i++ )
+        {
+            int eventCount = i < shape.hugeEnrollments ? shape.hugeEnrollmentEvents :
+                shape.eventsPerEnrollment / 2 + random.nextInt( shape.eventsPerEnrollment + 1 );
+
+            enrollments.add( enrollment( "enrollment" + i, eventCount ) );
+        }
+
+        return new Program( ruleEngineContext, enrollments );
+    }
+
+    /**
+     * Variables of each kind in turn, the calculated ones being assigned by
+     * some of the rules.
+     */
+    private List<RuleVariable> variables()
+    {
+        List<RuleVariable> ruleVariables = new ArrayList<>( shape.variables );
+
+        for ( int i = 0; i < shape.variables; i++ )
+        {
+            String name = "v" + i;
+            String dataElement = "de" + random.nextInt( shape.dataElements );
+            RuleValueType valueType = dataElements.get( dataElement );
+            RuleVariable ruleVariable;
+
+            switch ( i % 6 )
+            {
+            case 0:
+                ruleVariable = RuleVariableCurrentEvent.create( name, dataElement, valueType );
+                break;
+            case 1:
+                ruleVariable = RuleVariableNewestEvent.create( name, dataElement, valueType );
+                break;
+            case 2:
+                ruleVariable = RuleVariableNewestStageEvent.create( name, dataElement, stage( dataElement ),
+                    valueType );
+                break;
+            case 3:
+                ruleVariable = RuleVariablePreviousEvent.create( name, dataElement, valueType );
+                break;
+            case 4:
+                String attribute = "att" + random.nextInt( shape.attributes );
+                valueType = attributes.get( attribute );
+                ruleVariable = RuleVariableAttribute.create( name, attribute, valueType );
+                break;
+            default:
+                valueType = RuleValueType.NUMERIC;
+                ruleVariable = RuleVariableCalculatedValue.create( name, "", valueType );
+                break;
+            }
+
+            variableTypes.put( name, valueType );
+            ruleVariables.add( ruleVariable );
+        }
+
+        return ruleVariables;
+    }
+
+    private List<Rule> rules()
+    {
+        List<Rule> rules = new ArrayList<>( shape.rules );
+
+        for ( int i = 0; i < shape.rules; i++ )
+        {
+            String variable = "v" + random.nextInt( shape.variables );
+            int actionCount = 1 + random.nextInt( 3 );
+            List<RuleAction> actions = new ArrayList<>( actionCount );
+
+            for ( int j = 0; j < actionCount; j++ )
+            {
+                actions.add( action( i, j, variable ) );
+            }
+
+            // a quarter of the rules only apply to one program stage
+            String programStage = random.nextInt( 4 ) == 0 ? stages.get( random.nextInt( stages.size() ) ) : null;
+
+            rules.add( Rule.create( programStage, random.nextInt( 10 ), condition( variable ), actions,
+                "rule " + i, "rule" + i ) );
+        }
+
+        return rules;
+    }
+
+    private String condition( String variable )
+    {
+        String value = "#{" + variable + "}";
+        String hasValue = "d2:hasValue('" + variable + "')";
+        int threshold = random.nextInt( 100 );
+
+        switch ( variableTypes.get( variable ) )
+        {
+        case NUMERIC:
+            switch ( random.nextInt( 3 ) )
+            {
+            case 0:
+                return value + " > " + threshold;
+            case 1:
+                return hasValue + " && " + value + " <= " + threshold;
+            default:
+                return "d2:count('" + variable + "') > " + random.nextInt( 5 );
+            }
+        case TEXT:
+            return random.nextBoolean() ? value + " == '" + word() + "'" :
+                hasValue + " && d2:length(" + value + ") > 4";
+        case DATE:
+            return hasValue + " && d2:daysBetween(" + value + ", V{event_date}) > " + threshold;
+        default:
+            return random.nextBoolean() ? hasValue :
+                "V{event_count} > " + random.nextInt( 10 );
+        }
+    }
+
+    private RuleAction action( int rule, int index, String variable )
+    {
+        String value = "#{" + variable + "}";
+        String field = "de" + random.nextInt( shape.dataElements );
+        String content = "rule " + rule + " action " + index;
+
+        switch ( random.nextInt( 14 ) )
+        {
+        case 0:
+            return RuleActionShowWarning.create( content, value, field );
+        case 1:
+            return RuleActionShowError.create( content, value, field );
+        case 2:
+            return RuleActionDisplayText.createForFeedback( content, "d2:concatenate(" + value + ", '!')" );
+        case 3:
+            return RuleActionDisplayKeyValuePair.createForIndicators( content, value );
+        case 4:
+            return RuleActionHideField.create( content, field );
+        case 5:
+            return RuleActionSetMandatoryField.create( field );
+        case 6:
+            return RuleActionErrorOnCompletion.create( content, value, field );
+        case 7:
+            return RuleActionWarningOnCompletion.create( content, value, field );
+        case 8:
+            return RuleActionHideSection.create( "section" + random.nextInt( 10 ) );
+        case 9:
+            return RuleActionHideOption.create( content, "option" + random.nextInt( 10 ), field );
+        case 10:
+            return RuleActionSendMessage.create( "notification" + rule, value );
+        case 11:
+            return RuleActionScheduleMessage.create( "notification" + rule, "V{current_date}" );
+        case 12:
+            return RuleActionCreateEvent.create( content, value, stages.get( random.nextInt( stages.size() ) ) );
+        default:
+            String calculated = calculatedVariable();
+
+            return calculated == null ? RuleActionAssign.create( null, value, field ) :
+                RuleActionAssign.create( "#{" + calculated + "}", "d2:length('" + word() + "')", null );
+        }
+    }
+
+    private Enrollment enrollment( String uid, int eventCount )
+    {
+        List<RuleAttributeValue> attributeValues = new ArrayList<>();
+
+        for ( Map.Entry<String, RuleValueType> attribute : sorted( attributes ) )
+        {
+            if ( random.nextInt( 10 ) < 8 )
+            {
+                attributeValues.add( RuleAttributeValue.create( attribute.getKey(),
+                    value( attribute.getValue() ) ) );
+            }
+        }
+
+        Date enrollmentDate = new Date( EPOCH + random.nextInt( 365 ) * DAY );
+        List<RuleEvent> ruleEvents = new ArrayList<>( eventCount );
+
+        for ( int i = 0; i < eventCount; i++ )
+        {
+            String stage = stages.get( random.nextInt( stages.size() ) );
+            Date eventDate = new Date( enrollmentDate.getTime() + (i + 1) * DAY );
+            List<RuleDataValue> dataValues = new ArrayList<>();
+
+            for ( Map.Entry<String, RuleValueType> dataElement : sorted( dataElements ) )
+            {
+                if ( stage( dataElement.getKey() ).equals( stage ) && random.nextInt( 10 ) < 8 )
+                {
+                    dataValues.add( RuleDataValue.create( eventDate, stage, dataElement.getKey(),
+                        value( dataElement.getValue() ) ) );
+                }
+            }
+
+            ruleEvents.add( RuleEvent.create( uid + "-event" + i, stage, RuleEvent.Status.ACTIVE, eventDate,
+                eventDate, "ou", "ou_code", dataValues, stage + " name", null ) );
+        }
+
+        return new Enrollment( RuleEnrollment.create( uid, enrollmentDate, enrollmentDate,
+            RuleEnrollment.Status.ACTIVE, "ou", "ou_code", attributeValues, "program" ), ruleEvents );
+    }
+
+    private String value( RuleValueType valueType )
+    {
+        switch ( valueType )
+        {
+        case NUMERIC:
+            return String.valueOf( random.nextInt( 100 ) );
+        case BOOLEAN:
+            return String.valueOf( random.nextBoolean() );
+        case DATE:
+            return Utils.formatDate( new Date( EPOCH + random.nextInt( 730 ) * DAY ) );
+        default:
+            return word();
+        }
+    }
+
+    private String word()
+    {
+        return WORDS[random.nextInt( WORDS.length )];
+    }
+
+    /**
+     * Data elements belong to the stages in turn.
+     */
+    private String stage( String dataElement )
+    {
+        return stages.get( Integer.parseInt( dataElement.substring( 2 ) ) % stages.size() );
+    }
+
+    private String calculatedVariable()
+    {
+        // every sixth variable, from the sixth on, is a calculated one
+        int calculatedVariables = (shape.variables + 1) / 6;
+
+        return calculatedVariables == 0 ? null : "v" + (random.nextInt( calculatedVariables ) * 6 + 5);
+    }
+
+    /**
+     * Iterates in key order rather than hash order, which is what keeps the
+     * generated program the same for a seed.
+     */
+    private static List<Map.Entry<String, RuleValueType>> sorted( Map<String, RuleValueType> map )
+    {
+        List<Map.Entry<String, RuleValueType>> entries = new ArrayList<>( map.entrySet() );
+
+        Collections.sort( entries, new Comparator<Map.Entry<String, RuleValueType>>()
+        {
+            @Override
+            public int compare( Map.Entry<String, RuleValueType> first, Map.Entry<String, RuleValueType> second )
+            {
+                return first.getKey().compareTo( second.getKey() );
+            }
+        } );
+
+        return entries;
+    }
+
+    public static final class Program
+    {
+        @Nonnull
+        private final RuleEngineContext ruleEngineContext;
+
+        @Nonnull
+        private final List<Enrollment> enrollments;
+
+        Program( @Nonnull RuleEngineContext ruleEngineContext, @Nonnull List<Enrollment> enrollments )
+        {
+            this.ruleEngineContext = ruleEngineContext;
+            this.enrollments = Collections.unmodifiableList( enrollments );
+        }
+
+        @Nonnull
+        public RuleEngineContext ruleEngineContext()
+        {
+            return ruleEngineContext;
+        }
+
+        @Nonnull
+        public List<Enrollment> enrollments()
+        {
+            return enrollments;
+        }
+
+        /**
+         * @return an engine evaluating the enrollment with all its events.
+         */
+        @Nonnull
+        public RuleEngine ruleEngine( @Nonnull Enrollment enrollment )
+        {
+            return ruleEngineContext.toEngineBuilder()
+                .enrollment( enrollment.ruleEnrollment() )
+                .events( enrollment.ruleEvents() )
+                .build();
+        }
+
+        /**
+         * @return a batch builder holding all the enrollments.
+         */
+        @Nonnull
+        public RuleEngineBatch.Builder batchBuilder()
+        {
+            RuleEngineBatch.Builder builder = ruleEngineContext.toBatchBuilder();
+
+            for ( Enrollment enrollment : enrollments )
+            {
+                builder.enrollment( enrollment.ruleEnrollment(), enrollment.ruleEvents() );
+            }
+
+            return builder;
+        }
+    }
+
+    public static final class Enrollment
+    {
+        @Nonnull
+        private final RuleEnrollment ruleEnrollment;
+
+        @Nonnull
+        private final List<RuleEvent> ruleEvents;
+
+        Enrollment( @Nonnull RuleEnrollment ruleEnrollment, @Nonnull List<RuleEvent> ruleEvents )
+        {
+            this.ruleEnrollment = ruleEnrollment;
+            this.ruleEvents = Collections.unmodifiableList( ruleEvents );
+        }
+
+        @Nonnull
+        public RuleEnrollment ruleEnrollment()
+        {
+            return ruleEnrollment;
+        }
+
+        @Nonnull
+        public List<RuleEvent> ruleEvents()
+        {
+            return ruleEvents;
+        }
+    }
+
+    public static final class Builder
+    {
+        private long seed;
+
+        private int rules = 100;
+
+        private int variables = 60;
+
+        private int dataElements = 40;
+
+        private int attributes = 10;
+
+        private int programStages = 4;
+
+        private int enrollments = 10;
+
+        private int eventsPerEnrollment = 20;
+
+        private int hugeEnrollments;
+
+        private int hugeEnrollmentEvents;
+
+        Builder()
+        {
+            // use static factory method
+        }
+
+        @Nonnull
+        public Builder seed( long seed )
+        {
+            this.seed = seed;
+            return this;
+        }
+
+        @Nonnull
+        public Builder rules( int rules )
+        {
+            this.rules = positive( rules, "rules" );
+            return this;
+        }
+
+        @Nonnull
+        public Builder variables( int variables )
+        {
+            this.variables = positive( variables, "variables" );
+            return this;
+        }
+
+        @Nonnull
+        public Builder dataElements( int dataElements )
+        {
+            this.dataElements = positive( dataElements, "dataElements" );
+            return this;
+        }
+
+        @Nonnull
+        public Builder attributes( int attributes )
+        {
+            this.attributes = positive( attributes, "attributes" );
+            return this;
+        }
+
+        @Nonnull
+        public Builder programStages( int programStages )
+        {
+            this.programStages = positive( programStages, "programStages" );
+            return this;
+        }
+
+        @Nonnull
+        public Builder enrollments( int enrollments )
+        {
+            this.enrollments = positive( enrollments, "enrollments" );
+            return this;
+        }
+
+        /**
+         * @param eventsPerEnrollment the average number of events of the
+         *                            enrollments which are not huge. Each has
+         *                            between half and one and a half times as
+         *                            many.
+         */
+        @Nonnull
+        public Builder eventsPerEnrollment( int eventsPerEnrollment )
+        {
+            this.eventsPerEnrollment = positive( eventsPerEnrollment, "eventsPerEnrollment" );
+            return this;
+        }
+
+        /**
+         * @param hugeEnrollments      the number of enrollments, first in the
+         *                             list, which have exactly
+         *                             hugeEnrollmentEvents events.
+         * @param hugeEnrollmentEvents the number of events of each of them.
+         */
+        @Nonnull
+        public Builder hugeEnrollments( int hugeEnrollments, int hugeEnrollmentEvents )
+        {
+            if ( hugeEnrollments < 0 || hugeEnrollmentEvents < 0 )
+            {
+                throw new IllegalArgumentException( "hugeEnrollments and hugeEnrollmentEvents must not be negative" );
+            }
+
+            this.hugeEnrollments = hugeEnrollments;
+            this.hugeEnrollmentEvents = hugeEnrollmentEvents;
+            return this;
+        }
+
+        @Nonnull
+        public Program build()
+        {
+            if ( hugeEnrollments > enrollments )
+            {
+                throw new IllegalStateException( "hugeEnrollments must not exceed enrollments" );
+            }
+
+            return new ProgramGenerator( this ).generate();
+        }
+
+        private static int positive( int value, String name )
+        {
+            if ( value < 1 )
+            {
+                throw new IllegalArgumentException( name + " must be at least 1" );
+            }
+
+            return value;
+        }
+    }
+}
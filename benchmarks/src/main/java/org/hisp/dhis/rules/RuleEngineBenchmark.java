@@ -0,0 +1,63 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffect;
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evaluates one event against an enrollment, and an enrollment with all its
+ * events, for generated programs of growing size.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class RuleEngineBenchmark
+{
+    @Param( { "10", "100", "500" } )
+    public int rules;
+
+    @Param( { "10", "100" } )
+    public int variables;
+
+    @Param( { "1", "100", "1000" } )
+    public int events;
+
+    private RuleEngine ruleEngine;
+
+    private RuleEvent target;
+
+    @Setup
+    public void setUp()
+    {
+        ProgramGenerator.Program program = ProgramGenerator.builder()
+            .rules( rules )
+            .variables( variables )
+            .enrollments( 2 )
+            .hugeEnrollments( 1, events )
+            .build();
+
+        ruleEngine = program.ruleEngine( program.enrollments().get( 0 ) );
+        target = program.enrollments().get( 1 ).ruleEvents().get( 0 );
+    }
+
+    @Benchmark
+    public List<RuleEffect> evaluateEvent()
+        throws Exception
+    {
+        return ruleEngine.evaluate( target ).call();
+    }
+
+    @Benchmark
+    public List<RuleEffects> evaluateAll()
+        throws Exception
+    {
+        return ruleEngine.evaluate().call();
+    }
+}
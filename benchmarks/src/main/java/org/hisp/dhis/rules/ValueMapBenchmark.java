@@ -0,0 +1,60 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.models.RuleVariable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the value maps of an enrollment and all its events, as
+ * {@link RuleEngine#evaluate()} does before evaluating any rule.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ValueMapBenchmark
+{
+    @Param( { "10", "100" } )
+    public int variables;
+
+    @Param( { "10", "100", "1000" } )
+    public int events;
+
+    private List<RuleVariable> ruleVariables;
+
+    private RuleEnrollment ruleEnrollment;
+
+    private List<RuleEvent> ruleEvents;
+
+    @Setup
+    public void setUp()
+    {
+        ProgramGenerator.Program program = ProgramGenerator.builder()
+            .variables( variables )
+            .enrollments( 1 )
+            .hugeEnrollments( 1, events )
+            .build();
+
+        ruleVariables = program.ruleEngineContext().ruleVariables();
+        ruleEnrollment = program.enrollments().get( 0 ).ruleEnrollment();
+        ruleEvents = program.enrollments().get( 0 ).ruleEvents();
+    }
+
+    @Benchmark
+    public RuleVariableValueMap multipleBuild()
+    {
+        return RuleVariableValueMapBuilder.target()
+            .ruleVariables( ruleVariables )
+            .ruleEnrollment( ruleEnrollment )
+            .ruleEvents( ruleEvents )
+            .constantValueMap( Collections.<String, String>emptyMap() )
+            .multipleBuild();
+    }
+}
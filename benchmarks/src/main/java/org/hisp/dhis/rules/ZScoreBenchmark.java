@@ -0,0 +1,45 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Looks up z-scores through the d2 functions.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ZScoreBenchmark
+{
+    @Param( {
+        "d2:zScoreWFA(12, 9.5, 'female')",
+        "d2:zScoreHFA(30, 90.1, 'male')",
+        "d2:zScoreWFH(85.5, 11.2, 'female')" } )
+    public String function;
+
+    private CompiledExpression compiledExpression;
+
+    private EvaluationContext context;
+
+    @Setup
+    public void setUp()
+    {
+        compiledExpression = CompiledExpression.compile( function );
+        context = new EvaluationContext( Collections.<String, RuleVariableValue>emptyMap(),
+            Collections.<String, List<String>>emptyMap() );
+    }
+
+    @Benchmark
+    public Object evaluate()
+    {
+        return compiledExpression.root().evaluate( context );
+    }
+}
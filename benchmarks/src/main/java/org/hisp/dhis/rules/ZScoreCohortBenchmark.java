@@ -0,0 +1,77 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.functions.RuleFunctionZScoreWFA;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the weight for age z-scores of a cohort, on the calling thread
+ * and on one thread per core.
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 3, time = 2 )
+@Measurement( iterations = 5, time = 2 )
+@Fork( 1 )
+public class ZScoreCohortBenchmark
+{
+    @Param( { "100000" } )
+    public int children;
+
+    private final RuleFunctionZScoreWFA function = new RuleFunctionZScoreWFA();
+
+    private float[] ages;
+
+    private float[] weights;
+
+    private byte[] genders;
+
+    private float[] zScores;
+
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp()
+    {
+        Random random = new Random( 42 );
+
+        ages = new float[children];
+        weights = new float[children];
+        genders = new byte[children];
+        zScores = new float[children];
+
+        for ( int i = 0; i < children; i++ )
+        {
+            ages[i] = random.nextInt( 60 );
+            weights[i] = 2 + random.nextInt( 200 ) * 0.1f;
+            genders[i] = (byte) random.nextInt( 2 );
+        }
+
+        executorService = Executors.newFixedThreadPool( Runtime.getRuntime().availableProcessors() );
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Benchmark
+    public float[] sequential()
+    {
+        function.zScores( ages, weights, genders, zScores );
+        return zScores;
+    }
+
+    @Benchmark
+    public float[] parallel()
+    {
+        function.zScores( ages, weights, genders, zScores, executorService );
+        return zScores;
+    }
+}
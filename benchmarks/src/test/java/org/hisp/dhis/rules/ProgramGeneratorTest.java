@@ -0,0 +1,132 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class ProgramGeneratorTest
+{
+    private final ExecutorService executorService = Executors.newFixedThreadPool( 4 );
+
+    @After
+    public void tearDown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void sameSeedShouldGenerateSameProgram()
+    {
+        ProgramGenerator.Program first = ProgramGenerator.builder().seed( 7 ).build();
+        ProgramGenerator.Program second = ProgramGenerator.builder().seed( 7 ).build();
+        ProgramGenerator.Program other = ProgramGenerator.builder().seed( 8 ).build();
+
+        assertThat( first.ruleEngineContext().rules() ).isEqualTo( second.ruleEngineContext().rules() );
+        assertThat( first.ruleEngineContext().ruleVariables() )
+            .isEqualTo( second.ruleEngineContext().ruleVariables() );
+        assertThat( first.ruleEngineContext().rules() ).isNotEqualTo( other.ruleEngineContext().rules() );
+
+        for ( int i = 0; i < first.enrollments().size(); i++ )
+        {
+            assertThat( first.enrollments().get( i ).ruleEnrollment() )
+                .isEqualTo( second.enrollments().get( i ).ruleEnrollment() );
+            assertThat( first.enrollments().get( i ).ruleEvents() )
+                .isEqualTo( second.enrollments().get( i ).ruleEvents() );
+        }
+    }
+
+    @Test
+    public void programShouldHaveTheGivenShape()
+    {
+        ProgramGenerator.Program program = ProgramGenerator.builder()
+            .rules( 300 )
+            .variables( 120 )
+            .enrollments( 20 )
+            .eventsPerEnrollment( 10 )
+            .hugeEnrollments( 2, 2000 )
+            .build();
+
+        assertThat( program.ruleEngineContext().rules() ).hasSize( 300 );
+        assertThat( program.ruleEngineContext().ruleVariables() ).hasSize( 120 );
+        assertThat( program.enrollments() ).hasSize( 20 );
+        assertThat( program.enrollments().get( 0 ).ruleEvents() ).hasSize( 2000 );
+        assertThat( program.enrollments().get( 1 ).ruleEvents() ).hasSize( 2000 );
+
+        for ( ProgramGenerator.Enrollment enrollment : program.enrollments().subList( 2, 20 ) )
+        {
+            assertThat( enrollment.ruleEvents().size() ).isBetween( 5, 15 );
+        }
+
+        Set<Class<?>> variableKinds = new HashSet<>();
+
+        for ( RuleVariable ruleVariable : program.ruleEngineContext().ruleVariables() )
+        {
+            variableKinds.add( ruleVariable.getClass().getSuperclass() );
+        }
+
+        assertThat( variableKinds ).containsOnly( RuleVariableCurrentEvent.class, RuleVariableNewestEvent.class,
+            RuleVariableNewestStageEvent.class, RuleVariablePreviousEvent.class, RuleVariableAttribute.class,
+            RuleVariableCalculatedValue.class );
+
+        for ( Rule rule : program.ruleEngineContext().rules() )
+        {
+            assertThat( CompiledExpression.compile( rule.condition() ).isValid() ).isTrue();
+
+            for ( RuleAction ruleAction : rule.actions() )
+            {
+                assertThat( CompiledExpression.compile( ruleAction.data() ).isValid() ).isTrue();
+            }
+        }
+    }
+
+    @Test
+    public void batchShouldMatchEnginePerEnrollmentOnGeneratedProgram()
+        throws Exception
+    {
+        ProgramGenerator.Program program = ProgramGenerator.builder()
+            .seed( 42 )
+            .rules( 200 )
+            .enrollments( 30 )
+            .hugeEnrollments( 1, 500 )
+            .build();
+
+        List<RuleEffects> expected = new ArrayList<>();
+
+        for ( ProgramGenerator.Enrollment enrollment : program.enrollments() )
+        {
+            expected.addAll( program.ruleEngine( enrollment ).evaluate().call() );
+        }
+
+        List<RuleEffects> actual = program.batchBuilder()
+            .executorService( executorService )
+            .parallelThreshold( 100 )
+            .build().evaluate().call();
+
+        assertThat( actual ).hasSameSizeAs( expected );
+
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            assertThat( actual.get( i ).getTrackerObjectUid() ).isEqualTo( expected.get( i ).getTrackerObjectUid() );
+            assertThat( actual.get( i ).getRuleEffects() ).isEqualTo( expected.get( i ).getRuleEffects() );
+        }
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void hugeEnrollmentsShouldNotExceedEnrollments()
+    {
+        ProgramGenerator.builder().enrollments( 2 ).hugeEnrollments( 3, 100 ).build();
+    }
+}
@@ -0,0 +1,63 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.utils.EpochDays;
+
+import javax.annotation.Nonnull;
+import java.util.Date;
+
+/**
+ * The current date of an evaluation, read once from a
+ * {@link RuleEngineClock} and formatted once.
+ */
+public final class CurrentDate
+{
+    private final long millis;
+
+    private final int epochDay;
+
+    @Nonnull
+    private final String formatted;
+
+    CurrentDate( long millis )
+    {
+        this.millis = millis;
+        this.epochDay = EpochDays.fromMillis( millis );
+
+        if ( epochDay == EpochDays.INVALID )
+        {
+            throw new IllegalArgumentException( "Current date out of range: " + new Date( millis ) );
+        }
+
+        this.formatted = EpochDays.format( epochDay );
+    }
+
+    public long millis()
+    {
+        return millis;
+    }
+
+    /**
+     * @return the day in the default time zone, as an epoch day.
+     */
+    public int epochDay()
+    {
+        return epochDay;
+    }
+
+    /**
+     * @return the day in the default time zone, as {@code yyyy-MM-dd}.
+     */
+    @Nonnull
+    public String formatted()
+    {
+        return formatted;
+    }
+
+    /**
+     * @return true if the given date is later than the current date.
+     */
+    public boolean isBefore( @Nonnull Date date )
+    {
+        return date.getTime() > millis;
+    }
+}
@@ -0,0 +1,85 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleVariable;
+import org.hisp.dhis.rules.models.RuleVariableAttribute;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds the variables which have the same value in the value maps of all
+ * events of an enrollment: attributes, constants and the environment
+ * variables of the enrollment. The current date is among them, as it is
+ * captured once per evaluation.
+ * <p>
+ * A name is left out if a variable of another kind has the same name, as
+ * the value maps are flat, or if an action of any rule assigns it, as the
+ * assigned value depends on the rules evaluated before.
+ */
+final class InvariantVariables
+{
+    private static final List<String> ENVIRONMENT_VARIABLES = Arrays.asList(
+        RuleEngineUtils.ENV_VAR_CURRENT_DATE,
+        RuleEngineUtils.ENV_VAR_ENVIRONMENT,
+        RuleEngineUtils.ENV_VAR_ENROLLMENT_ID,
+        RuleEngineUtils.ENV_VAR_ENROLLMENT_COUNT,
+        RuleEngineUtils.ENV_VAR_TEI_COUNT,
+        RuleEngineUtils.ENV_VAR_ENROLLMENT_DATE,
+        RuleEngineUtils.ENV_VAR_INCIDENT_DATE,
+        RuleEngineUtils.ENV_VAR_ENROLLMENT_STATUS,
+        RuleEngineUtils.ENV_VAR_PROGRAM_NAME );
+
+    private InvariantVariables()
+    {
+    }
+
+    @Nonnull
+    static Set<String> of( @Nonnull List<Rule> rules, @Nonnull List<RuleVariable> ruleVariables,
+        @Nullable Map<String, String> constantsValues )
+    {
+        Set<String> variables = new HashSet<>( ENVIRONMENT_VARIABLES );
+        Set<String> eventVariables = new HashSet<>();
+
+        for ( RuleVariable ruleVariable : ruleVariables )
+        {
+            if ( ruleVariable instanceof RuleVariableAttribute )
+            {
+                variables.add( ruleVariable.name() );
+            }
+            else
+            {
+                eventVariables.add( ruleVariable.name() );
+            }
+        }
+
+        variables.removeAll( eventVariables );
+
+        if ( constantsValues != null )
+        {
+            // constants are put last in the value maps
+            variables.addAll( constantsValues.keySet() );
+        }
+
+        for ( Rule rule : rules )
+        {
+            if ( rule.actions() != null )
+            {
+                for ( RuleAction ruleAction : rule.actions() )
+                {
+                    variables.remove( RuleConditionEvaluator.assignedKey( ruleAction ) );
+                }
+            }
+        }
+
+        return Collections.unmodifiableSet( variables );
+    }
+}
@@ -0,0 +1,240 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleAttributeValue;
+import org.hisp.dhis.rules.models.RuleDataValue;
+import org.hisp.dhis.rules.models.RuleVariable;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Value map which creates the value of a rule variable the first time it is
+ * looked up, and keeps it for the rest of the evaluation of the target.
+ * Environment variables and constants are created upfront, as they are cheap.
+ * Lookups follow the order of the eager value map: assigned values, then
+ * constants, then rule variables, then environment variables.
+ */
+final class LazyRuleVariableValueMap
+    extends AbstractMap<String, RuleVariableValue>
+{
+    @Nonnull
+    private final Map<String, RuleVariableValue> environmentValues;
+
+    @Nonnull
+    private final VariableValues variableValues;
+
+    @Nonnull
+    private final Map<String, RuleVariableValue> constantValues;
+
+    @Nullable
+    private final Map<String, RuleVariableValue> assignedValues;
+
+    LazyRuleVariableValueMap( @Nonnull Map<String, RuleVariableValue> environmentValues,
+        @Nonnull VariableValues variableValues, @Nonnull Map<String, RuleVariableValue> constantValues )
+    {
+        this( environmentValues, variableValues, constantValues, null );
+    }
+
+    private LazyRuleVariableValueMap( Map<String, RuleVariableValue> environmentValues,
+        VariableValues variableValues, Map<String, RuleVariableValue> constantValues,
+        Map<String, RuleVariableValue> assignedValues )
+    {
+        this.environmentValues = environmentValues;
+        this.variableValues = variableValues;
+        this.constantValues = constantValues;
+        this.assignedValues = assignedValues;
+    }
+
+    /**
+     * Copies a value map for one evaluation. A lazy map stays lazy and shares
+     * the variable values already created with the original.
+     *
+     * @param valueMap the value map to copy.
+     * @return a modifiable copy of the value map.
+     */
+    @Nonnull
+    static Map<String, RuleVariableValue> copyOf( @Nonnull Map<String, RuleVariableValue> valueMap )
+    {
+        if ( valueMap instanceof LazyRuleVariableValueMap )
+        {
+            LazyRuleVariableValueMap lazyValueMap = (LazyRuleVariableValueMap) valueMap;
+
+            return new LazyRuleVariableValueMap( lazyValueMap.environmentValues, lazyValueMap.variableValues,
+                lazyValueMap.constantValues, lazyValueMap.assignedValues == null ?
+                    new HashMap<String, RuleVariableValue>() : new HashMap<>( lazyValueMap.assignedValues ) );
+        }
+
+        return new HashMap<>( valueMap );
+    }
+
+    @Override
+    public RuleVariableValue get( Object key )
+    {
+        if ( assignedValues != null && assignedValues.containsKey( key ) )
+        {
+            return assignedValues.get( key );
+        }
+
+        if ( constantValues.containsKey( key ) )
+        {
+            return constantValues.get( key );
+        }
+
+        if ( variableValues.contains( key ) )
+        {
+            RuleVariableValue value = variableValues.get( (String) key );
+
+            if ( value != null )
+            {
+                return value;
+            }
+        }
+
+        return environmentValues.get( key );
+    }
+
+    @Override
+    public boolean containsKey( Object key )
+    {
+        return (assignedValues != null && assignedValues.containsKey( key )) || constantValues.containsKey( key ) ||
+            (variableValues.contains( key ) && variableValues.get( (String) key ) != null) ||
+            environmentValues.containsKey( key );
+    }
+
+    @Override
+    public RuleVariableValue put( String key, RuleVariableValue value )
+    {
+        if ( assignedValues == null )
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        RuleVariableValue previous = get( key );
+        assignedValues.put( key, value );
+
+        return previous;
+    }
+
+    /**
+     * Iterating the map creates all variable values.
+     */
+    @Override
+    public Set<Entry<String, RuleVariableValue>> entrySet()
+    {
+        Map<String, RuleVariableValue> valueMap = new HashMap<>( environmentValues );
+        valueMap.putAll( variableValues.getAll() );
+        valueMap.putAll( constantValues );
+
+        if ( assignedValues != null )
+        {
+            valueMap.putAll( assignedValues );
+        }
+
+        return Collections.unmodifiableMap( valueMap ).entrySet();
+    }
+
+    /**
+     * What the rule variables of a target are created from, and the values
+     * created so far. Shared by the copies of a map, which are all used by the
+     * thread evaluating the target.
+     */
+    static final class VariableValues
+    {
+        @Nonnull
+        private final Map<String, List<RuleVariable>> ruleVariables;
+
+        @Nonnull
+        private final RuleVariableValueMapBuilder builder;
+
+        @Nonnull
+        private final Map<String, List<RuleDataValue>> allEventValues;
+
+        @Nonnull
+        private final Map<String, RuleAttributeValue> currentEnrollmentValues;
+
+        @Nonnull
+        private final Map<String, RuleDataValue> currentEventValues;
+
+        @Nonnull
+        private final Map<String, RuleVariableValue> values;
+
+        /**
+         * @param ruleVariables the rule variables by name, in the order they
+         *                      were given to the builder.
+         * @param builder       the builder passed to the rule variables, with
+         *                      the target of the value map.
+         */
+        VariableValues( @Nonnull Map<String, List<RuleVariable>> ruleVariables,
+            @Nonnull RuleVariableValueMapBuilder builder, @Nonnull Map<String, List<RuleDataValue>> allEventValues,
+            @Nonnull Map<String, RuleAttributeValue> currentEnrollmentValues,
+            @Nonnull Map<String, RuleDataValue> currentEventValues )
+        {
+            this.ruleVariables = ruleVariables;
+            this.builder = builder;
+            this.allEventValues = allEventValues;
+            this.currentEnrollmentValues = currentEnrollmentValues;
+            this.currentEventValues = currentEventValues;
+            this.values = new HashMap<>();
+        }
+
+        boolean contains( Object name )
+        {
+            return ruleVariables.containsKey( name );
+        }
+
+        /**
+         * @return the value of the variable, or null if none of the variables
+         * with this name created a value.
+         */
+        @Nullable
+        RuleVariableValue get( @Nonnull String name )
+        {
+            if ( values.containsKey( name ) )
+            {
+                return values.get( name );
+            }
+
+            RuleVariableValue value = null;
+
+            // as in the eager value map, the last variable with the name wins
+            for ( RuleVariable ruleVariable : ruleVariables.get( name ) )
+            {
+                Map<String, RuleVariableValue> createdValues = ruleVariable.createValues( builder,
+                    allEventValues, currentEnrollmentValues, currentEventValues );
+
+                if ( createdValues.containsKey( name ) )
+                {
+                    value = createdValues.get( name );
+                }
+            }
+
+            values.put( name, value );
+
+            return value;
+        }
+
+        @Nonnull
+        Map<String, RuleVariableValue> getAll()
+        {
+            Map<String, RuleVariableValue> valueMap = new HashMap<>();
+
+            for ( String name : ruleVariables.keySet() )
+            {
+                RuleVariableValue value = get( name );
+
+                if ( value != null )
+                {
+                    valueMap.put( name, value );
+                }
+            }
+
+            return valueMap;
+        }
+    }
+}
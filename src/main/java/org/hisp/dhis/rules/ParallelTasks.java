@@ -0,0 +1,117 @@
+package org.hisp.dhis.rules;
+
+import com.google.common.base.Throwables;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Splitting of work in tasks for an executor, and joining of their results
+ * in a deterministic order.
+ */
+final class ParallelTasks
+{
+    private ParallelTasks()
+    {
+        // no instances
+    }
+
+    /**
+     * Splits the items in consecutive chunks whose weights add up to at least
+     * the threshold, the remainder being added to the last chunk.
+     *
+     * @param weights the weight of each item, usually its number of rule
+     *                evaluations.
+     */
+    @Nonnull
+    static <T> List<List<T>> chunks( @Nonnull List<T> items, @Nonnull int[] weights, int threshold )
+    {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>();
+        int weight = 0;
+
+        for ( int i = 0; i < items.size(); i++ )
+        {
+            chunk.add( items.get( i ) );
+            weight += weights[i];
+
+            if ( weight >= threshold )
+            {
+                chunks.add( chunk );
+                chunk = new ArrayList<>();
+                weight = 0;
+            }
+        }
+
+        if ( !chunk.isEmpty() )
+        {
+            if ( chunks.isEmpty() )
+            {
+                chunks.add( chunk );
+            }
+            else
+            {
+                // the remainder is too small for its own task
+                chunks.get( chunks.size() - 1 ).addAll( chunk );
+            }
+        }
+
+        return chunks;
+    }
+
+    /**
+     * Submits all tasks but the first one, which runs on the calling thread,
+     * and concatenates their results in the order of the tasks. The tasks
+     * still running are cancelled if one of them fails.
+     */
+    @Nonnull
+    static <T> List<T> invokeInOrder( @Nonnull ExecutorService executorService,
+        @Nonnull List<? extends Callable<List<T>>> tasks )
+    {
+        List<Future<List<T>>> futures = new ArrayList<>( tasks.size() );
+
+        try
+        {
+            for ( Callable<List<T>> task : tasks.subList( 1, tasks.size() ) )
+            {
+                futures.add( executorService.submit( task ) );
+            }
+
+            List<T> results = new ArrayList<>( tasks.get( 0 ).call() );
+
+            for ( Future<List<T>> future : futures )
+            {
+                results.addAll( future.get() );
+            }
+
+            return results;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while evaluating rules", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwables.propagateIfPossible( e.getCause() );
+            throw new IllegalStateException( e.getCause() );
+        }
+        catch ( Exception e )
+        {
+            Throwables.propagateIfPossible( e );
+            throw new IllegalStateException( e );
+        }
+        finally
+        {
+            for ( Future<List<T>> future : futures )
+            {
+                future.cancel( true );
+            }
+        }
+    }
+}
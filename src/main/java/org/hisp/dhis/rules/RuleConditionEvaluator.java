@@ -3,124 +3,252 @@ package org.hisp.dhis.rules;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.hisp.dhis.antlr.Parser;
 import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
 import org.hisp.dhis.rules.models.*;
-import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.InvariantValues;
 import org.hisp.dhis.rules.utils.RuleEngineUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.Callable;
 
-import static org.hisp.dhis.rules.parser.expression.ParserUtils.FUNCTION_EVALUATE;
-
 class RuleConditionEvaluator
 {
     private static final Log log = LogFactory.getLog( RuleConditionEvaluator.class );
 
+    /**
+     * Result of an expression which could not be evaluated.
+     */
+    private static final Object FAILED = new Object();
+
+    @Nonnull
+    private final CompiledExpressionCache compiledExpressions;
+
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
+    RuleConditionEvaluator( @Nonnull CompiledExpressionCache compiledExpressions,
+        @Nullable RuleEngineInstrumentation instrumentation )
+    {
+        this.compiledExpressions = compiledExpressions;
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * @param rules the rules to evaluate, already sorted by priority.
+     */
     public List<RuleEffect> getRuleEffects( Map<String, RuleVariableValue> valueMap,
         Map<String, List<String>> supplementaryData, List<Rule> rules )
+    {
+        return getRuleEffects( valueMap, supplementaryData, rules, null );
+    }
+
+    /**
+     * @param rules           the rules to evaluate, already sorted by priority.
+     * @param invariantValues the values of the hoisted sub expressions, shared
+     *                        by the events of the enrollment, or null.
+     */
+    List<RuleEffect> getRuleEffects( Map<String, RuleVariableValue> valueMap,
+        Map<String, List<String>> supplementaryData, List<Rule> rules, @Nullable InvariantValues invariantValues )
     {
         List<RuleEffect> ruleEffects = new ArrayList<>();
 
-        rules = orderRules( rules );
-        valueMap = new HashMap<>( valueMap );
+        evaluateRules( valueMap, supplementaryData, rules, invariantValues, null, null, collect( ruleEffects ) );
+
+        return ruleEffects;
+
+    }
+
+    /**
+     * Evaluates the rules, passing each effect to the callback as soon as it
+     * is created.
+     *
+     * @param rules           the rules to evaluate, already sorted by priority.
+     * @param invariantValues the values of the hoisted sub expressions, shared
+     *                        by the events of the enrollment, or null.
+     */
+    void evaluateRules( Map<String, RuleVariableValue> valueMap, Map<String, List<String>> supplementaryData,
+        List<Rule> rules, @Nullable InvariantValues invariantValues, TrackerObjectType trackerObjectType,
+        String trackerObjectUid, RuleEffectCallback callback )
+    {
+        EvaluationContext context = new EvaluationContext( LazyRuleVariableValueMap.copyOf( valueMap ),
+            supplementaryData, instrumentation, invariantValues );
+
+        for ( Rule rule : rules )
+        {
+            evaluateRule( rule, context, trackerObjectType, trackerObjectUid, callback );
+        }
+    }
+
+    /**
+     * Evaluates one rule, adding its effects and assigning its calculated
+     * values to the value map of the context.
+     *
+     * @return true if the condition of the rule was met.
+     */
+    boolean evaluateRule( Rule rule, EvaluationContext context, List<RuleEffect> ruleEffects )
+    {
+        return evaluateRule( rule, context, null, null, collect( ruleEffects ) );
+    }
 
-        for ( Rule rule : orderRules( rules ) )
+    private boolean evaluateRule( Rule rule, EvaluationContext context, TrackerObjectType trackerObjectType,
+        String trackerObjectUid, RuleEffectCallback callback )
+    {
+        if ( log.isDebugEnabled() )
         {
             log.debug( "Evaluating programrule: " + rule.name() );
+        }
+
+        if ( !isTrue( rule, context ) )
+        {
+            return false;
+        }
+
+        for ( RuleAction action : rule.actions() )
+        {
 
-            if ( Boolean.valueOf( process( rule.condition(), valueMap, supplementaryData ) ) )
+            //Check if action is assigning value to calculated variable
+            if ( isAssignToCalculatedValue( action ) )
+            {
+                RuleActionAssign ruleActionAssign = (RuleActionAssign) action;
+                updateValueMap(
+                    Utils.unwrapVariableName( ruleActionAssign.content() ),
+                    assignedValue( process( rule, action, ruleActionAssign.data(), context ),
+                        context.valueMap() ),
+                    context.valueMap()
+                );
+            }
+            else
             {
-                for ( RuleAction action : rule.actions() )
-                {
-
-                    //Check if action is assigning value to calculated variable
-                    if ( isAssignToCalculatedValue( action ) )
-                    {
-                        RuleActionAssign ruleActionAssign = (RuleActionAssign) action;
-                        updateValueMap(
-                            Utils.unwrapVariableName( ruleActionAssign.content() ),
-                            RuleVariableValue.create( process( ruleActionAssign.data(), valueMap, supplementaryData ),
-                                RuleValueType.TEXT ),
-                            valueMap
-                        );
-                    }
-                    else
-                    {
-                        ruleEffects.add( create( rule, action, valueMap, supplementaryData ) );
-                    }
-                }
+                callback.accept( trackerObjectType, trackerObjectUid, create( rule, action, context ) );
             }
         }
 
-        return ruleEffects;
-
+        return true;
     }
 
-    private List<Rule> orderRules( List<Rule> rules )
+    private static RuleEffectCallback collect( final List<RuleEffect> ruleEffects )
     {
-        List<Rule> ruleList = new ArrayList<>( rules );
-
-        Collections.sort( ruleList, new Comparator<Rule>()
+        return new RuleEffectCallback()
         {
             @Override
-            public int compare( Rule rule1, Rule rule2 )
+            public void accept( TrackerObjectType trackerObjectType, String trackerObjectUid,
+                RuleEffect ruleEffect )
             {
-                Integer priority1 = rule1.priority();
-                Integer priority2 = rule2.priority();
-                if ( priority1 != null && priority2 != null )
-                {
-                    return priority1.compareTo( priority2 );
-                }
-                else if ( priority1 != null )
-                {
-                    return -1;
-                }
-                else if ( priority2 != null )
-                {
-                    return 1;
-                }
-                else
-                {
-                    return 0;
-                }
+                ruleEffects.add( ruleEffect );
             }
-        } );
+        };
+    }
 
-        return ruleList;
+    /**
+     * @return the key an assign action writes to in the value map, or null if
+     * the action is not an assign action.
+     */
+    @Nullable
+    static String assignedKey( RuleAction ruleAction )
+    {
+        if ( !(ruleAction instanceof RuleActionAssign) )
+        {
+            return null;
+        }
+
+        RuleActionAssign ruleActionAssign = (RuleActionAssign) ruleAction;
+
+        return ruleActionAssign.field().isEmpty() ?
+            Utils.unwrapVariableName( ruleActionAssign.content() ) : ruleActionAssign.field();
+    }
+
+    private boolean isTrue( Rule rule, EvaluationContext context )
+    {
+        Object result = evaluate( rule, null, rule.condition(), context );
+
+        return result instanceof Boolean ? (Boolean) result : Boolean.valueOf( result.toString() );
     }
 
-    private String process( String condition, Map<String, RuleVariableValue> valueMap,
-        Map<String, List<String>> supplementaryData )
+    private String process( Rule rule, RuleAction ruleAction, String expression, EvaluationContext context )
+    {
+        return evaluate( rule, ruleAction, expression, context ).toString();
+    }
+
+    /**
+     * Evaluates the condition of the rule, or the data of one of its actions,
+     * reporting it to the instrumentation.
+     *
+     * @return the value of the expression, or "" if it could not be evaluated.
+     */
+    private Object evaluate( Rule rule, @Nullable RuleAction ruleAction, String expression,
+        EvaluationContext context )
+    {
+        if ( instrumentation == null )
+        {
+            Object result = evaluate( expression, context );
+            return result == FAILED ? "" : result;
+        }
+
+        long start = System.nanoTime();
+        Object result = evaluate( expression, context );
+        long nanos = System.nanoTime() - start;
+
+        if ( ruleAction == null )
+        {
+            instrumentation.conditionEvaluated( rule, nanos, result == FAILED );
+        }
+        else
+        {
+            instrumentation.actionEvaluated( rule, ruleAction, nanos, result == FAILED );
+        }
+
+        return result == FAILED ? "" : result;
+    }
+
+    /**
+     * Conditions which are known to be boolean are evaluated without going
+     * through strings, the value of all others is converted by the caller.
+     *
+     * @return the value of the expression, or {@link #FAILED} if it could not
+     * be evaluated.
+     */
+    private Object evaluate( String condition, EvaluationContext context )
     {
         if ( condition.isEmpty() )
         {
             return "";
         }
+
+        CompiledExpression compiledExpression = compiledExpressions.get( condition );
+
+        if ( !compiledExpression.isValid() )
+        {
+            // already reported when the expression was compiled
+            return FAILED;
+        }
+
         try
         {
-            CommonExpressionVisitor commonExpressionVisitor = CommonExpressionVisitor.newBuilder()
-                .withFunctionMap( RuleEngineUtils.FUNCTIONS )
-                .withFunctionMethod( FUNCTION_EVALUATE )
-                .withVariablesMap( valueMap )
-                .withSupplementaryData( supplementaryData )
-                .validateCommonProperties();
+            ExprNode root = compiledExpression.root();
 
-            Object result = Parser.visit( condition, commonExpressionVisitor, !isOldAndroidVersion( valueMap, supplementaryData ) );
-            return convertInteger( result ).toString();
+            if ( root.valueType() == ItemValueType.BOOLEAN )
+            {
+                return root.evaluateBoolean( context );
+            }
+
+            return Objects.requireNonNull( convertInteger( root.evaluate( context ) ) );
         }
         catch ( ParserExceptionWithoutContext e )
         {
             log.warn( "Condition " + condition + " not executed: " + e.getMessage() );
-            return "";
+            return FAILED;
         }
         catch ( Exception e )
         {
             e.printStackTrace();
             log.error( "Unexpected exception while evaluating " + condition + ": " + e.getMessage() );
-            return "";
+            return FAILED;
         }
     }
 
@@ -133,17 +261,25 @@ class RuleConditionEvaluator
         return result;
     }
 
-    private Boolean isOldAndroidVersion( Map<String, RuleVariableValue> valueMap, Map<String, List<String>> supplementaryData )
+    private Boolean isAssignToCalculatedValue( RuleAction ruleAction )
     {
-        return valueMap.containsKey( "environment" ) &&
-            Objects.equals( valueMap.get( "environment" ).value(), TriggerEnvironment.ANDROIDCLIENT.getClientName() ) &&
-            supplementaryData.containsKey( "android_version" ) &&
-            Integer.parseInt( supplementaryData.get( "android_version" ).get( 0 ) ) < 21;
+        return ruleAction instanceof RuleActionAssign && ((RuleActionAssign) ruleAction).field().isEmpty();
     }
 
-    private Boolean isAssignToCalculatedValue( RuleAction ruleAction )
+    /**
+     * Assigned values are dated like the other values of the map, at the
+     * current date of the evaluation.
+     */
+    private static RuleVariableValue assignedValue( String data, Map<String, RuleVariableValue> valueMap )
     {
-        return ruleAction instanceof RuleActionAssign && ((RuleActionAssign) ruleAction).field().isEmpty();
+        RuleVariableValue currentDate = valueMap.get( RuleEngineUtils.ENV_VAR_CURRENT_DATE );
+
+        if ( currentDate == null || currentDate.eventDate() == null )
+        {
+            return RuleVariableValue.create( data, RuleValueType.TEXT );
+        }
+
+        return RuleVariableValue.create( data, RuleValueType.TEXT, currentDate.eventDate() );
     }
 
     private void updateValueMap( String variable, RuleVariableValue value, Map<String, RuleVariableValue> valueMap )
@@ -152,19 +288,18 @@ class RuleConditionEvaluator
     }
 
     @Nonnull
-    private RuleEffect create( @Nonnull Rule rule, @Nonnull RuleAction ruleAction,
-        Map<String, RuleVariableValue> valueMap,
-        Map<String, List<String>> supplementaryData )
+    private RuleEffect create( @Nonnull Rule rule, @Nonnull RuleAction ruleAction, EvaluationContext context )
     {
         if ( ruleAction instanceof RuleActionAssign )
         {
             RuleActionAssign ruleActionAssign = (RuleActionAssign) ruleAction;
-            String data = process( ruleActionAssign.data(), valueMap, supplementaryData );
-            updateValueMap( ruleActionAssign.field(), RuleVariableValue.create( data, RuleValueType.TEXT ), valueMap );
+            String data = process( rule, ruleAction, ruleActionAssign.data(), context );
+            updateValueMap( ruleActionAssign.field(), assignedValue( data, context.valueMap() ),
+                context.valueMap() );
             return RuleEffect
                 .create( rule.uid(), ruleAction, StringUtils.isEmpty( data ) ? ruleActionAssign.data() : data );
         }
 
-        return RuleEffect.create( rule.uid(), ruleAction, process( ruleAction.data(), valueMap, supplementaryData ) );
+        return RuleEffect.create( rule.uid(), ruleAction, process( rule, ruleAction, ruleAction.data(), context ) );
     }
 }
@@ -0,0 +1,16 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffect;
+import org.hisp.dhis.rules.models.TrackerObjectType;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives each effect as soon as it is created, instead of collecting the
+ * effects of a tracker object in a list.
+ */
+public interface RuleEffectCallback
+{
+    void accept( @Nonnull TrackerObjectType trackerObjectType, @Nonnull String trackerObjectUid,
+        @Nonnull RuleEffect ruleEffect );
+}
@@ -0,0 +1,14 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffects;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the effects of each tracker object as soon as its rules are
+ * evaluated.
+ */
+public interface RuleEffectsSink
+{
+    void accept( @Nonnull RuleEffects ruleEffects );
+}
@@ -1,5 +1,7 @@
 package org.hisp.dhis.rules;
 
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hisp.dhis.antlr.Parser;
@@ -11,6 +13,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
 import static org.hisp.dhis.antlr.AntlrParserUtils.castClass;
 import static org.hisp.dhis.rules.parser.expression.ParserUtils.FUNCTION_FOR_DESCRIPTION;
@@ -20,6 +24,16 @@ public final class RuleEngine
 {
     private static final Log log = LogFactory.getLog( RuleEngine.class );
 
+    /**
+     * Rule evaluations below which a task is not worth submitting.
+     */
+    static final int DEFAULT_PARALLEL_THRESHOLD = 500;
+
+    /**
+     * Events read from an iterator before they are evaluated in parallel.
+     */
+    static final int DEFAULT_STREAM_WINDOW = 1000;
+
     @Nonnull
     private final RuleEngineContext ruleEngineContext;
 
@@ -32,14 +46,37 @@ public final class RuleEngine
     @Nullable
     private TriggerEnvironment triggerEnvironment;
 
+    private final boolean lazyVariableValues;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    private final int parallelThreshold;
+
+    private final int streamWindow;
+
+    @Nullable
+    private final CurrentDate currentDate;
+
+    @Nullable
+    private final ValueMapTemplate valueMapTemplate;
+
     RuleEngine( @Nonnull RuleEngineContext ruleEngineContext,
         @Nonnull List<RuleEvent> ruleEvents,
-        @Nullable RuleEnrollment ruleEnrollment, @Nullable TriggerEnvironment triggerEnvironment )
+        @Nullable RuleEnrollment ruleEnrollment, @Nullable TriggerEnvironment triggerEnvironment,
+        boolean lazyVariableValues, @Nullable ExecutorService executorService, int parallelThreshold,
+        int streamWindow, @Nullable CurrentDate currentDate, @Nullable ValueMapTemplate valueMapTemplate )
     {
         this.ruleEngineContext = ruleEngineContext;
         this.ruleEvents = ruleEvents;
         this.ruleEnrollment = ruleEnrollment;
         this.triggerEnvironment = triggerEnvironment;
+        this.lazyVariableValues = lazyVariableValues;
+        this.executorService = executorService;
+        this.parallelThreshold = parallelThreshold;
+        this.streamWindow = streamWindow;
+        this.currentDate = currentDate;
+        this.valueMapTemplate = valueMapTemplate;
     }
 
     @Nonnull
@@ -86,9 +123,16 @@ public final class RuleEngine
             .triggerEnvironment( triggerEnvironment )
             .ruleEvents( ruleEvents )
             .constantValueMap( ruleEngineContext.constantsValues() )
+            .lazyVariableValues( lazyVariableValues )
+            .variableNames( variableNames( rulesToEvaluate ) )
+            .instrumentation( ruleEngineContext.instrumentation() )
+            .currentDate( currentDate() )
+            .valueMapTemplate( valueMapTemplate )
             .build();
 
-        return new RuleEngineExecution( rulesToEvaluate, valueMap, ruleEngineContext.supplementaryData() );
+        return new RuleEngineExecution( sortByPriority( rulesToEvaluate ), valueMap,
+            ruleEngineContext.supplementaryData(), ruleEngineContext.compiledExpressions(),
+            ruleEngineContext.instrumentation() );
     }
 
     @Nonnull
@@ -100,13 +144,40 @@ public final class RuleEngine
             .triggerEnvironment( triggerEnvironment )
             .ruleEvents( ruleEvents )
             .constantValueMap( ruleEngineContext.constantsValues() )
+            .lazyVariableValues( lazyVariableValues )
+            .variableNames( variableNames( rulesToEvaluate ) )
+            .instrumentation( ruleEngineContext.instrumentation() )
+            .currentDate( currentDate() )
+            .valueMapTemplate( valueMapTemplate )
             .build();
 
-        return new RuleEngineExecution( rulesToEvaluate, valueMap, ruleEngineContext.supplementaryData() );
+        return new RuleEngineExecution( sortByPriority( rulesToEvaluate ), valueMap,
+            ruleEngineContext.supplementaryData(), ruleEngineContext.compiledExpressions(),
+            ruleEngineContext.instrumentation() );
     }
 
     @Nonnull
     public Callable<List<RuleEffects>> evaluate()
+    {
+        return multipleExecution();
+    }
+
+    /**
+     * Evaluates the enrollment and all events as {@link #evaluate()} does, on
+     * the calling thread, passing each effect to the callback as soon as it
+     * is created. No list of effects is built.
+     */
+    public void evaluate( @Nonnull RuleEffectCallback callback )
+    {
+        if ( callback == null )
+        {
+            throw new IllegalArgumentException( "callback == null" );
+        }
+
+        multipleExecution().evaluate( callback );
+    }
+
+    private RuleEngineMultipleExecution multipleExecution()
     {
         RuleVariableValueMap valueMap = RuleVariableValueMapBuilder.target()
             .ruleVariables( ruleEngineContext.ruleVariables() )
@@ -114,10 +185,16 @@ public final class RuleEngine
             .triggerEnvironment( triggerEnvironment )
             .ruleEvents( ruleEvents )
             .constantValueMap( ruleEngineContext.constantsValues() )
+            .lazyVariableValues( lazyVariableValues )
+            .rulePartitions( ruleEngineContext.rulePartitions() )
+            .instrumentation( ruleEngineContext.instrumentation() )
+            .currentDate( currentDate() )
+            .valueMapTemplate( valueMapTemplate )
             .multipleBuild();
 
-        return new RuleEngineMultipleExecution( ruleEngineContext.rules(), valueMap,
-            ruleEngineContext.supplementaryData() );
+        return new RuleEngineMultipleExecution( ruleEngineContext.rulePartitions(), valueMap,
+            ruleEngineContext.supplementaryData(), ruleEngineContext.compiledExpressions(),
+            ruleEngineContext.instrumentation(), executorService, parallelThreshold );
     }
 
     @Nonnull
@@ -126,6 +203,115 @@ public final class RuleEngine
         return evaluate( ruleEnrollment, ruleEngineContext.rules() );
     }
 
+    /**
+     * Evaluates each event returned by the iterator against the enrollment
+     * and events of the engine, with the rules of its program stage, and
+     * pushes its effects to the sink before reading further. With an
+     * executor, events are read and evaluated in parallel one window at a
+     * time, and their effects pushed in the order of the iterator. An event
+     * with the uid of one of the events of the engine is evaluated as one more
+     * event of the enrollment, instead of replacing it.
+     */
+    public void evaluate( @Nonnull Iterator<RuleEvent> ruleEvents, @Nonnull RuleEffectsSink sink )
+    {
+        if ( ruleEvents == null )
+        {
+            throw new IllegalArgumentException( "ruleEvents == null" );
+        }
+
+        if ( sink == null )
+        {
+            throw new IllegalArgumentException( "sink == null" );
+        }
+
+        ValueMapTemplate template = valueMapTemplate != null ? valueMapTemplate :
+            ValueMapTemplate.create( ruleEngineContext.constantsValues(), triggerEnvironment, currentDate() );
+
+        new RuleEngineStreamExecution( ruleEngineContext, ruleEnrollment, this.ruleEvents, lazyVariableValues,
+            executorService, parallelThreshold, streamWindow, ruleEvents, sink, template ).run();
+    }
+
+    /**
+     * Builds the value map and evaluates the rules for the event on the given
+     * executor. Cancelling the future before it runs skips the evaluation.
+     */
+    @Nonnull
+    public ListenableFuture<List<RuleEffect>> evaluateAsync( @Nonnull final RuleEvent ruleEvent,
+        @Nonnull Executor executor )
+    {
+        if ( ruleEvent == null )
+        {
+            throw new IllegalArgumentException( "ruleEvent == null" );
+        }
+
+        return submit( new Callable<List<RuleEffect>>()
+        {
+            @Override
+            public List<RuleEffect> call()
+                throws Exception
+            {
+                return evaluate( ruleEvent ).call();
+            }
+        }, executor );
+    }
+
+    /**
+     * Builds the value map and evaluates the rules for the enrollment on the
+     * given executor.
+     */
+    @Nonnull
+    public ListenableFuture<List<RuleEffect>> evaluateAsync( @Nonnull final RuleEnrollment ruleEnrollment,
+        @Nonnull Executor executor )
+    {
+        if ( ruleEnrollment == null )
+        {
+            throw new IllegalArgumentException( "ruleEnrollment == null" );
+        }
+
+        return submit( new Callable<List<RuleEffect>>()
+        {
+            @Override
+            public List<RuleEffect> call()
+                throws Exception
+            {
+                return evaluate( ruleEnrollment ).call();
+            }
+        }, executor );
+    }
+
+    /**
+     * Builds the value maps and evaluates the rules for the enrollment and
+     * all events on the given executor.
+     */
+    @Nonnull
+    public ListenableFuture<List<RuleEffects>> evaluateAsync( @Nonnull Executor executor )
+    {
+        return submit( new Callable<List<RuleEffects>>()
+        {
+            @Override
+            public List<RuleEffects> call()
+                throws Exception
+            {
+                return evaluate().call();
+            }
+        }, executor );
+    }
+
+    /**
+     * Starts a session on the enrollment and events of the engine, to apply
+     * single value updates without evaluating all rules again.
+     */
+    @Nonnull
+    public RuleEngineSession session()
+    {
+        if ( ruleEnrollment == null )
+        {
+            throw new IllegalStateException( "A session requires an enrollment" );
+        }
+
+        return new RuleEngineSession( ruleEngineContext, ruleEnrollment, ruleEvents, triggerEnvironment );
+    }
+
     @Nonnull
     public RuleValidationResult evaluate( String expression )
     {
@@ -140,6 +326,56 @@ public final class RuleEngine
         return getExpressionDescription( expression, null );
     }
 
+    private static <T> ListenableFuture<T> submit( Callable<T> callable, Executor executor )
+    {
+        if ( executor == null )
+        {
+            throw new IllegalArgumentException( "executor == null" );
+        }
+
+        ListenableFutureTask<T> task = ListenableFutureTask.create( callable );
+        executor.execute( task );
+        return task;
+    }
+
+    /**
+     * @return the date of an evaluation, read from the clock of the context
+     * once per evaluation unless the engine was built for a given date.
+     */
+    private CurrentDate currentDate()
+    {
+        return currentDate != null ? currentDate : ruleEngineContext.clock().currentDate();
+    }
+
+    /**
+     * The rules of the context are sorted once when it is built, other lists
+     * are sorted for each evaluation.
+     */
+    private List<Rule> sortByPriority( List<Rule> rules )
+    {
+        if ( rules == ruleEngineContext.rules() )
+        {
+            return ruleEngineContext.rulePartitions().rules();
+        }
+
+        return RuleEngineFilter.sortByPriority( rules );
+    }
+
+    /**
+     * The variables read by the rules of the context are known when it is
+     * built, all variables are created for other lists.
+     */
+    @Nullable
+    private Set<String> variableNames( List<Rule> rules )
+    {
+        if ( rules == ruleEngineContext.rules() )
+        {
+            return ruleEngineContext.rulePartitions().variables();
+        }
+
+        return null;
+    }
+
     private RuleValidationResult getExpressionDescription( String expression, Class<?> klass )
     {
         Map<String, String> itemDescriptions = new HashMap<>();
@@ -199,6 +435,21 @@ public final class RuleEngine
         @Nullable
         private TriggerEnvironment triggerEnvironment;
 
+        private boolean lazyVariableValues;
+
+        @Nullable
+        private ExecutorService executorService;
+
+        private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+        private int streamWindow = DEFAULT_STREAM_WINDOW;
+
+        @Nullable
+        private CurrentDate currentDate;
+
+        @Nullable
+        private ValueMapTemplate valueMapTemplate;
+
         Builder( @Nonnull RuleEngineContext ruleEngineContext )
         {
             this.ruleEngineContext = ruleEngineContext;
@@ -240,6 +491,84 @@ public final class RuleEngine
             return this;
         }
 
+        /**
+         * Creates the value of a rule variable the first time a rule reads
+         * it, instead of creating all of them before the rules are evaluated.
+         * Values are kept for the rest of the evaluation of each event or
+         * enrollment.
+         */
+        @Nonnull
+        public Builder lazyVariableValues( boolean lazyVariableValues )
+        {
+            this.lazyVariableValues = lazyVariableValues;
+            return this;
+        }
+
+        /**
+         * Evaluates the enrollment and events of {@link RuleEngine#evaluate()}
+         * on the given executor, which may be a fork/join pool. Effects are
+         * returned in the same order as a sequential evaluation.
+         */
+        @Nonnull
+        public Builder executorService( @Nonnull ExecutorService executorService )
+        {
+            if ( executorService == null )
+            {
+                throw new IllegalArgumentException( "executorService == null" );
+            }
+
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * The minimum number of rule evaluations, summed over the enrollment
+         * and events, given to each task of the executor. Enrollments with
+         * fewer are evaluated on the calling thread.
+         */
+        @Nonnull
+        public Builder parallelThreshold( int parallelThreshold )
+        {
+            if ( parallelThreshold < 1 )
+            {
+                throw new IllegalArgumentException( "parallelThreshold < 1" );
+            }
+
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        /**
+         * The number of events held in memory by
+         * {@link RuleEngine#evaluate(Iterator, RuleEffectsSink)} when they are
+         * evaluated on an executor.
+         */
+        @Nonnull
+        public Builder streamWindow( int streamWindow )
+        {
+            if ( streamWindow < 1 )
+            {
+                throw new IllegalArgumentException( "streamWindow < 1" );
+            }
+
+            this.streamWindow = streamWindow;
+            return this;
+        }
+
+        /**
+         * Shares the values which depend neither on the enrollment nor on the
+         * events with other engines, and evaluates at their date instead of
+         * reading the clock of the context. Used by batches to build them
+         * once and evaluate all enrollments at one date.
+         */
+        @Nonnull
+        Builder valueMapTemplate( @Nonnull ValueMapTemplate valueMapTemplate )
+        {
+            this.valueMapTemplate = valueMapTemplate;
+            this.currentDate = valueMapTemplate.currentDate();
+            return this;
+        }
+
         @Nonnull
         public RuleEngine build()
         {
@@ -248,7 +577,9 @@ public final class RuleEngine
                 ruleEvents = Collections.unmodifiableList( new ArrayList<RuleEvent>() );
             }
 
-            return new RuleEngine( ruleEngineContext, ruleEvents, ruleEnrollment, triggerEnvironment );
+            return new RuleEngine( ruleEngineContext, ruleEvents, ruleEnrollment, triggerEnvironment,
+                lazyVariableValues, executorService, parallelThreshold, streamWindow, currentDate,
+                valueMapTemplate );
         }
     }
 }
@@ -0,0 +1,283 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.models.TriggerEnvironment;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Evaluates the rules of one context for many enrollments. The compiled
+ * expressions, rule partitions, constants and supplementary data of the
+ * context are shared by the whole batch, as are the values of the constants,
+ * the current date and the trigger environment, which are created once per
+ * evaluation. The enrollments are spread over the executor, if any.
+ */
+public final class RuleEngineBatch
+{
+    @Nonnull
+    private final RuleEngineContext ruleEngineContext;
+
+    @Nonnull
+    private final List<Enrollment> enrollments;
+
+    @Nullable
+    private final TriggerEnvironment triggerEnvironment;
+
+    private final boolean lazyVariableValues;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    private final int parallelThreshold;
+
+    RuleEngineBatch( @Nonnull RuleEngineContext ruleEngineContext, @Nonnull List<Enrollment> enrollments,
+        @Nullable TriggerEnvironment triggerEnvironment, boolean lazyVariableValues,
+        @Nullable ExecutorService executorService, int parallelThreshold )
+    {
+        this.ruleEngineContext = ruleEngineContext;
+        this.enrollments = enrollments;
+        this.triggerEnvironment = triggerEnvironment;
+        this.lazyVariableValues = lazyVariableValues;
+        this.executorService = executorService;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    @Nonnull
+    public RuleEngineContext executionContext()
+    {
+        return ruleEngineContext;
+    }
+
+    public int size()
+    {
+        return enrollments.size();
+    }
+
+    /**
+     * @return the effects of the enrollments and their events, in the order
+     * the enrollments were added, each enrollment in the order of
+     * {@link RuleEngine#evaluate()}.
+     */
+    @Nonnull
+    public Callable<List<RuleEffects>> evaluate()
+    {
+        return new Callable<List<RuleEffects>>()
+        {
+            @Override
+            public List<RuleEffects> call()
+                throws Exception
+            {
+                // all enrollments of the batch are evaluated at the same date
+                final ValueMapTemplate valueMapTemplate = ValueMapTemplate.create(
+                    ruleEngineContext.constantsValues(), triggerEnvironment, ruleEngineContext.clock().currentDate() );
+
+                if ( executorService == null )
+                {
+                    return evaluate( enrollments, valueMapTemplate );
+                }
+
+                RulePartitions rulePartitions = ruleEngineContext.rulePartitions();
+                int[] ruleCounts = new int[enrollments.size()];
+
+                for ( int i = 0; i < enrollments.size(); i++ )
+                {
+                    ruleCounts[i] = enrollments.get( i ).ruleCount( rulePartitions );
+                }
+
+                List<List<Enrollment>> chunks = ParallelTasks.chunks( enrollments, ruleCounts, parallelThreshold );
+
+                if ( chunks.size() < 2 )
+                {
+                    return evaluate( enrollments, valueMapTemplate );
+                }
+
+                List<Callable<List<RuleEffects>>> tasks = new ArrayList<>( chunks.size() );
+
+                for ( final List<Enrollment> chunk : chunks )
+                {
+                    tasks.add( new Callable<List<RuleEffects>>()
+                    {
+                        @Override
+                        public List<RuleEffects> call()
+                            throws Exception
+                        {
+                            return evaluate( chunk, valueMapTemplate );
+                        }
+                    } );
+                }
+
+                return ParallelTasks.invokeInOrder( executorService, tasks );
+            }
+        };
+    }
+
+    /**
+     * Evaluates the enrollments on the current thread, sharing the values
+     * which depend neither on the enrollment nor on the events.
+     */
+    private List<RuleEffects> evaluate( List<Enrollment> enrollments, ValueMapTemplate valueMapTemplate )
+        throws Exception
+    {
+        List<RuleEffects> ruleEffects = new ArrayList<>();
+
+        for ( Enrollment enrollment : enrollments )
+        {
+            RuleEngine.Builder builder = ruleEngineContext.toEngineBuilder()
+                .enrollment( enrollment.ruleEnrollment )
+                .events( enrollment.ruleEvents )
+                .lazyVariableValues( lazyVariableValues )
+                .valueMapTemplate( valueMapTemplate );
+
+            if ( triggerEnvironment != null )
+            {
+                builder.triggerEnvironment( triggerEnvironment );
+            }
+
+            ruleEffects.addAll( builder.build().evaluate().call() );
+        }
+
+        return ruleEffects;
+    }
+
+    static final class Enrollment
+    {
+        @Nonnull
+        private final RuleEnrollment ruleEnrollment;
+
+        @Nonnull
+        private final List<RuleEvent> ruleEvents;
+
+        Enrollment( @Nonnull RuleEnrollment ruleEnrollment, @Nonnull List<RuleEvent> ruleEvents )
+        {
+            this.ruleEnrollment = ruleEnrollment;
+            this.ruleEvents = ruleEvents;
+        }
+
+        /**
+         * @return the number of rule evaluations of the enrollment and its events.
+         */
+        int ruleCount( RulePartitions rulePartitions )
+        {
+            int ruleCount = rulePartitions.rules( ruleEnrollment ).size();
+
+            for ( RuleEvent ruleEvent : ruleEvents )
+            {
+                ruleCount += rulePartitions.rules( ruleEvent ).size();
+            }
+
+            return ruleCount;
+        }
+    }
+
+    public static class Builder
+    {
+        @Nonnull
+        private final RuleEngineContext ruleEngineContext;
+
+        @Nonnull
+        private final List<Enrollment> enrollments;
+
+        @Nullable
+        private TriggerEnvironment triggerEnvironment;
+
+        private boolean lazyVariableValues;
+
+        @Nullable
+        private ExecutorService executorService;
+
+        private int parallelThreshold = RuleEngine.DEFAULT_PARALLEL_THRESHOLD;
+
+        Builder( @Nonnull RuleEngineContext ruleEngineContext )
+        {
+            this.ruleEngineContext = ruleEngineContext;
+            this.enrollments = new ArrayList<>();
+        }
+
+        @Nonnull
+        public Builder enrollment( @Nonnull RuleEnrollment ruleEnrollment, @Nonnull List<RuleEvent> ruleEvents )
+        {
+            if ( ruleEnrollment == null )
+            {
+                throw new IllegalArgumentException( "ruleEnrollment == null" );
+            }
+
+            if ( ruleEvents == null )
+            {
+                throw new IllegalArgumentException( "ruleEvents == null" );
+            }
+
+            enrollments.add( new Enrollment( ruleEnrollment,
+                Collections.unmodifiableList( new ArrayList<>( ruleEvents ) ) ) );
+            return this;
+        }
+
+        @Nonnull
+        public Builder triggerEnvironment( @Nonnull TriggerEnvironment triggerEnvironment )
+        {
+            if ( triggerEnvironment == null )
+            {
+                throw new IllegalArgumentException( "triggerEnvironment == null" );
+            }
+
+            this.triggerEnvironment = triggerEnvironment;
+            return this;
+        }
+
+        /**
+         * @see RuleEngine.Builder#lazyVariableValues(boolean)
+         */
+        @Nonnull
+        public Builder lazyVariableValues( boolean lazyVariableValues )
+        {
+            this.lazyVariableValues = lazyVariableValues;
+            return this;
+        }
+
+        /**
+         * Spreads the enrollments over the given executor. Each enrollment is
+         * evaluated by a single task.
+         */
+        @Nonnull
+        public Builder executorService( @Nonnull ExecutorService executorService )
+        {
+            if ( executorService == null )
+            {
+                throw new IllegalArgumentException( "executorService == null" );
+            }
+
+            this.executorService = executorService;
+            return this;
+        }
+
+        /**
+         * The minimum number of rule evaluations, summed over enrollments and
+         * their events, given to each task of the executor.
+         */
+        @Nonnull
+        public Builder parallelThreshold( int parallelThreshold )
+        {
+            if ( parallelThreshold < 1 )
+            {
+                throw new IllegalArgumentException( "parallelThreshold < 1" );
+            }
+
+            this.parallelThreshold = parallelThreshold;
+            return this;
+        }
+
+        @Nonnull
+        public RuleEngineBatch build()
+        {
+            return new RuleEngineBatch( ruleEngineContext, Collections.unmodifiableList( new ArrayList<>( enrollments ) ),
+                triggerEnvironment, lazyVariableValues, executorService, parallelThreshold );
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.hisp.dhis.rules;
+
+import javax.annotation.Nonnull;
+import java.util.Date;
+
+/**
+ * Source of the current date of evaluations. Each evaluation reads it once,
+ * so that all the values of an evaluation see the same date, and a fixed
+ * clock makes evaluations reproducible.
+ */
+public abstract class RuleEngineClock
+{
+    public static final RuleEngineClock SYSTEM = new RuleEngineClock()
+    {
+        @Override
+        public long currentTimeMillis()
+        {
+            return System.currentTimeMillis();
+        }
+    };
+
+    /**
+     * @return a clock always returning the given date.
+     */
+    @Nonnull
+    public static RuleEngineClock fixed( @Nonnull Date date )
+    {
+        if ( date == null )
+        {
+            throw new IllegalArgumentException( "date == null" );
+        }
+
+        final long millis = date.getTime();
+
+        return new RuleEngineClock()
+        {
+            @Override
+            public long currentTimeMillis()
+            {
+                return millis;
+            }
+        };
+    }
+
+    public abstract long currentTimeMillis();
+
+    /**
+     * @return the date of the clock now.
+     */
+    @Nonnull
+    public final CurrentDate currentDate()
+    {
+        return new CurrentDate( currentTimeMillis() );
+    }
+}
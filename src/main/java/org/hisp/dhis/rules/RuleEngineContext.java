@@ -2,6 +2,8 @@ package org.hisp.dhis.rules;
 
 import org.hisp.dhis.rules.models.Rule;
 import org.hisp.dhis.rules.models.RuleVariable;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
+import org.hisp.dhis.rules.utils.IndexedList;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -31,28 +33,51 @@ public final class RuleEngineContext
     @Nullable
     private final Map<String, DataItem> dataItemStore;
 
+    @Nonnull
+    private final CompiledExpressionCache compiledExpressions;
+
+    @Nonnull
+    private final RulePartitions rulePartitions;
+
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
+    @Nonnull
+    private final RuleEngineClock clock;
 
     RuleEngineContext( @Nonnull List<Rule> rules, @Nonnull List<RuleVariable> ruleVariables,
         Map<String, List<String>> supplementaryData, Map<String, String> constantsValues, RuleEngineIntent intent,
-        Map<String, DataItem> itemStore )
+        Map<String, DataItem> itemStore, @Nullable RuleEngineInstrumentation instrumentation,
+        @Nonnull RuleEngineClock clock )
     {
         this.rules = rules;
         this.ruleVariables = ruleVariables;
-        this.supplementaryData = supplementaryData;
+        this.supplementaryData = IndexedList.indexValues( supplementaryData );
         this.constantsValues = constantsValues;
         this.ruleEngineIntent = intent;
         this.dataItemStore = itemStore;
+        this.compiledExpressions = new CompiledExpressionCache( rules, instrumentation,
+            InvariantVariables.of( rules, ruleVariables, constantsValues ) );
+        this.rulePartitions = new RulePartitions( rules, compiledExpressions );
+        this.instrumentation = instrumentation;
+        this.clock = clock;
     }
 
     RuleEngineContext( @Nonnull List<Rule> rules, @Nonnull List<RuleVariable> ruleVariables,
-       Map<String, List<String>> supplementaryData, Map<String, String> constantsValues )
+       Map<String, List<String>> supplementaryData, Map<String, String> constantsValues,
+       @Nullable RuleEngineInstrumentation instrumentation, @Nonnull RuleEngineClock clock )
     {
         this.rules = rules;
         this.ruleVariables = ruleVariables;
-        this.supplementaryData = supplementaryData;
+        this.supplementaryData = IndexedList.indexValues( supplementaryData );
         this.constantsValues = constantsValues;
         this.ruleEngineIntent = RuleEngineIntent.EVALUATION;
         this.dataItemStore = new HashMap<>();
+        this.compiledExpressions = new CompiledExpressionCache( rules, instrumentation,
+            InvariantVariables.of( rules, ruleVariables, constantsValues ) );
+        this.rulePartitions = new RulePartitions( rules, compiledExpressions );
+        this.instrumentation = instrumentation;
+        this.clock = clock;
     }
 
     @Nonnull
@@ -104,12 +129,53 @@ public final class RuleEngineContext
         return ruleEngineIntent;
     }
 
+    /**
+     * @return conditions and action data of the rules, parsed once when the
+     * context was built.
+     */
+    @Nonnull
+    CompiledExpressionCache compiledExpressions()
+    {
+        return compiledExpressions;
+    }
+
+    /**
+     * @return rules filtered for enrollments and for each program stage, and
+     * the variables they read, computed once when the context was built.
+     */
+    @Nonnull
+    RulePartitions rulePartitions()
+    {
+        return rulePartitions;
+    }
+
+    @Nullable
+    public RuleEngineInstrumentation instrumentation()
+    {
+        return instrumentation;
+    }
+
+    /**
+     * @return the clock read once per evaluation for the current date.
+     */
+    @Nonnull
+    public RuleEngineClock clock()
+    {
+        return clock;
+    }
+
     @Nonnull
     public RuleEngine.Builder toEngineBuilder()
     {
         return new RuleEngine.Builder( this );
     }
 
+    @Nonnull
+    public RuleEngineBatch.Builder toBatchBuilder()
+    {
+        return new RuleEngineBatch.Builder( this );
+    }
+
     public static class Builder
     {
         private RuleEngineIntent intent;
@@ -129,6 +195,12 @@ public final class RuleEngineContext
         @Nullable
         private Map<String, DataItem> itemStore;
 
+        @Nullable
+        private RuleEngineInstrumentation instrumentation;
+
+        @Nonnull
+        private RuleEngineClock clock = RuleEngineClock.SYSTEM;
+
         Builder( @Nonnull RuleExpressionEvaluator evaluator )
         {
         }
@@ -176,6 +248,11 @@ public final class RuleEngineContext
         }
 
 
+        /**
+         * Organisation units of each organisation unit group and user roles,
+         * copied when the context is built into lists whose membership tests
+         * are hash lookups.
+         */
         @Nonnull
         public Builder supplementaryData( Map<String, List<String>> supplementaryData )
         {
@@ -204,6 +281,36 @@ public final class RuleEngineContext
             return this;
         }
 
+        /**
+         * Reports the time spent evaluating each rule, function and value map
+         * of the engines built from the context.
+         */
+        @Nonnull
+        public Builder instrumentation( @Nonnull RuleEngineInstrumentation instrumentation )
+        {
+            if ( instrumentation == null )
+            {
+                throw new IllegalArgumentException( "instrumentation == null" );
+            }
+            this.instrumentation = instrumentation;
+            return this;
+        }
+
+        /**
+         * The clock giving the current date of the evaluations, the system
+         * clock by default.
+         */
+        @Nonnull
+        public Builder clock( @Nonnull RuleEngineClock clock )
+        {
+            if ( clock == null )
+            {
+                throw new IllegalArgumentException( "clock == null" );
+            }
+            this.clock = clock;
+            return this;
+        }
+
         @Nonnull
         public RuleEngineContext build()
         {
@@ -220,13 +327,14 @@ public final class RuleEngineContext
             if ( intent == null )
             {
                 // For evaluation
-                return new RuleEngineContext( rules, ruleVariables, supplementaryData, constantsValues );
+                return new RuleEngineContext( rules, ruleVariables, supplementaryData, constantsValues,
+                    instrumentation, clock );
             }
             else
             {
                 // for description
                 return new RuleEngineContext( rules, ruleVariables, supplementaryData, constantsValues,
-                    intent, itemStore );
+                    intent, itemStore, instrumentation, clock );
             }
         }
     }
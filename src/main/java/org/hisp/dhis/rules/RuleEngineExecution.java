@@ -7,9 +7,11 @@ import org.hisp.dhis.antlr.Parser;
 import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
 import org.hisp.dhis.rules.models.*;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
 import org.hisp.dhis.rules.utils.RuleEngineUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.Callable;
 
@@ -32,18 +34,33 @@ class RuleEngineExecution
     @Nonnull
     private RuleConditionEvaluator ruleConditionEvaluator;
 
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
     RuleEngineExecution( @Nonnull List<Rule> rules,
-        @Nonnull Map<String, RuleVariableValue> valueMap, Map<String, List<String>> supplementaryData )
+        @Nonnull Map<String, RuleVariableValue> valueMap, Map<String, List<String>> supplementaryData,
+        @Nonnull CompiledExpressionCache compiledExpressions, @Nullable RuleEngineInstrumentation instrumentation )
     {
-        this.valueMap = new HashMap<>( valueMap );
+        this.valueMap = LazyRuleVariableValueMap.copyOf( valueMap );
         this.rules = rules;
         this.supplementaryData = supplementaryData;
-        this.ruleConditionEvaluator = new RuleConditionEvaluator();
+        this.ruleConditionEvaluator = new RuleConditionEvaluator( compiledExpressions, instrumentation );
+        this.instrumentation = instrumentation;
     }
 
     @Override
     public List<RuleEffect> call()
     {
-        return ruleConditionEvaluator.getRuleEffects( valueMap, supplementaryData, this.rules );
+        if ( instrumentation == null )
+        {
+            return ruleConditionEvaluator.getRuleEffects( valueMap, supplementaryData, this.rules );
+        }
+
+        long start = System.nanoTime();
+        List<RuleEffect> ruleEffects = ruleConditionEvaluator.getRuleEffects( valueMap, supplementaryData,
+            this.rules );
+        instrumentation.executionCompleted( System.nanoTime() - start );
+
+        return ruleEffects;
     }
 }
@@ -32,6 +32,9 @@ import com.google.common.collect.Lists;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.rules.models.*;
 
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -40,7 +43,58 @@ import java.util.Objects;
  */
 class RuleEngineFilter
 {
+    /**
+     * Orders rules by ascending priority, rules without priority last.
+     */
+    static final Comparator<Rule> PRIORITY_COMPARATOR = new Comparator<Rule>()
+    {
+        @Override
+        public int compare( Rule rule1, Rule rule2 )
+        {
+            Integer priority1 = rule1.priority();
+            Integer priority2 = rule2.priority();
+            if ( priority1 != null && priority2 != null )
+            {
+                return priority1.compareTo( priority2 );
+            }
+            else if ( priority1 != null )
+            {
+                return -1;
+            }
+            else if ( priority2 != null )
+            {
+                return 1;
+            }
+            else
+            {
+                return 0;
+            }
+        }
+    };
+
+    /**
+     * @return a copy of the rules sorted by priority. The sort is stable, so
+     * rules with the same priority keep their order.
+     */
+    static List<Rule> sortByPriority( List<Rule> rules )
+    {
+        List<Rule> sortedRules = Lists.newArrayList( rules );
+        Collections.sort( sortedRules, PRIORITY_COMPARATOR );
+
+        return sortedRules;
+    }
+
     static List<Rule> filterRules( List<Rule> rules, RuleEnrollment ruleEnrollment )
+    {
+        return filterEnrollmentRules( rules );
+    }
+
+    static List<Rule> filterRules( List<Rule> rules, RuleEvent ruleEvent )
+    {
+        return filterEventRules( rules, ruleEvent.programStage() );
+    }
+
+    static List<Rule> filterEnrollmentRules( List<Rule> rules )
     {
         List<Rule> filteredRules = Lists.newArrayList();
 
@@ -48,33 +102,40 @@ class RuleEngineFilter
         {
             if ( StringUtils.isEmpty( rule.programStage() ) )
             {
-                List<RuleAction> ruleActions = filterActionRules( rule.actions(),
-                    AttributeType.TRACKED_ENTITY_ATTRIBUTE );
-                filteredRules.add( Rule.copy( rule, ruleActions ) );
+                filteredRules.add( filterRule( rule, AttributeType.TRACKED_ENTITY_ATTRIBUTE ) );
             }
         }
 
         return filteredRules;
     }
 
-    static List<Rule> filterRules( List<Rule> rules, RuleEvent ruleEvent )
+    static List<Rule> filterEventRules( List<Rule> rules, @Nullable String programStage )
     {
         List<Rule> filteredRules = Lists.newArrayList();
 
         for ( Rule rule : rules )
         {
             if ( StringUtils.isEmpty( rule.programStage() ) ||
-                Objects.equals( rule.programStage(), ruleEvent.programStage() ) )
+                Objects.equals( rule.programStage(), programStage ) )
             {
-                List<RuleAction> ruleActions = filterActionRules( rule.actions(),
-                    AttributeType.DATA_ELEMENT );
-                filteredRules.add( Rule.copy( rule, ruleActions ) );
+                filteredRules.add( filterRule( rule, AttributeType.DATA_ELEMENT ) );
             }
         }
 
         return filteredRules;
     }
 
+    /**
+     * @return the rule itself when none of its actions are filtered out,
+     * otherwise a copy with the remaining actions.
+     */
+    private static Rule filterRule( Rule rule, AttributeType attributeType )
+    {
+        List<RuleAction> ruleActions = filterActionRules( rule.actions(), attributeType );
+
+        return ruleActions.size() == rule.actions().size() ? rule : Rule.copy( rule, ruleActions );
+    }
+
     private static List<RuleAction> filterActionRules( List<RuleAction> ruleActions, AttributeType attributeType )
     {
         List<RuleAction> filteredRuleActions = Lists.newArrayList();
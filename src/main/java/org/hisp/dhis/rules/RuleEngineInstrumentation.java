@@ -0,0 +1,59 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Called around the steps of an evaluation, to measure them. Set on the
+ * context with {@link RuleEngineContext.Builder#instrumentation}; it is
+ * called concurrently when evaluations run in parallel, and must be cheap
+ * as it is called for every rule of every target.
+ *
+ * @see RuleEngineMetrics
+ */
+public interface RuleEngineInstrumentation
+{
+    /**
+     * @param failed true if the condition could not be evaluated, and was
+     *               considered false.
+     */
+    void conditionEvaluated( @Nonnull Rule rule, long nanos, boolean failed );
+
+    /**
+     * @param failed true if the data of the action could not be evaluated,
+     *               and was considered empty.
+     */
+    void actionEvaluated( @Nonnull Rule rule, @Nonnull RuleAction ruleAction, long nanos, boolean failed );
+
+    /**
+     * @param count the number of value maps built, one per event or
+     *              enrollment.
+     */
+    void valueMapsBuilt( int count, long nanos );
+
+    /**
+     * @param function the name of the function, like d2:hasValue.
+     * @param failed   true if the function threw an exception.
+     */
+    void functionEvaluated( @Nonnull String function, long nanos, boolean failed );
+
+    /**
+     * Called when a {@link RuleEngine#evaluate(org.hisp.dhis.rules.models.RuleEvent)}
+     * or enrollment evaluation completes.
+     */
+    void executionCompleted( long nanos );
+
+    /**
+     * Called when a {@link RuleEngine#evaluate()} evaluation completes.
+     *
+     * @param targets the number of events and enrollments evaluated.
+     */
+    void multipleExecutionCompleted( int targets, long nanos );
+
+    /**
+     * @param cached true if the expression was already compiled.
+     */
+    void expressionLookedUp( boolean cached );
+}
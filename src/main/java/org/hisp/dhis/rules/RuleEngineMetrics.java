@@ -0,0 +1,463 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts evaluations, their cumulative time and their failures, per rule and
+ * per function, and the latency distribution of whole executions. Counters
+ * are striped by thread, so that parallel evaluations do not contend on
+ * them, and can be read with {@link #snapshot()} while the engine runs.
+ *
+ * @see RuleEngineStats
+ */
+public final class RuleEngineMetrics
+    implements RuleEngineInstrumentation
+{
+    private final Counters valueMaps = new Counters();
+
+    private final Counters executions = new Counters();
+
+    private final Counters multipleExecutions = new Counters();
+
+    private final Counters multipleExecutionTargets = new Counters();
+
+    /**
+     * Lookups, with misses counted as failures.
+     */
+    private final Counters expressionLookups = new Counters();
+
+    private final Histogram executionLatencies = new Histogram();
+
+    private final Histogram multipleExecutionLatencies = new Histogram();
+
+    private final ConcurrentMap<String, Counters> conditions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counters> actions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Counters> functions = new ConcurrentHashMap<>();
+
+    @Override
+    public void conditionEvaluated( @Nonnull Rule rule, long nanos, boolean failed )
+    {
+        counters( conditions, key( rule ) ).add( 1, nanos, failed );
+    }
+
+    @Override
+    public void actionEvaluated( @Nonnull Rule rule, @Nonnull RuleAction ruleAction, long nanos, boolean failed )
+    {
+        counters( actions, key( rule ) ).add( 1, nanos, failed );
+    }
+
+    @Override
+    public void valueMapsBuilt( int count, long nanos )
+    {
+        valueMaps.add( count, nanos, false );
+    }
+
+    @Override
+    public void functionEvaluated( @Nonnull String function, long nanos, boolean failed )
+    {
+        counters( functions, function ).add( 1, nanos, failed );
+    }
+
+    @Override
+    public void executionCompleted( long nanos )
+    {
+        executions.add( 1, nanos, false );
+        executionLatencies.add( nanos );
+    }
+
+    @Override
+    public void multipleExecutionCompleted( int targets, long nanos )
+    {
+        multipleExecutions.add( 1, nanos, false );
+        multipleExecutionTargets.add( targets, 0, false );
+        multipleExecutionLatencies.add( nanos );
+    }
+
+    @Override
+    public void expressionLookedUp( boolean cached )
+    {
+        expressionLookups.add( 1, 0, !cached );
+    }
+
+    /**
+     * @return the counters at the time of the call. Evaluations running
+     * meanwhile may be partially counted.
+     */
+    @Nonnull
+    public Snapshot snapshot()
+    {
+        Stats lookups = expressionLookups.sum();
+
+        return new Snapshot( valueMaps.sum(), sum( conditions ), sum( actions ), sum( functions ), executions.sum(),
+            executionLatencies.snapshot(), multipleExecutions.sum(), multipleExecutionTargets.sum().count(),
+            multipleExecutionLatencies.snapshot(), lookups.count() - lookups.failures(), lookups.failures() );
+    }
+
+    /**
+     * Rules are identified by uid, or by name when they have none.
+     */
+    private static String key( Rule rule )
+    {
+        return rule.uid() == null || rule.uid().isEmpty() ? rule.name() : rule.uid();
+    }
+
+    private static Counters counters( ConcurrentMap<String, Counters> countersByKey, String key )
+    {
+        Counters counters = countersByKey.get( key );
+
+        if ( counters == null )
+        {
+            counters = new Counters();
+            Counters previous = countersByKey.putIfAbsent( key, counters );
+
+            if ( previous != null )
+            {
+                counters = previous;
+            }
+        }
+
+        return counters;
+    }
+
+    private static Map<String, Stats> sum( ConcurrentMap<String, Counters> countersByKey )
+    {
+        Map<String, Stats> stats = new HashMap<>();
+
+        for ( Map.Entry<String, Counters> entry : countersByKey.entrySet() )
+        {
+            stats.put( entry.getKey(), entry.getValue().sum() );
+        }
+
+        return Collections.unmodifiableMap( stats );
+    }
+
+    /**
+     * Count, nanos and failures of each stripe, a cache line apart.
+     */
+    private static final class Counters
+    {
+        private static final int STRIPES = stripes();
+
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray values = new AtomicLongArray( STRIPES * PADDING );
+
+        void add( int count, long nanos, boolean failed )
+        {
+            int base = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+
+            values.addAndGet( base, count );
+            values.addAndGet( base + 1, nanos );
+
+            if ( failed )
+            {
+                values.incrementAndGet( base + 2 );
+            }
+        }
+
+        Stats sum()
+        {
+            long count = 0;
+            long nanos = 0;
+            long failures = 0;
+
+            for ( int base = 0; base < values.length(); base += PADDING )
+            {
+                count += values.get( base );
+                nanos += values.get( base + 1 );
+                failures += values.get( base + 2 );
+            }
+
+            return new Stats( count, nanos, failures );
+        }
+
+        /**
+         * @return a power of two, at least twice the number of processors.
+         */
+        private static int stripes()
+        {
+            return Integer.highestOneBit( Runtime.getRuntime().availableProcessors() * 2 - 1 ) * 2;
+        }
+    }
+
+    /**
+     * Counts of nanos in buckets of exponentially growing width, each power
+     * of two being split in eight buckets. Values are known to within an
+     * eighth.
+     */
+    private static final class Histogram
+    {
+        private static final int SUB_BUCKETS = 8;
+
+        private final AtomicLongArray counts = new AtomicLongArray( index( Long.MAX_VALUE ) + 1 );
+
+        void add( long nanos )
+        {
+            counts.incrementAndGet( index( nanos ) );
+        }
+
+        Latencies snapshot()
+        {
+            long[] values = new long[counts.length()];
+
+            for ( int i = 0; i < values.length; i++ )
+            {
+                values[i] = counts.get( i );
+            }
+
+            return new Latencies( values );
+        }
+
+        static int index( long nanos )
+        {
+            if ( nanos < SUB_BUCKETS )
+            {
+                return (int) Math.max( nanos, 0 );
+            }
+
+            int exponent = 63 - Long.numberOfLeadingZeros( nanos );
+            int subBucket = (int) (nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+
+            return (exponent - 2) * SUB_BUCKETS + subBucket;
+        }
+
+        static long lowerBound( int index )
+        {
+            if ( index < SUB_BUCKETS )
+            {
+                return index;
+            }
+
+            int exponent = index / SUB_BUCKETS + 2;
+
+            return (SUB_BUCKETS + (long) (index % SUB_BUCKETS)) << (exponent - 3);
+        }
+    }
+
+    public static final class Latencies
+    {
+        private final long[] counts;
+
+        private final long count;
+
+        Latencies( long[] counts )
+        {
+            long count = 0;
+
+            for ( long bucketCount : counts )
+            {
+                count += bucketCount;
+            }
+
+            this.counts = counts;
+            this.count = count;
+        }
+
+        public long count()
+        {
+            return count;
+        }
+
+        /**
+         * @param percentile between 0 and 100.
+         * @return the latency under which the given percentage of executions
+         * completed, or 0 if there were none.
+         */
+        public long percentileNanos( double percentile )
+        {
+            if ( percentile < 0 || percentile > 100 )
+            {
+                throw new IllegalArgumentException( "percentile must be between 0 and 100" );
+            }
+
+            long rank = Math.max( 1, (long) Math.ceil( count * percentile / 100 ) );
+            long seen = 0;
+
+            for ( int i = 0; i < counts.length; i++ )
+            {
+                seen += counts[i];
+
+                if ( seen >= rank )
+                {
+                    return Histogram.lowerBound( i );
+                }
+            }
+
+            return 0;
+        }
+    }
+
+    public static final class Stats
+    {
+        private final long count;
+
+        private final long nanos;
+
+        private final long failures;
+
+        Stats( long count, long nanos, long failures )
+        {
+            this.count = count;
+            this.nanos = nanos;
+            this.failures = failures;
+        }
+
+        public long count()
+        {
+            return count;
+        }
+
+        /**
+         * @return the cumulative time of the evaluations.
+         */
+        public long nanos()
+        {
+            return nanos;
+        }
+
+        public long failures()
+        {
+            return failures;
+        }
+    }
+
+    public static final class Snapshot
+    {
+        private final Stats valueMaps;
+
+        private final Map<String, Stats> conditions;
+
+        private final Map<String, Stats> actions;
+
+        private final Map<String, Stats> functions;
+
+        private final Stats executions;
+
+        private final Latencies executionLatencies;
+
+        private final Stats multipleExecutions;
+
+        private final long multipleExecutionTargets;
+
+        private final Latencies multipleExecutionLatencies;
+
+        private final long expressionCacheHits;
+
+        private final long expressionCacheMisses;
+
+        Snapshot( Stats valueMaps, Map<String, Stats> conditions, Map<String, Stats> actions,
+            Map<String, Stats> functions, Stats executions, Latencies executionLatencies, Stats multipleExecutions,
+            long multipleExecutionTargets, Latencies multipleExecutionLatencies, long expressionCacheHits,
+            long expressionCacheMisses )
+        {
+            this.valueMaps = valueMaps;
+            this.conditions = conditions;
+            this.actions = actions;
+            this.functions = functions;
+            this.executions = executions;
+            this.executionLatencies = executionLatencies;
+            this.multipleExecutions = multipleExecutions;
+            this.multipleExecutionTargets = multipleExecutionTargets;
+            this.multipleExecutionLatencies = multipleExecutionLatencies;
+            this.expressionCacheHits = expressionCacheHits;
+            this.expressionCacheMisses = expressionCacheMisses;
+        }
+
+        /**
+         * @return the value maps built, one per event or enrollment.
+         */
+        @Nonnull
+        public Stats valueMaps()
+        {
+            return valueMaps;
+        }
+
+        /**
+         * @return the condition evaluations by rule uid.
+         */
+        @Nonnull
+        public Map<String, Stats> conditions()
+        {
+            return conditions;
+        }
+
+        /**
+         * @return the action data evaluations by rule uid, for all actions of
+         * the rule.
+         */
+        @Nonnull
+        public Map<String, Stats> actions()
+        {
+            return actions;
+        }
+
+        /**
+         * @return the function evaluations by function name, like d2:hasValue.
+         */
+        @Nonnull
+        public Map<String, Stats> functions()
+        {
+            return functions;
+        }
+
+        /**
+         * @return the evaluations of a single event or enrollment.
+         */
+        @Nonnull
+        public Stats executions()
+        {
+            return executions;
+        }
+
+        @Nonnull
+        public Latencies executionLatencies()
+        {
+            return executionLatencies;
+        }
+
+        /**
+         * @return the evaluations of an enrollment with all its events.
+         */
+        @Nonnull
+        public Stats multipleExecutions()
+        {
+            return multipleExecutions;
+        }
+
+        /**
+         * @return the events and enrollments evaluated by the multiple
+         * executions.
+         */
+        public long multipleExecutionTargets()
+        {
+            return multipleExecutionTargets;
+        }
+
+        @Nonnull
+        public Latencies multipleExecutionLatencies()
+        {
+            return multipleExecutionLatencies;
+        }
+
+        public long expressionCacheHits()
+        {
+            return expressionCacheHits;
+        }
+
+        public long expressionCacheMisses()
+        {
+            return expressionCacheMisses;
+        }
+    }
+}
@@ -7,11 +7,15 @@ import org.hisp.dhis.antlr.Parser;
 import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
 import org.hisp.dhis.rules.models.*;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
+import org.hisp.dhis.rules.parser.expression.InvariantValues;
 import org.hisp.dhis.rules.utils.RuleEngineUtils;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
 import static org.hisp.dhis.rules.parser.expression.ParserUtils.FUNCTION_EVALUATE;
 
@@ -24,7 +28,7 @@ class RuleEngineMultipleExecution
     private final Map<String, List<String>> supplementaryData;
 
     @Nonnull
-    private final List<Rule> rules;
+    private final RulePartitions rulePartitions;
 
     @Nonnull
     private RuleVariableValueMap ruleVariableValueMap;
@@ -32,38 +36,184 @@ class RuleEngineMultipleExecution
     @Nonnull
     private RuleConditionEvaluator ruleConditionEvaluator;
 
-    RuleEngineMultipleExecution( @Nonnull List<Rule> rules,
-        @Nonnull RuleVariableValueMap ruleVariableValueMap, Map<String, List<String>> supplementaryData )
+    @Nonnull
+    private final CompiledExpressionCache compiledExpressions;
+
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    private final int parallelThreshold;
+
+    /**
+     * @param executorService   the executor evaluating the targets, or null to
+     *                          evaluate them on the calling thread.
+     * @param parallelThreshold the minimum number of rule evaluations given to
+     *                          a task, targets are evaluated on the calling
+     *                          thread if they have fewer in total.
+     */
+    RuleEngineMultipleExecution( @Nonnull RulePartitions rulePartitions,
+        @Nonnull RuleVariableValueMap ruleVariableValueMap, Map<String, List<String>> supplementaryData,
+        @Nonnull CompiledExpressionCache compiledExpressions, @Nullable RuleEngineInstrumentation instrumentation,
+        @Nullable ExecutorService executorService, int parallelThreshold )
     {
         this.ruleVariableValueMap = ruleVariableValueMap;
-        this.rules = rules;
+        this.rulePartitions = rulePartitions;
         this.supplementaryData = supplementaryData;
-        this.ruleConditionEvaluator = new RuleConditionEvaluator();
+        this.ruleConditionEvaluator = new RuleConditionEvaluator( compiledExpressions, instrumentation );
+        this.compiledExpressions = compiledExpressions;
+        this.instrumentation = instrumentation;
+        this.executorService = executorService;
+        this.parallelThreshold = parallelThreshold;
     }
 
     @Override
     public List<RuleEffects> call()
     {
-        List<RuleEffects> ruleEffects = new ArrayList<>();
+        if ( instrumentation == null )
+        {
+            return evaluateInChunks( targets() );
+        }
+
+        long start = System.nanoTime();
+        List<Target> targets = targets();
+        List<RuleEffects> ruleEffects = evaluateInChunks( targets );
+        instrumentation.multipleExecutionCompleted( targets.size(), System.nanoTime() - start );
+
+        return ruleEffects;
+    }
+
+    /**
+     * Evaluates the targets on the executor, if any, in chunks of at least
+     * parallelThreshold rule evaluations.
+     */
+    private List<RuleEffects> evaluateInChunks( List<Target> targets )
+    {
+        if ( executorService == null )
+        {
+            return evaluate( targets );
+        }
+
+        int[] ruleCounts = new int[targets.size()];
+
+        for ( int i = 0; i < targets.size(); i++ )
+        {
+            ruleCounts[i] = targets.get( i ).rules.size();
+        }
+
+        // small enrollments are not worth a task
+        List<List<Target>> chunks = ParallelTasks.chunks( targets, ruleCounts, parallelThreshold );
+
+        if ( chunks.size() < 2 )
+        {
+            return evaluate( targets );
+        }
+
+        List<Callable<List<RuleEffects>>> tasks = new ArrayList<>( chunks.size() );
+
+        for ( final List<Target> chunk : chunks )
+        {
+            tasks.add( new Callable<List<RuleEffects>>()
+            {
+                @Override
+                public List<RuleEffects> call()
+                {
+                    return evaluate( chunk );
+                }
+            } );
+        }
+
+        return ParallelTasks.invokeInOrder( executorService, tasks );
+    }
+
+    /**
+     * Evaluates the targets on the calling thread, passing each effect to the
+     * callback instead of collecting them.
+     */
+    void evaluate( RuleEffectCallback callback )
+    {
+        long start = instrumentation == null ? 0 : System.nanoTime();
+        List<Target> targets = targets();
+
+        for ( Target target : targets )
+        {
+            ruleConditionEvaluator.evaluateRules( target.valueMap, supplementaryData, target.rules,
+                target.invariantValues, target.trackerObjectType, target.uid, callback );
+        }
+
+        if ( instrumentation != null )
+        {
+            instrumentation.multipleExecutionCompleted( targets.size(), System.nanoTime() - start );
+        }
+    }
+
+    /**
+     * The events share the values of the hoisted sub expressions, which are
+     * computed once for the enrollment. The enrollment itself does not, as
+     * its value map is built without an event.
+     *
+     * @return the enrollment and the events, in the order of their effects.
+     */
+    private List<Target> targets()
+    {
+        List<Target> targets = new ArrayList<>();
 
         for ( Map.Entry<RuleEnrollment, Map<String, RuleVariableValue>> enrollments : ruleVariableValueMap
             .getEnrollmentMap().entrySet() )
         {
-            List<RuleEffect> enrollmentRuleEffects = ruleConditionEvaluator
-                .getRuleEffects( enrollments.getValue(), supplementaryData,
-                    RuleEngineFilter.filterRules( rules, enrollments.getKey() ) );
-            ruleEffects.add( new RuleEffects( TrackerObjectType.ENROLLMENT, enrollments.getKey().enrollment(),
-                enrollmentRuleEffects ) );
+            targets.add( new Target( TrackerObjectType.ENROLLMENT, enrollments.getKey().enrollment(),
+                enrollments.getValue(), rulePartitions.rules( enrollments.getKey() ), null ) );
         }
 
+        InvariantValues invariantValues = compiledExpressions.invariantValues();
+
         for ( Map.Entry<RuleEvent, Map<String, RuleVariableValue>> events : ruleVariableValueMap
             .getEventMap().entrySet() )
         {
-            ruleEffects.add( new RuleEffects( TrackerObjectType.EVENT, events.getKey().event(),
-                ruleConditionEvaluator.getRuleEffects( events.getValue(), supplementaryData,
-                    RuleEngineFilter.filterRules( rules, events.getKey() ) ) ) );
+            targets.add( new Target( TrackerObjectType.EVENT, events.getKey().event(), events.getValue(),
+                rulePartitions.rules( events.getKey() ), invariantValues ) );
+        }
+
+        return targets;
+    }
+
+    private List<RuleEffects> evaluate( List<Target> targets )
+    {
+        List<RuleEffects> ruleEffects = new ArrayList<>( targets.size() );
+
+        for ( Target target : targets )
+        {
+            ruleEffects.add( new RuleEffects( target.trackerObjectType, target.uid,
+                ruleConditionEvaluator.getRuleEffects( target.valueMap, supplementaryData, target.rules,
+                    target.invariantValues ) ) );
         }
 
         return ruleEffects;
     }
+
+    private static final class Target
+    {
+        private final TrackerObjectType trackerObjectType;
+
+        private final String uid;
+
+        private final Map<String, RuleVariableValue> valueMap;
+
+        private final List<Rule> rules;
+
+        @Nullable
+        private final InvariantValues invariantValues;
+
+        Target( TrackerObjectType trackerObjectType, String uid, Map<String, RuleVariableValue> valueMap,
+            List<Rule> rules, @Nullable InvariantValues invariantValues )
+        {
+            this.trackerObjectType = trackerObjectType;
+            this.uid = uid;
+            this.valueMap = valueMap;
+            this.rules = rules;
+            this.invariantValues = invariantValues;
+        }
+    }
 }
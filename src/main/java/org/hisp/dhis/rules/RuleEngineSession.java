@@ -0,0 +1,509 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Keeps the evaluation of an enrollment and its events, and updates it when
+ * a single data value or attribute value changes. Only the rules reading a
+ * variable whose value changed are evaluated again, following the values
+ * assigned to calculated variables by these rules. The other rules keep their
+ * effects and assignments from the previous evaluation.
+ * <p>
+ * Evaluates like {@link RuleEngine#evaluate()}. Not thread safe, a session
+ * is meant to follow the edits of one client.
+ */
+public final class RuleEngineSession
+{
+    @Nonnull
+    private final RuleEngineContext ruleEngineContext;
+
+    @Nullable
+    private final TriggerEnvironment triggerEnvironment;
+
+    @Nonnull
+    private final RuleConditionEvaluator ruleConditionEvaluator;
+
+    @Nonnull
+    private RuleEnrollment ruleEnrollment;
+
+    @Nonnull
+    private final List<RuleEvent> ruleEvents;
+
+    @Nonnull
+    private final Map<String, Target> targets;
+
+    RuleEngineSession( @Nonnull RuleEngineContext ruleEngineContext, @Nonnull RuleEnrollment ruleEnrollment,
+        @Nonnull List<RuleEvent> ruleEvents, @Nullable TriggerEnvironment triggerEnvironment )
+    {
+        this.ruleEngineContext = ruleEngineContext;
+        this.triggerEnvironment = triggerEnvironment;
+        this.ruleConditionEvaluator = new RuleConditionEvaluator( ruleEngineContext.compiledExpressions(),
+            ruleEngineContext.instrumentation() );
+        this.ruleEnrollment = ruleEnrollment;
+        this.ruleEvents = new ArrayList<>( ruleEvents );
+        this.targets = new LinkedHashMap<>();
+
+        RuleVariableValueMap valueMap = buildValueMap( ruleEngineContext.ruleVariables() );
+        RulePartitions rulePartitions = ruleEngineContext.rulePartitions();
+
+        targets.put( ruleEnrollment.enrollment(), new Target( TrackerObjectType.ENROLLMENT,
+            ruleEnrollment.enrollment(), rulePartitions.rules( ruleEnrollment ),
+            valueMap.getEnrollmentMap().get( ruleEnrollment ) ) );
+
+        for ( RuleEvent ruleEvent : this.ruleEvents )
+        {
+            targets.put( ruleEvent.event(), new Target( TrackerObjectType.EVENT, ruleEvent.event(),
+                rulePartitions.rules( ruleEvent ), valueMap.getEventMap().get( ruleEvent ) ) );
+        }
+    }
+
+    @Nonnull
+    public RuleEnrollment enrollment()
+    {
+        return ruleEnrollment;
+    }
+
+    @Nonnull
+    public List<RuleEvent> events()
+    {
+        return Collections.unmodifiableList( ruleEvents );
+    }
+
+    /**
+     * @return the current effects of the enrollment and of each event.
+     */
+    @Nonnull
+    public List<RuleEffects> ruleEffects()
+    {
+        List<RuleEffects> ruleEffects = new ArrayList<>();
+
+        for ( Target target : targets.values() )
+        {
+            ruleEffects.add( new RuleEffects( target.trackerObjectType, target.uid, target.ruleEffects() ) );
+        }
+
+        return ruleEffects;
+    }
+
+    /**
+     * Sets the value of a data element in an event, and evaluates again the
+     * rules which read it.
+     *
+     * @param event       the uid of the event.
+     * @param dataElement the uid of the data element.
+     * @param value       the new value, or null to remove the value.
+     * @return the changes of effects, for the enrollment and the events whose
+     * effects changed.
+     */
+    @Nonnull
+    public List<RuleEffectsChange> updateDataValue( @Nonnull String event, @Nonnull String dataElement,
+        @Nullable String value )
+    {
+        int index = indexOf( event );
+        RuleEvent ruleEvent = ruleEvents.get( index );
+        List<RuleDataValue> dataValues = new ArrayList<>();
+        boolean replaced = false;
+
+        for ( RuleDataValue dataValue : ruleEvent.dataValues() )
+        {
+            if ( !dataValue.dataElement().equals( dataElement ) )
+            {
+                dataValues.add( dataValue );
+            }
+            else if ( value != null && !replaced )
+            {
+                dataValues.add( RuleDataValue.create( dataValue.eventDate(), dataValue.programStage(),
+                    dataElement, value ) );
+                replaced = true;
+            }
+        }
+
+        if ( value != null && !replaced )
+        {
+            dataValues.add( RuleDataValue.create( ruleEvent.eventDate(), ruleEvent.programStage(), dataElement,
+                value ) );
+        }
+
+        ruleEvents.set( index, RuleEvent.create( ruleEvent.event(), ruleEvent.programStage(), ruleEvent.status(),
+            ruleEvent.eventDate(), ruleEvent.dueDate(), ruleEvent.organisationUnit(),
+            ruleEvent.organisationUnitCode(), dataValues, ruleEvent.programStageName(),
+            ruleEvent.completedDate() ) );
+
+        List<RuleVariable> ruleVariables = new ArrayList<>();
+
+        for ( RuleVariable ruleVariable : ruleEngineContext.ruleVariables() )
+        {
+            if ( ruleVariable instanceof RuleVariableDataElement ?
+                dataElement.equals( ((RuleVariableDataElement) ruleVariable).dataElement() ) :
+                isUnknown( ruleVariable ) )
+            {
+                ruleVariables.add( ruleVariable );
+            }
+        }
+
+        return update( ruleVariables );
+    }
+
+    /**
+     * Sets the value of a tracked entity attribute of the enrollment, and
+     * evaluates again the rules which read it.
+     *
+     * @param attribute the uid of the tracked entity attribute.
+     * @param value     the new value, or null to remove the value.
+     * @return the changes of effects, for the enrollment and the events whose
+     * effects changed.
+     */
+    @Nonnull
+    public List<RuleEffectsChange> updateAttributeValue( @Nonnull String attribute, @Nullable String value )
+    {
+        List<RuleAttributeValue> attributeValues = new ArrayList<>();
+        boolean replaced = false;
+
+        for ( RuleAttributeValue attributeValue : ruleEnrollment.attributeValues() )
+        {
+            if ( !attributeValue.trackedEntityAttribute().equals( attribute ) )
+            {
+                attributeValues.add( attributeValue );
+            }
+            else if ( value != null && !replaced )
+            {
+                attributeValues.add( RuleAttributeValue.create( attribute, value ) );
+                replaced = true;
+            }
+        }
+
+        if ( value != null && !replaced )
+        {
+            attributeValues.add( RuleAttributeValue.create( attribute, value ) );
+        }
+
+        ruleEnrollment = RuleEnrollment.create( ruleEnrollment.enrollment(), ruleEnrollment.incidentDate(),
+            ruleEnrollment.enrollmentDate(), ruleEnrollment.status(), ruleEnrollment.organisationUnit(),
+            ruleEnrollment.organisationUnitCode(), attributeValues, ruleEnrollment.programName() );
+
+        List<RuleVariable> ruleVariables = new ArrayList<>();
+
+        for ( RuleVariable ruleVariable : ruleEngineContext.ruleVariables() )
+        {
+            if ( ruleVariable instanceof RuleVariableAttribute ?
+                attribute.equals( ((RuleVariableAttribute) ruleVariable).trackedEntityAttribute() ) :
+                isUnknown( ruleVariable ) )
+            {
+                ruleVariables.add( ruleVariable );
+            }
+        }
+
+        return update( ruleVariables );
+    }
+
+    private int indexOf( String event )
+    {
+        for ( int i = 0; i < ruleEvents.size(); i++ )
+        {
+            if ( ruleEvents.get( i ).event().equals( event ) )
+            {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException( "Event " + event + " is not part of the session" );
+    }
+
+    /**
+     * Variables which are not created from data values or attribute values
+     * might read any of them.
+     */
+    private static boolean isUnknown( RuleVariable ruleVariable )
+    {
+        return !(ruleVariable instanceof RuleVariableDataElement) && !(ruleVariable instanceof RuleVariableAttribute) &&
+            !(ruleVariable instanceof RuleVariableCalculatedValue);
+    }
+
+    private List<RuleEffectsChange> update( List<RuleVariable> changedVariables )
+    {
+        if ( changedVariables.isEmpty() )
+        {
+            return new ArrayList<>();
+        }
+
+        // variables with the same name override each other, so they are created again together
+        Set<String> names = new HashSet<>();
+
+        for ( RuleVariable ruleVariable : changedVariables )
+        {
+            names.add( ruleVariable.name() );
+        }
+
+        List<RuleVariable> ruleVariables = new ArrayList<>();
+
+        for ( RuleVariable ruleVariable : ruleEngineContext.ruleVariables() )
+        {
+            if ( names.contains( ruleVariable.name() ) )
+            {
+                ruleVariables.add( ruleVariable );
+            }
+        }
+
+        RuleVariableValueMap valueMap = buildValueMap( ruleVariables );
+        List<RuleEffectsChange> changes = new ArrayList<>();
+
+        addChange( changes, targets.get( ruleEnrollment.enrollment() ),
+            valueMap.getEnrollmentMap().get( ruleEnrollment ), names );
+
+        for ( RuleEvent ruleEvent : ruleEvents )
+        {
+            addChange( changes, targets.get( ruleEvent.event() ), valueMap.getEventMap().get( ruleEvent ), names );
+        }
+
+        return changes;
+    }
+
+    private void addChange( List<RuleEffectsChange> changes, Target target, Map<String, RuleVariableValue> valueMap,
+        Set<String> names )
+    {
+        Set<String> changedNames = target.updateValues( valueMap, names );
+
+        if ( !changedNames.isEmpty() )
+        {
+            RuleEffectsChange change = target.evaluate( changedNames );
+
+            if ( !change.isEmpty() )
+            {
+                changes.add( change );
+            }
+        }
+    }
+
+    private RuleVariableValueMap buildValueMap( List<RuleVariable> ruleVariables )
+    {
+        return RuleVariableValueMapBuilder.target()
+            .ruleVariables( ruleVariables )
+            .ruleEnrollment( ruleEnrollment )
+            .triggerEnvironment( triggerEnvironment )
+            .ruleEvents( ruleEvents )
+            .constantValueMap( ruleEngineContext.constantsValues() )
+            .instrumentation( ruleEngineContext.instrumentation() )
+            .currentDate( ruleEngineContext.clock().currentDate() )
+            .multipleBuild();
+    }
+
+    /**
+     * The enrollment or an event, with the values its rules start from and
+     * what each rule did during the last evaluation.
+     */
+    private final class Target
+    {
+        private final TrackerObjectType trackerObjectType;
+
+        private final String uid;
+
+        private final List<Rule> rules;
+
+        private final Map<String, RuleVariableValue> valueMap;
+
+        private final List<RuleResult> ruleResults;
+
+        Target( TrackerObjectType trackerObjectType, String uid, List<Rule> rules,
+            Map<String, RuleVariableValue> valueMap )
+        {
+            this.trackerObjectType = trackerObjectType;
+            this.uid = uid;
+            this.rules = rules;
+            this.valueMap = new HashMap<>( valueMap );
+            this.ruleResults = new ArrayList<>( rules.size() );
+
+            EvaluationContext context = newContext();
+
+            for ( Rule rule : rules )
+            {
+                ruleResults.add( evaluate( rule, context ) );
+            }
+        }
+
+        List<RuleEffect> ruleEffects()
+        {
+            List<RuleEffect> ruleEffects = new ArrayList<>();
+
+            for ( RuleResult ruleResult : ruleResults )
+            {
+                ruleEffects.addAll( ruleResult.ruleEffects );
+            }
+
+            return ruleEffects;
+        }
+
+        /**
+         * @return the names among the given ones whose value changed.
+         */
+        Set<String> updateValues( Map<String, RuleVariableValue> newValueMap, Set<String> names )
+        {
+            Set<String> changedNames = new HashSet<>();
+
+            for ( String name : names )
+            {
+                RuleVariableValue value = newValueMap.get( name );
+
+                if ( !Objects.equals( valueMap.get( name ), value ) )
+                {
+                    changedNames.add( name );
+                }
+
+                if ( value == null )
+                {
+                    valueMap.remove( name );
+                }
+                else
+                {
+                    valueMap.put( name, value );
+                }
+            }
+
+            return changedNames;
+        }
+
+        /**
+         * Evaluates the rules reading a changed value again. The assignments
+         * of the other rules are replayed, so that the rules after them see
+         * the same values as in a full evaluation.
+         */
+        RuleEffectsChange evaluate( Set<String> changedNames )
+        {
+            List<RuleEffect> added = new ArrayList<>();
+            List<RuleEffect> removed = new ArrayList<>();
+            EvaluationContext context = newContext();
+
+            for ( int i = 0; i < rules.size(); i++ )
+            {
+                Rule rule = rules.get( i );
+                RuleResult previous = ruleResults.get( i );
+
+                if ( !reads( rule, changedNames ) )
+                {
+                    context.valueMap().putAll( previous.assignments );
+
+                    // same values as after the previous evaluation of the rule
+                    changedNames.removeAll( previous.assignments.keySet() );
+                    continue;
+                }
+
+                RuleResult current = evaluate( rule, context );
+                ruleResults.set( i, current );
+
+                Set<String> assigned = new HashSet<>( previous.assignments.keySet() );
+                assigned.addAll( current.assignments.keySet() );
+
+                for ( String name : assigned )
+                {
+                    if ( previous.assignments.containsKey( name ) && current.assignments.containsKey( name ) &&
+                        Objects.equals( previous.assignments.get( name ), current.assignments.get( name ) ) )
+                    {
+                        changedNames.remove( name );
+                    }
+                    else
+                    {
+                        changedNames.add( name );
+                    }
+                }
+
+                List<RuleEffect> previousEffects = new ArrayList<>( previous.ruleEffects );
+
+                for ( RuleEffect ruleEffect : current.ruleEffects )
+                {
+                    if ( !previousEffects.remove( ruleEffect ) )
+                    {
+                        added.add( ruleEffect );
+                    }
+                }
+
+                removed.addAll( previousEffects );
+            }
+
+            return new RuleEffectsChange( trackerObjectType, uid, added, removed );
+        }
+
+        private EvaluationContext newContext()
+        {
+            return new EvaluationContext( new HashMap<>( valueMap ), ruleEngineContext.supplementaryData(),
+                ruleEngineContext.instrumentation() );
+        }
+
+        private RuleResult evaluate( Rule rule, EvaluationContext context )
+        {
+            List<RuleEffect> ruleEffects = new ArrayList<>();
+
+            if ( !ruleConditionEvaluator.evaluateRule( rule, context, ruleEffects ) )
+            {
+                return new RuleResult( ruleEffects, Collections.<String, RuleVariableValue>emptyMap() );
+            }
+
+            Map<String, RuleVariableValue> assignments = new HashMap<>();
+
+            for ( RuleAction ruleAction : rule.actions() )
+            {
+                String key = RuleConditionEvaluator.assignedKey( ruleAction );
+
+                if ( key != null )
+                {
+                    assignments.put( key, context.valueMap().get( key ) );
+                }
+            }
+
+            return new RuleResult( ruleEffects, assignments );
+        }
+
+        /**
+         * @return true if the condition or the action data of the rule read one
+         * of the names, or if the variables they read are unknown.
+         */
+        private boolean reads( Rule rule, Set<String> names )
+        {
+            if ( reads( rule.condition(), names ) )
+            {
+                return true;
+            }
+
+            for ( RuleAction ruleAction : rule.actions() )
+            {
+                if ( reads( ruleAction.data(), names ) )
+                {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        private boolean reads( String expression, Set<String> names )
+        {
+            Set<String> variables = ruleEngineContext.compiledExpressions().get( expression ).variables();
+
+            return variables == null || !Collections.disjoint( variables, names );
+        }
+    }
+
+    private static final class RuleResult
+    {
+        private final List<RuleEffect> ruleEffects;
+
+        private final Map<String, RuleVariableValue> assignments;
+
+        RuleResult( List<RuleEffect> ruleEffects, Map<String, RuleVariableValue> assignments )
+        {
+            this.ruleEffects = ruleEffects;
+            this.assignments = assignments;
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package org.hisp.dhis.rules;
+
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the counters of a {@link RuleEngineMetrics} over JMX. Attributes
+ * are computed from a snapshot of the counters when they are read, so that
+ * registering this bean costs nothing while the engine runs. The snapshot is
+ * reused for {@link #SNAPSHOT_MAX_AGE_MILLIS}, so that reading all attributes
+ * at once takes a single snapshot.
+ * <p>
+ * The evaluation rate is computed over a window of {@link #WINDOW_SECONDS}
+ * kept by this object, from samples of the evaluation count taken when it is
+ * read, so that any number of clients can read it without changing each
+ * other's numbers.
+ */
+public final class RuleEngineStats
+    implements RuleEngineStatsMBean
+{
+    private static final String DOMAIN = "org.hisp.dhis.rules";
+
+    static final int SLOWEST_RULES = 10;
+
+    static final long WINDOW_SECONDS = 60;
+
+    static final long SAMPLE_INTERVAL_SECONDS = 1;
+
+    static final long SNAPSHOT_MAX_AGE_MILLIS = 100;
+
+    @Nonnull
+    private final RuleEngineMetrics metrics;
+
+    @Nonnull
+    private final Ticker ticker;
+
+    /**
+     * Nanos and evaluation count, oldest first. The first sample is the
+     * latest one at least {@link #WINDOW_SECONDS} old, if any.
+     */
+    private final Deque<long[]> samples = new ArrayDeque<>();
+
+    private RuleEngineMetrics.Snapshot snapshot;
+
+    private long snapshotNanos;
+
+    public RuleEngineStats( @Nonnull RuleEngineMetrics metrics )
+    {
+        this( metrics, Ticker.systemTicker() );
+    }
+
+    RuleEngineStats( @Nonnull RuleEngineMetrics metrics, @Nonnull Ticker ticker )
+    {
+        if ( metrics == null )
+        {
+            throw new IllegalArgumentException( "metrics == null" );
+        }
+
+        this.metrics = metrics;
+        this.ticker = ticker;
+        this.samples.add( new long[]{ ticker.read(), evaluations( metrics.snapshot() ) } );
+    }
+
+    /**
+     * Registers the metrics with the platform MBean server, as
+     * org.hisp.dhis.rules:type=RuleEngine,name=&lt;name&gt;.
+     *
+     * @return the name to unregister them with.
+     */
+    @Nonnull
+    public static ObjectName register( @Nonnull RuleEngineMetrics metrics, @Nonnull String name )
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+        try
+        {
+            ObjectName objectName = objectName( name );
+            server.registerMBean( new RuleEngineStats( metrics ), objectName );
+
+            return objectName;
+        }
+        catch ( JMException e )
+        {
+            throw new IllegalStateException( "Could not register the rule engine metrics " + name, e );
+        }
+    }
+
+    public static void unregister( @Nonnull ObjectName objectName )
+    {
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean( objectName );
+        }
+        catch ( JMException e )
+        {
+            throw new IllegalStateException( "Could not unregister the rule engine metrics " + objectName, e );
+        }
+    }
+
+    @Nonnull
+    static ObjectName objectName( @Nonnull String name )
+        throws JMException
+    {
+        if ( name == null )
+        {
+            throw new IllegalArgumentException( "name == null" );
+        }
+
+        return new ObjectName( DOMAIN + ":type=RuleEngine,name=" + ObjectName.quote( name ) );
+    }
+
+    @Override
+    public long getEvaluations()
+    {
+        return evaluations( snapshot() );
+    }
+
+    @Override
+    public synchronized double getEvaluationsPerSecond()
+    {
+        long evaluations = getEvaluations();
+        long nanos = ticker.read();
+
+        while ( samples.size() > 1 && nanos - second( samples )[0] >= TimeUnit.SECONDS.toNanos( WINDOW_SECONDS ) )
+        {
+            samples.removeFirst();
+        }
+
+        if ( nanos - samples.getLast()[0] >= TimeUnit.SECONDS.toNanos( SAMPLE_INTERVAL_SECONDS ) )
+        {
+            samples.addLast( new long[]{ nanos, evaluations } );
+        }
+
+        long[] oldest = samples.getFirst();
+        double seconds = (double) (nanos - oldest[0]) / TimeUnit.SECONDS.toNanos( 1 );
+
+        return seconds > 0 ? (evaluations - oldest[1]) / seconds : 0;
+    }
+
+    @Override
+    public double getExecutionLatency50thPercentile()
+    {
+        return millis( snapshot().executionLatencies().percentileNanos( 50 ) );
+    }
+
+    @Override
+    public double getExecutionLatency95thPercentile()
+    {
+        return millis( snapshot().executionLatencies().percentileNanos( 95 ) );
+    }
+
+    @Override
+    public double getExecutionLatency99thPercentile()
+    {
+        return millis( snapshot().executionLatencies().percentileNanos( 99 ) );
+    }
+
+    @Override
+    public double getMultipleExecutionLatency50thPercentile()
+    {
+        return millis( snapshot().multipleExecutionLatencies().percentileNanos( 50 ) );
+    }
+
+    @Override
+    public double getMultipleExecutionLatency95thPercentile()
+    {
+        return millis( snapshot().multipleExecutionLatencies().percentileNanos( 95 ) );
+    }
+
+    @Override
+    public double getMultipleExecutionLatency99thPercentile()
+    {
+        return millis( snapshot().multipleExecutionLatencies().percentileNanos( 99 ) );
+    }
+
+    @Override
+    public long getValueMapsBuilt()
+    {
+        return snapshot().valueMaps().count();
+    }
+
+    @Override
+    public double getValueMapBuildTimeAverage()
+    {
+        RuleEngineMetrics.Stats valueMaps = snapshot().valueMaps();
+
+        return valueMaps.count() == 0 ? 0 : millis( valueMaps.nanos() ) / valueMaps.count();
+    }
+
+    @Override
+    public double getExpressionCacheHitRatio()
+    {
+        RuleEngineMetrics.Snapshot snapshot = snapshot();
+        long lookups = snapshot.expressionCacheHits() + snapshot.expressionCacheMisses();
+
+        return lookups == 0 ? 0 : (double) snapshot.expressionCacheHits() / lookups;
+    }
+
+    @Override
+    public String[] getSlowestRules()
+    {
+        RuleEngineMetrics.Snapshot snapshot = snapshot();
+        final Map<String, long[]> rules = new HashMap<>();
+
+        add( rules, snapshot.conditions(), true );
+        add( rules, snapshot.actions(), false );
+
+        List<String> uids = new ArrayList<>( rules.keySet() );
+        Collections.sort( uids, new Comparator<String>()
+        {
+            @Override
+            public int compare( String first, String second )
+            {
+                return Long.compare( rules.get( second )[1], rules.get( first )[1] );
+            }
+        } );
+
+        List<String> slowest = new ArrayList<>();
+
+        for ( String uid : uids.subList( 0, Math.min( SLOWEST_RULES, uids.size() ) ) )
+        {
+            long[] countAndNanos = rules.get( uid );
+            slowest.add( String.format( Locale.US, "%s: %.3f ms in %d evaluations", uid, millis( countAndNanos[1] ),
+                countAndNanos[0] ) );
+        }
+
+        return slowest.toArray( new String[slowest.size()] );
+    }
+
+    /**
+     * Adds the time of each rule, and its evaluations if they are condition
+     * evaluations, as an action is only evaluated after its condition.
+     */
+    private static void add( Map<String, long[]> rules, Map<String, RuleEngineMetrics.Stats> statsByRule,
+        boolean countEvaluations )
+    {
+        for ( Map.Entry<String, RuleEngineMetrics.Stats> entry : statsByRule.entrySet() )
+        {
+            long[] countAndNanos = rules.get( entry.getKey() );
+
+            if ( countAndNanos == null )
+            {
+                countAndNanos = new long[2];
+                rules.put( entry.getKey(), countAndNanos );
+            }
+
+            if ( countEvaluations )
+            {
+                countAndNanos[0] += entry.getValue().count();
+            }
+
+            countAndNanos[1] += entry.getValue().nanos();
+        }
+    }
+
+    /**
+     * @return a snapshot of the metrics at most
+     * {@link #SNAPSHOT_MAX_AGE_MILLIS} old.
+     */
+    private synchronized RuleEngineMetrics.Snapshot snapshot()
+    {
+        long nanos = ticker.read();
+
+        if ( snapshot == null || nanos - snapshotNanos > TimeUnit.MILLISECONDS.toNanos( SNAPSHOT_MAX_AGE_MILLIS ) )
+        {
+            snapshot = metrics.snapshot();
+            snapshotNanos = nanos;
+        }
+
+        return snapshot;
+    }
+
+    private static long[] second( Deque<long[]> samples )
+    {
+        Iterator<long[]> iterator = samples.iterator();
+        iterator.next();
+
+        return iterator.next();
+    }
+
+    private static long evaluations( RuleEngineMetrics.Snapshot snapshot )
+    {
+        return snapshot.executions().count() + snapshot.multipleExecutionTargets();
+    }
+
+    private static double millis( long nanos )
+    {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos( 1 );
+    }
+}
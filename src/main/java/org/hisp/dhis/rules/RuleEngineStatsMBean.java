@@ -0,0 +1,53 @@
+package org.hisp.dhis.rules;
+
+/**
+ * Management interface of {@link RuleEngineStats}. Latencies are in
+ * milliseconds.
+ */
+public interface RuleEngineStatsMBean
+{
+    /**
+     * @return the events and enrollments evaluated, alone or with the other
+     * events of their enrollment.
+     */
+    long getEvaluations();
+
+    /**
+     * @return the evaluations per second over about the last minute, or since
+     * the registration during the first minute.
+     */
+    double getEvaluationsPerSecond();
+
+    double getExecutionLatency50thPercentile();
+
+    double getExecutionLatency95thPercentile();
+
+    double getExecutionLatency99thPercentile();
+
+    double getMultipleExecutionLatency50thPercentile();
+
+    double getMultipleExecutionLatency95thPercentile();
+
+    double getMultipleExecutionLatency99thPercentile();
+
+    long getValueMapsBuilt();
+
+    /**
+     * @return the average time to build the value map of an event or
+     * enrollment.
+     */
+    double getValueMapBuildTimeAverage();
+
+    /**
+     * @return the share of expression lookups which found the expression
+     * compiled, between 0 and 1.
+     */
+    double getExpressionCacheHitRatio();
+
+    /**
+     * @return the rules which took the most time evaluating their condition
+     * and actions, slowest first, as uid followed by the total time and the
+     * number of evaluations.
+     */
+    String[] getSlowestRules();
+}
@@ -0,0 +1,179 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.models.TrackerObjectType;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Evaluates events read from an iterator, pushing the effects of each event
+ * to a sink. Only the events of one window are held at a time, whatever the
+ * number of events the iterator returns.
+ * <p>
+ * The timeline of the events of the engine and the values of the enrollment
+ * are built once, and shared by the value maps of all events of the
+ * iterator. An event of the iterator with the uid of one of the events of the
+ * engine does not replace it: it is evaluated as one more event of the
+ * enrollment, next to the event with the same uid.
+ */
+final class RuleEngineStreamExecution
+    implements Runnable
+{
+    @Nonnull
+    private final RuleEngineContext ruleEngineContext;
+
+    @Nullable
+    private final RuleEnrollment ruleEnrollment;
+
+    @Nonnull
+    private final RuleEventTimeline eventTimeline;
+
+    @Nonnull
+    private final ValueMapTemplate valueMapTemplate;
+
+    private final boolean lazyVariableValues;
+
+    @Nullable
+    private final ExecutorService executorService;
+
+    private final int parallelThreshold;
+
+    private final int window;
+
+    @Nonnull
+    private final Iterator<RuleEvent> iterator;
+
+    @Nonnull
+    private final RuleEffectsSink sink;
+
+    @Nonnull
+    private final RuleConditionEvaluator ruleConditionEvaluator;
+
+    /**
+     * @param ruleEvents       the events of the engine, which each event of
+     *                         the iterator is evaluated against.
+     * @param window           the number of events read from the iterator
+     *                         before they are evaluated on the executor.
+     * @param valueMapTemplate the constants, trigger environment and date all
+     *                         events of the iterator are evaluated at.
+     */
+    RuleEngineStreamExecution( @Nonnull RuleEngineContext ruleEngineContext, @Nullable RuleEnrollment ruleEnrollment,
+        @Nonnull List<RuleEvent> ruleEvents, boolean lazyVariableValues, @Nullable ExecutorService executorService,
+        int parallelThreshold, int window, @Nonnull Iterator<RuleEvent> iterator, @Nonnull RuleEffectsSink sink,
+        @Nonnull ValueMapTemplate valueMapTemplate )
+    {
+        this.ruleEngineContext = ruleEngineContext;
+        this.ruleEnrollment = ruleEnrollment;
+        this.eventTimeline = new RuleEventTimeline( ruleEvents );
+        this.valueMapTemplate = valueMapTemplate.withEnrollment( ruleEnrollment );
+        this.lazyVariableValues = lazyVariableValues;
+        this.executorService = executorService;
+        this.parallelThreshold = parallelThreshold;
+        this.window = window;
+        this.iterator = iterator;
+        this.sink = sink;
+        this.ruleConditionEvaluator = new RuleConditionEvaluator( ruleEngineContext.compiledExpressions(),
+            ruleEngineContext.instrumentation() );
+    }
+
+    @Override
+    public void run()
+    {
+        if ( executorService == null )
+        {
+            while ( iterator.hasNext() )
+            {
+                sink.accept( evaluate( iterator.next() ) );
+            }
+
+            return;
+        }
+
+        List<RuleEvent> events = new ArrayList<>();
+
+        while ( iterator.hasNext() )
+        {
+            events.add( iterator.next() );
+
+            if ( events.size() == window || !iterator.hasNext() )
+            {
+                for ( RuleEffects ruleEffects : evaluate( events ) )
+                {
+                    sink.accept( ruleEffects );
+                }
+
+                events.clear();
+            }
+        }
+    }
+
+    /**
+     * Evaluates the events of a window, on the executor if they have enough
+     * rule evaluations.
+     */
+    private List<RuleEffects> evaluate( List<RuleEvent> events )
+    {
+        RulePartitions rulePartitions = ruleEngineContext.rulePartitions();
+        int[] ruleCounts = new int[events.size()];
+
+        for ( int i = 0; i < events.size(); i++ )
+        {
+            ruleCounts[i] = rulePartitions.rules( events.get( i ) ).size();
+        }
+
+        List<List<RuleEvent>> chunks = ParallelTasks.chunks( events, ruleCounts, parallelThreshold );
+        List<Callable<List<RuleEffects>>> tasks = new ArrayList<>( chunks.size() );
+
+        for ( final List<RuleEvent> chunk : chunks )
+        {
+            tasks.add( new Callable<List<RuleEffects>>()
+            {
+                @Override
+                public List<RuleEffects> call()
+                {
+                    List<RuleEffects> ruleEffects = new ArrayList<>( chunk.size() );
+
+                    for ( RuleEvent ruleEvent : chunk )
+                    {
+                        ruleEffects.add( evaluate( ruleEvent ) );
+                    }
+
+                    return ruleEffects;
+                }
+            } );
+        }
+
+        return ParallelTasks.invokeInOrder( executorService, tasks );
+    }
+
+    /**
+     * Evaluates the rules of the program stage of the event, as
+     * {@link RuleEngine#evaluate()} does.
+     */
+    private RuleEffects evaluate( RuleEvent ruleEvent )
+    {
+        RulePartitions rulePartitions = ruleEngineContext.rulePartitions();
+
+        Map<String, RuleVariableValue> valueMap = RuleVariableValueMapBuilder.target( ruleEvent )
+            .ruleVariables( ruleEngineContext.ruleVariables() )
+            .ruleEnrollment( ruleEnrollment )
+            .eventTimeline( eventTimeline )
+            .lazyVariableValues( lazyVariableValues )
+            .variableNames( rulePartitions.variables( ruleEvent ) )
+            .instrumentation( ruleEngineContext.instrumentation() )
+            .valueMapTemplate( valueMapTemplate )
+            .build();
+
+        return new RuleEffects( TrackerObjectType.EVENT, ruleEvent.event(), ruleConditionEvaluator
+            .getRuleEffects( valueMap, ruleEngineContext.supplementaryData(), rulePartitions.rules( ruleEvent ) ) );
+    }
+}
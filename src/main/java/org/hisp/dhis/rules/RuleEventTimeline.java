@@ -0,0 +1,258 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleDataValue;
+import org.hisp.dhis.rules.models.RuleEvent;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * The events of an enrollment sorted by event date, newest first, with the
+ * data values aggregated by data element. It is built once and shared by the
+ * value maps of all events: the values seen by a target event are derived by
+ * inserting its data values at the position where sorting would put them.
+ */
+final class RuleEventTimeline
+{
+    @Nonnull
+    private final List<RuleEvent> events;
+
+    @Nonnull
+    private final Set<RuleEvent> eventSet;
+
+    @Nonnull
+    private final Map<String, DataElementValues> dataElementValues;
+
+    @Nonnull
+    private final Map<String, List<RuleDataValue>> allEventValues;
+
+    RuleEventTimeline( @Nonnull List<RuleEvent> ruleEvents )
+    {
+        this.events = new ArrayList<>( ruleEvents );
+        this.eventSet = new HashSet<>( ruleEvents );
+        this.dataElementValues = new HashMap<>();
+
+        // sort list of events by eventDate, this sort is stable
+        Collections.sort( events, RuleEvent.EVENT_DATE_COMPARATOR );
+
+        // aggregating values by data element uid
+        for ( int i = 0; i < events.size(); i++ )
+        {
+            List<RuleDataValue> ruleDataValues = events.get( i ).dataValues();
+
+            for ( int j = 0; j < ruleDataValues.size(); j++ )
+            {
+                RuleDataValue ruleDataValue = ruleDataValues.get( j );
+                DataElementValues values = dataElementValues.get( ruleDataValue.dataElement() );
+
+                if ( values == null )
+                {
+                    values = new DataElementValues( events.size() );
+                    dataElementValues.put( ruleDataValue.dataElement(), values );
+                }
+
+                values.add( ruleDataValue, i );
+            }
+        }
+
+        Map<String, List<RuleDataValue>> valueLists = new HashMap<>();
+
+        for ( Map.Entry<String, DataElementValues> entry : dataElementValues.entrySet() )
+        {
+            valueLists.put( entry.getKey(), Collections.unmodifiableList( entry.getValue().values ) );
+        }
+
+        this.allEventValues = Collections.unmodifiableMap( valueLists );
+    }
+
+    int size()
+    {
+        return events.size();
+    }
+
+    boolean contains( @Nullable RuleEvent ruleEvent )
+    {
+        return eventSet.contains( ruleEvent );
+    }
+
+    /**
+     * @param target the event to add to the timeline, may be one of its events.
+     * @return the data values by data element, in the order they would have
+     * if the target was added to the events and the list sorted again.
+     */
+    @Nonnull
+    Map<String, List<RuleDataValue>> allEventValues( @Nullable RuleEvent target )
+    {
+        if ( target == null || target.dataValues().isEmpty() )
+        {
+            return allEventValues;
+        }
+
+        // equal dates keep their order, so the target goes after the events with the same date
+        int position = upperBound( target );
+
+        Map<String, List<RuleDataValue>> targetValues = new LinkedHashMap<>();
+
+        for ( RuleDataValue ruleDataValue : target.dataValues() )
+        {
+            List<RuleDataValue> values = targetValues.get( ruleDataValue.dataElement() );
+
+            if ( values == null )
+            {
+                values = new ArrayList<>( 1 );
+                targetValues.put( ruleDataValue.dataElement(), values );
+            }
+
+            values.add( ruleDataValue );
+        }
+
+        Map<String, List<RuleDataValue>> result = new HashMap<>( allEventValues );
+
+        for ( Map.Entry<String, List<RuleDataValue>> entry : targetValues.entrySet() )
+        {
+            DataElementValues values = dataElementValues.get( entry.getKey() );
+
+            if ( values == null )
+            {
+                result.put( entry.getKey(), Collections.unmodifiableList( entry.getValue() ) );
+            }
+            else
+            {
+                result.put( entry.getKey(),
+                    new InsertedList( values.values, entry.getValue(), values.countBefore( position ) ) );
+            }
+        }
+
+        return result;
+    }
+
+    private int upperBound( RuleEvent target )
+    {
+        int low = 0;
+        int high = events.size();
+
+        while ( low < high )
+        {
+            int middle = (low + high) >>> 1;
+
+            if ( RuleEvent.EVENT_DATE_COMPARATOR.compare( events.get( middle ), target ) <= 0 )
+            {
+                low = middle + 1;
+            }
+            else
+            {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Values of one data element, with the position of their event in the
+     * sorted list of events.
+     */
+    private static final class DataElementValues
+    {
+        private final List<RuleDataValue> values;
+
+        private int[] positions;
+
+        DataElementValues( int capacity )
+        {
+            this.values = new ArrayList<>( capacity );
+            this.positions = new int[Math.max( capacity, 1 )];
+        }
+
+        void add( RuleDataValue value, int position )
+        {
+            if ( values.size() == positions.length )
+            {
+                int[] grown = new int[positions.length * 2];
+                System.arraycopy( positions, 0, grown, 0, positions.length );
+                positions = grown;
+            }
+
+            positions[values.size()] = position;
+            values.add( value );
+        }
+
+        /**
+         * @return the number of values whose event comes before the given position.
+         */
+        int countBefore( int position )
+        {
+            int low = 0;
+            int high = values.size();
+
+            while ( low < high )
+            {
+                int middle = (low + high) >>> 1;
+
+                if ( positions[middle] < position )
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+
+            return low;
+        }
+    }
+
+    /**
+     * Read only view of a list with another list inserted at an index.
+     */
+    private static final class InsertedList
+        extends AbstractList<RuleDataValue>
+        implements RandomAccess
+    {
+        private final List<RuleDataValue> list;
+
+        private final List<RuleDataValue> inserted;
+
+        private final int index;
+
+        InsertedList( List<RuleDataValue> list, List<RuleDataValue> inserted, int index )
+        {
+            this.list = list;
+            this.inserted = inserted;
+            this.index = index;
+        }
+
+        @Override
+        public RuleDataValue get( int i )
+        {
+            if ( i < index )
+            {
+                return list.get( i );
+            }
+
+            if ( i < index + inserted.size() )
+            {
+                return inserted.get( i - index );
+            }
+
+            return list.get( i - inserted.size() );
+        }
+
+        @Override
+        public int size()
+        {
+            return list.size() + inserted.size();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package org.hisp.dhis.rules;
+
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The rules of a context already filtered by {@link RuleEngineFilter} for
+ * each target: one list for enrollments and one list per program stage for
+ * events. Each list is built once, sorted by priority, and shared by all
+ * evaluations of the engines built from the context, together with the
+ * names of the variables its rules read.
+ */
+final class RulePartitions
+{
+    @Nonnull
+    private final Partition rules;
+
+    @Nonnull
+    private final Partition enrollmentRules;
+
+    @Nonnull
+    private final Map<String, Partition> programStageRules;
+
+    @Nonnull
+    private final Partition eventRules;
+
+    RulePartitions( @Nonnull List<Rule> rules, @Nonnull CompiledExpressionCache compiledExpressions )
+    {
+        this.rules = new Partition( rules, compiledExpressions );
+        this.enrollmentRules = new Partition( RuleEngineFilter.filterEnrollmentRules( rules ), compiledExpressions );
+        this.eventRules = new Partition( RuleEngineFilter.filterEventRules( rules, null ), compiledExpressions );
+        this.programStageRules = new HashMap<>();
+
+        Set<String> programStages = new LinkedHashSet<>();
+
+        for ( Rule rule : rules )
+        {
+            if ( !StringUtils.isEmpty( rule.programStage() ) )
+            {
+                programStages.add( rule.programStage() );
+            }
+        }
+
+        for ( String programStage : programStages )
+        {
+            programStageRules.put( programStage,
+                new Partition( RuleEngineFilter.filterEventRules( rules, programStage ), compiledExpressions ) );
+        }
+    }
+
+    /**
+     * @return all rules, sorted by priority.
+     */
+    @Nonnull
+    List<Rule> rules()
+    {
+        return rules.rules;
+    }
+
+    /**
+     * @return the rules to evaluate for an enrollment, sorted by priority.
+     */
+    @Nonnull
+    List<Rule> rules( @Nonnull RuleEnrollment ruleEnrollment )
+    {
+        return enrollmentRules.rules;
+    }
+
+    /**
+     * @return the rules to evaluate for an event, sorted by priority.
+     */
+    @Nonnull
+    List<Rule> rules( @Nonnull RuleEvent ruleEvent )
+    {
+        return partition( ruleEvent ).rules;
+    }
+
+    /**
+     * @return the names of the variables read by all rules, or null if any
+     * variable may be read.
+     */
+    @Nullable
+    Set<String> variables()
+    {
+        return rules.variables;
+    }
+
+    /**
+     * @return the names of the variables read by the rules of an enrollment,
+     * or null if any variable may be read.
+     */
+    @Nullable
+    Set<String> variables( @Nonnull RuleEnrollment ruleEnrollment )
+    {
+        return enrollmentRules.variables;
+    }
+
+    /**
+     * @return the names of the variables read by the rules of an event, or
+     * null if any variable may be read.
+     */
+    @Nullable
+    Set<String> variables( @Nonnull RuleEvent ruleEvent )
+    {
+        return partition( ruleEvent ).variables;
+    }
+
+    private Partition partition( RuleEvent ruleEvent )
+    {
+        Partition partition = programStageRules.get( ruleEvent.programStage() );
+
+        return partition == null ? eventRules : partition;
+    }
+
+    private static final class Partition
+    {
+        private final List<Rule> rules;
+
+        @Nullable
+        private final Set<String> variables;
+
+        Partition( List<Rule> rules, CompiledExpressionCache compiledExpressions )
+        {
+            this.rules = Collections.unmodifiableList( RuleEngineFilter.sortByPriority( rules ) );
+            this.variables = variables( rules, compiledExpressions );
+        }
+
+        /**
+         * Variables are read by the conditions and the action data of the
+         * rules. Assigning a calculated value does not need the variable.
+         */
+        @Nullable
+        private static Set<String> variables( List<Rule> rules, CompiledExpressionCache compiledExpressions )
+        {
+            Set<String> variables = new HashSet<>();
+
+            for ( Rule rule : rules )
+            {
+                if ( !addVariables( variables, compiledExpressions.get( rule.condition() ).variables() ) )
+                {
+                    return null;
+                }
+
+                if ( rule.actions() != null )
+                {
+                    for ( RuleAction action : rule.actions() )
+                    {
+                        if ( !addVariables( variables, compiledExpressions.get( action.data() ).variables() ) )
+                        {
+                            return null;
+                        }
+                    }
+                }
+            }
+
+            return Collections.unmodifiableSet( variables );
+        }
+
+        private static boolean addVariables( Set<String> variables, @Nullable Set<String> expressionVariables )
+        {
+            if ( expressionVariables == null )
+            {
+                return false;
+            }
+
+            variables.addAll( expressionVariables );
+            return true;
+        }
+    }
+}
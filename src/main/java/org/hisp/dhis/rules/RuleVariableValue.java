@@ -7,26 +7,54 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 @AutoValue
 public abstract class RuleVariableValue
 {
-    private static final String DATE_PATTERN = "yyyy-MM-dd";
-
     private static final String NUMBER_PATTERN = "0.0";
 
     @Nonnull
     public static RuleVariableValue create( @Nonnull RuleValueType ruleValueType )
+    {
+        return create( ruleValueType, RuleEngineClock.SYSTEM.currentDate() );
+    }
+
+    /**
+     * @param currentDate the date of the evaluation the value is created for.
+     */
+    @Nonnull
+    public static RuleVariableValue create( @Nonnull RuleValueType ruleValueType,
+        @Nonnull CurrentDate currentDate )
     {
         return new AutoValue_RuleVariableValue( null, ruleValueType,
-            Collections.unmodifiableList( new ArrayList<String>() ), getFormattedDate( new Date() ) );
+            Collections.unmodifiableList( new ArrayList<String>() ), currentDate.formatted() );
     }
 
     @Nonnull
     public static RuleVariableValue create( @Nonnull String value,
         @Nonnull RuleValueType ruleValueType )
+    {
+        return create( value, ruleValueType, RuleEngineClock.SYSTEM.currentDate() );
+    }
+
+    /**
+     * @param currentDate the date of the evaluation the value is created for.
+     */
+    @Nonnull
+    public static RuleVariableValue create( @Nullable String value,
+        @Nonnull RuleValueType ruleValueType, @Nonnull CurrentDate currentDate )
+    {
+        return create( value, ruleValueType, currentDate.formatted() );
+    }
+
+    /**
+     * @param eventDate the formatted date of the evaluation the value is
+     *                  created for.
+     */
+    @Nonnull
+    static RuleVariableValue create( @Nullable String value,
+        @Nonnull RuleValueType ruleValueType, @Nonnull String eventDate )
     {
         if ( ruleValueType == null )
         {
@@ -46,7 +74,7 @@ public abstract class RuleVariableValue
         }*/
 
         return new AutoValue_RuleVariableValue( processedValue, ruleValueType,
-            Collections.unmodifiableList( new ArrayList<String>() ), getFormattedDate( new Date() ) );
+            Collections.unmodifiableList( new ArrayList<String>() ), eventDate );
     }
 
     @Nonnull
@@ -74,14 +102,6 @@ public abstract class RuleVariableValue
             Collections.unmodifiableList( candidates ), eventDate );
     }
 
-    private static String getFormattedDate( Date date )
-    {
-        SimpleDateFormat format = new SimpleDateFormat();
-        format.applyPattern( DATE_PATTERN );
-
-        return format.format( date );
-    }
-
     private static String getFormattedNumber( String number )
     {
         DecimalFormatSymbols otherSymbols = new DecimalFormatSymbols( Locale.US );
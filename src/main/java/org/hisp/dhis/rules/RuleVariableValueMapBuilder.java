@@ -6,7 +6,6 @@ import org.hisp.dhis.rules.utils.RuleEngineUtils;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.text.SimpleDateFormat;
 import java.util.*;
 
 import static org.hisp.dhis.rules.RuleVariableValue.create;
@@ -14,11 +13,6 @@ import static org.hisp.dhis.rules.RuleVariableValue.create;
 @SuppressWarnings( "PMD.GodClass" )
 public final class RuleVariableValueMapBuilder
 {
-    private static final String DATE_PATTERN = "yyyy-MM-dd";
-
-    @Nonnull
-    public final SimpleDateFormat dateFormat;
-
     @Nonnull
     private final Map<String, String> allConstantValues;
 
@@ -37,16 +31,49 @@ public final class RuleVariableValueMapBuilder
     @Nullable
     private TriggerEnvironment triggerEnvironment;
 
+    @Nullable
+    private RuleEventTimeline eventTimeline;
+
+    @Nullable
+    private RulePartitions rulePartitions;
+
+    @Nullable
+    private Set<String> variableNames;
+
+    private boolean lazyVariableValues;
+
+    @Nullable
+    private RuleEngineInstrumentation instrumentation;
+
+    @Nullable
+    private CurrentDate currentDate;
+
+    @Nullable
+    private ValueMapTemplate valueMapTemplate;
+
     private RuleVariableValueMapBuilder()
     {
-        this.dateFormat = new SimpleDateFormat( DATE_PATTERN, Locale.US );
-
         // collections used for construction of resulting variable value map
         this.ruleVariables = new ArrayList<>();
         this.ruleEvents = new ArrayList<>();
         this.allConstantValues = new HashMap<>();
     }
 
+    /**
+     * Copy of the target of a builder, used by the lazy value maps to create
+     * variable values after the builder moved on to the next target.
+     */
+    private RuleVariableValueMapBuilder( @Nonnull RuleVariableValueMapBuilder builder )
+    {
+        this.ruleVariables = Collections.emptyList();
+        this.ruleEvents = Collections.emptyList();
+        this.allConstantValues = Collections.emptyMap();
+        this.ruleEnrollment = builder.ruleEnrollment;
+        this.ruleEvent = builder.ruleEvent;
+        this.triggerEnvironment = builder.triggerEnvironment;
+        this.currentDate = builder.currentDate();
+    }
+
     private RuleVariableValueMapBuilder( @Nonnull RuleEnrollment ruleEnrollment )
     {
         this();
@@ -123,6 +150,20 @@ public final class RuleVariableValueMapBuilder
         }
 
         this.ruleEvents.addAll( ruleEvents );
+        this.eventTimeline = null;
+        return this;
+    }
+
+    /**
+     * The events of the enrollment, sorted and aggregated once by the caller
+     * for the builders of several targets, in place of {@link #ruleEvents(List)}.
+     * The target may have the uid of one of the events: it is seen as one
+     * more event, evaluated next to the event with the same uid.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder eventTimeline( @Nonnull RuleEventTimeline eventTimeline )
+    {
+        this.eventTimeline = eventTimeline;
         return this;
     }
 
@@ -133,9 +174,122 @@ public final class RuleVariableValueMapBuilder
         return this;
     }
 
+    /**
+     * Only the given variables are created, the others are not read by the
+     * rules to evaluate.
+     *
+     * @param variableNames the names of the variables to create, or null to
+     *                      create all of them.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder variableNames( @Nullable Set<String> variableNames )
+    {
+        this.variableNames = variableNames;
+        return this;
+    }
+
+    /**
+     * Used by {@link #multipleBuild()} to only create the variables read by
+     * the rules of each target.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder rulePartitions( @Nullable RulePartitions rulePartitions )
+    {
+        this.rulePartitions = rulePartitions;
+        return this;
+    }
+
+    /**
+     * With lazy variable values, the value of a rule variable is only created
+     * when the rules look it up.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder lazyVariableValues( boolean lazyVariableValues )
+    {
+        this.lazyVariableValues = lazyVariableValues;
+        return this;
+    }
+
+    /**
+     * Reports the time spent building value maps, if not null.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder instrumentation( @Nullable RuleEngineInstrumentation instrumentation )
+    {
+        this.instrumentation = instrumentation;
+        return this;
+    }
+
+    /**
+     * The date the values are created at, captured once by the engine for an
+     * evaluation. Defaults to the system clock when the values are built.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder currentDate( @Nullable CurrentDate currentDate )
+    {
+        this.currentDate = currentDate;
+        return this;
+    }
+
+    /**
+     * The values shared with other builders, created from the constants, the
+     * trigger environment and the current date of this builder if null. The
+     * caller makes sure they were created from the same ones.
+     */
+    @Nonnull
+    RuleVariableValueMapBuilder valueMapTemplate( @Nullable ValueMapTemplate valueMapTemplate )
+    {
+        this.valueMapTemplate = valueMapTemplate;
+
+        if ( valueMapTemplate != null )
+        {
+            this.currentDate = valueMapTemplate.currentDate();
+        }
+
+        return this;
+    }
+
+    /**
+     * @return the date the values are created at, the same for all values of
+     * the map.
+     */
+    @Nonnull
+    public CurrentDate currentDate()
+    {
+        if ( currentDate == null )
+        {
+            currentDate = RuleEngineClock.SYSTEM.currentDate();
+        }
+
+        return currentDate;
+    }
+
     @Nonnull
     Map<String, RuleVariableValue> build()
     {
+        currentDate();
+
+        if ( instrumentation == null )
+        {
+            return buildValueMap();
+        }
+
+        long start = System.nanoTime();
+        Map<String, RuleVariableValue> valueMap = buildValueMap();
+        instrumentation.valueMapsBuilt( 1, System.nanoTime() - start );
+
+        return valueMap;
+    }
+
+    @Nonnull
+    private Map<String, RuleVariableValue> buildValueMap()
+    {
+        if ( lazyVariableValues )
+        {
+            return new LazyRuleVariableValueMap( buildEnvironmentVariables(), buildLazyRuleVariableValues(),
+                buildConstantsValues() );
+        }
+
         Map<String, RuleVariableValue> valueMap = new HashMap<>();
 
         // set environment variables
@@ -154,17 +308,36 @@ public final class RuleVariableValueMapBuilder
     @Nonnull
     RuleVariableValueMap multipleBuild()
     {
+        long start = instrumentation == null ? 0 : System.nanoTime();
+        currentDate();
+
         Map<RuleEnrollment, Map<String, RuleVariableValue>> enrollmentMap = new HashMap<>();
         if ( ruleEnrollment != null )
         {
-            enrollmentMap.put( ruleEnrollment, build() );
+            if ( rulePartitions != null )
+            {
+                this.variableNames = rulePartitions.variables( ruleEnrollment );
+            }
+
+            enrollmentMap.put( ruleEnrollment, buildValueMap() );
         }
         Map<RuleEvent, Map<String, RuleVariableValue>> eventMap = new HashMap<>();
 
         for ( RuleEvent event : ruleEvents )
         {
             this.ruleEvent = event;
-            eventMap.put( ruleEvent, build() );
+
+            if ( rulePartitions != null )
+            {
+                this.variableNames = rulePartitions.variables( ruleEvent );
+            }
+
+            eventMap.put( ruleEvent, buildValueMap() );
+        }
+
+        if ( instrumentation != null )
+        {
+            instrumentation.valueMapsBuilt( enrollmentMap.size() + eventMap.size(), System.nanoTime() - start );
         }
 
         return new RuleVariableValueMap( enrollmentMap, eventMap );
@@ -207,145 +380,86 @@ public final class RuleVariableValueMapBuilder
 
     private Map<String, RuleAttributeValue> buildCurrentEnrollmentValues()
     {
-        Map<String, RuleAttributeValue> currentEnrollmentValues = Maps.newHashMap();
-        if ( ruleEnrollment != null )
+        if ( ruleEnrollment != null && ruleEnrollment == valueMapTemplate().ruleEnrollment() )
         {
-            List<RuleAttributeValue> ruleAttributeValues = ruleEnrollment.attributeValues();
-            for ( int index = 0; index < ruleAttributeValues.size(); index++ )
-            {
-                RuleAttributeValue attributeValue = ruleAttributeValues.get( index );
-                currentEnrollmentValues.put( attributeValue.trackedEntityAttribute(), attributeValue );
-            }
+            return valueMapTemplate().attributeValues();
         }
 
-        return currentEnrollmentValues;
+        return ValueMapTemplate.attributeValues( ruleEnrollment );
     }
 
-    private Map<String, List<RuleDataValue>> buildAllEventValues()
+    @Nonnull
+    private RuleEventTimeline eventTimeline()
     {
-        Map<String, List<RuleDataValue>> allEventsValues = Maps.newHashMap();
-        List<RuleEvent> events = new ArrayList<>( ruleEvents );
-
-        if ( ruleEvent != null )
+        // events are sorted and aggregated once, and shared by the value maps of all target events
+        if ( eventTimeline == null )
         {
-            // target event should be among the list of all
-            // events in order to achieve correct behavior
-            events.add( ruleEvent );
+            eventTimeline = new RuleEventTimeline( ruleEvents );
         }
 
-        // sort list of events by eventDate:
-        Collections.sort( events, RuleEvent.EVENT_DATE_COMPARATOR );
+        return eventTimeline;
+    }
 
-        // aggregating values by data element uid
-        for ( int i = 0; i < events.size(); i++ )
+    /**
+     * @return the values shared by all value maps of the builder, created on
+     * first use.
+     */
+    private ValueMapTemplate valueMapTemplate()
+    {
+        if ( valueMapTemplate == null )
         {
-            RuleEvent ruleEvent = events.get( i );
-
-            for ( int j = 0; j < ruleEvent.dataValues().size(); j++ )
-            {
-                RuleDataValue ruleDataValue = ruleEvent.dataValues().get( j );
-
-                // push new list if it is not there for the given data element
-                if ( !allEventsValues.containsKey( ruleDataValue.dataElement() ) )
-                {
-                    allEventsValues.put( ruleDataValue.dataElement(),
-                        new ArrayList<RuleDataValue>( events.size() ) ); //NOPMD
-                }
-
-                // append data value to the list
-                allEventsValues.get( ruleDataValue.dataElement() ).add( ruleDataValue );
-            }
+            valueMapTemplate = ValueMapTemplate.create( allConstantValues, triggerEnvironment, currentDate() );
         }
 
-        return allEventsValues;
+        return valueMapTemplate;
     }
 
     private Map<String, RuleVariableValue> buildConstantsValues()
     {
-        Map<String, RuleVariableValue> valueMap = Maps.newHashMap();
-
-        for ( Map.Entry<String, String> entrySet : allConstantValues.entrySet() )
-        {
-            valueMap.put( entrySet.getKey(), create( entrySet.getValue(), RuleValueType.NUMERIC ) );
-        }
-        return valueMap;
+        return valueMapTemplate().constantValues();
     }
 
     private Map<String, RuleVariableValue> buildEnvironmentVariables()
     {
-        Map<String, RuleVariableValue> valueMap = Maps.newHashMap();
-        String currentDate = dateFormat.format( new Date() );
-
-        valueMap.put( RuleEngineUtils.ENV_VAR_CURRENT_DATE,
-            create( currentDate, RuleValueType.TEXT, Arrays.asList( currentDate ), currentDate ) );
+        Map<String, RuleVariableValue> valueMap = new HashMap<>( valueMapTemplate().environmentValues() );
+        String currentDate = currentDate().formatted();
 
-        if ( triggerEnvironment != null )
+        if ( eventTimeline().size() > 0 )
         {
-            String environment = triggerEnvironment.getClientName();
-            valueMap.put( RuleEngineUtils.ENV_VAR_ENVIRONMENT,
-                create( environment, RuleValueType.TEXT, Arrays.asList( environment ), currentDate ) );
-        }
-
-        if ( !ruleEvents.isEmpty() )
-        {
-            valueMap.put( RuleEngineUtils.ENV_VAR_EVENT_COUNT, create( String.valueOf( ruleEvents.size() ),
-                RuleValueType.NUMERIC, Arrays.asList( String.valueOf( ruleEvents.size() ) ), currentDate ) );
+            String eventCount = String.valueOf( eventTimeline().size() );
+            valueMap.put( RuleEngineUtils.ENV_VAR_EVENT_COUNT, create( eventCount,
+                RuleValueType.NUMERIC, Arrays.asList( eventCount ), currentDate ) );
         }
 
-        if ( ruleEnrollment != null )
+        // the values of the enrollment are in the template when it is shared by the events of the enrollment
+        if ( ruleEnrollment != null && ruleEnrollment != valueMapTemplate().ruleEnrollment() )
         {
-            valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_ID, create( ruleEnrollment.enrollment(),
-                RuleValueType.TEXT, Arrays.asList( ruleEnrollment.enrollment() ), currentDate ) );
-            valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_COUNT, create( "1",
-                RuleValueType.NUMERIC, Arrays.asList( "1" ), currentDate ) );
-            valueMap.put( RuleEngineUtils.ENV_VAR_TEI_COUNT, create( "1",
-                RuleValueType.NUMERIC, Arrays.asList( "1" ), currentDate ) );
-
-            String enrollmentDate = dateFormat.format( ruleEnrollment.enrollmentDate() );
-            valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_DATE, create( enrollmentDate,
-                RuleValueType.TEXT, Arrays.asList( enrollmentDate ), currentDate ) );
-
-            String incidentDate = dateFormat.format( ruleEnrollment.incidentDate() );
-            valueMap.put( RuleEngineUtils.ENV_VAR_INCIDENT_DATE, create( incidentDate,
-                RuleValueType.TEXT, Arrays.asList( incidentDate ), currentDate ) );
-
-            String status = ruleEnrollment.status().toString();
-            valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_STATUS, create( status,
-                RuleValueType.TEXT, Arrays.asList( status ), currentDate ) );
-
-            String organisationUnit = ruleEnrollment.organisationUnit();
-            valueMap.put( RuleEngineUtils.ENV_VAR_OU, create( organisationUnit, RuleValueType.TEXT ) );
-
-            String programName = ruleEnrollment.programName();
-            valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_NAME, create( programName, RuleValueType.TEXT ) );
-
-            String organisationUnitCode = ruleEnrollment.organisationUnitCode();
-            valueMap.put( RuleEngineUtils.ENV_VAR_OU_CODE, create( organisationUnitCode, RuleValueType.TEXT ) );
+            ValueMapTemplate.putEnrollmentValues( valueMap, ruleEnrollment, currentDate() );
         }
 
         if ( ruleEvent != null )
         {
-            String eventDate = dateFormat.format( ruleEvent.eventDate() );
+            String eventDate = Utils.formatDate( ruleEvent.eventDate() );
             valueMap.put( RuleEngineUtils.ENV_VAR_EVENT_DATE, create( eventDate, RuleValueType.TEXT,
                 Arrays.asList( eventDate ), currentDate ) );
 
             if ( ruleEvent.dueDate() != null ) {
-                String dueDate = dateFormat.format(ruleEvent.dueDate());
+                String dueDate = Utils.formatDate( ruleEvent.dueDate() );
                 valueMap.put(RuleEngineUtils.ENV_VAR_DUE_DATE, create(dueDate, RuleValueType.TEXT,
                         Arrays.asList(dueDate), currentDate));
             }
             if ( ruleEvent.completedDate() != null )
             {
-                String completedDate = dateFormat.format( ruleEvent.completedDate() );
+                String completedDate = Utils.formatDate( ruleEvent.completedDate() );
                 valueMap.put( RuleEngineUtils.ENV_VAR_COMPLETED_DATE, create( completedDate, RuleValueType.TEXT,
                     Arrays.asList( completedDate ), currentDate ) );
             }
 
             // override value of event count
-            String eventCount = String.valueOf( ruleEvents.size() + 1 );
-            if ( ruleEvents.contains( ruleEvent ) )
+            String eventCount = String.valueOf( eventTimeline().size() + 1 );
+            if ( eventTimeline().contains( ruleEvent ) )
             {
-                eventCount = String.valueOf( ruleEvents.size() );
+                eventCount = String.valueOf( eventTimeline().size() );
             }
 
             valueMap.put( RuleEngineUtils.ENV_VAR_EVENT_COUNT, create( eventCount,
@@ -358,27 +472,54 @@ public final class RuleVariableValueMapBuilder
                 RuleValueType.TEXT, Arrays.asList( status ), currentDate ) );
 
             String organisationUnit = ruleEvent.organisationUnit();
-            valueMap.put( RuleEngineUtils.ENV_VAR_OU, create( organisationUnit, RuleValueType.TEXT ) );
+            valueMap.put( RuleEngineUtils.ENV_VAR_OU, create( organisationUnit, RuleValueType.TEXT, currentDate() ) );
 
             String programStageId = ruleEvent.programStage();
-            valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_STAGE_ID, create( programStageId, RuleValueType.TEXT ) );
+            valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_STAGE_ID, create( programStageId, RuleValueType.TEXT, currentDate() ) );
 
             String programStageName = ruleEvent.programStageName();
-            valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_STAGE_NAME, create( programStageName, RuleValueType.TEXT ) );
+            valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_STAGE_NAME, create( programStageName, RuleValueType.TEXT, currentDate() ) );
 
             String organisationUnitCode = ruleEvent.organisationUnitCode();
-            valueMap.put( RuleEngineUtils.ENV_VAR_OU_CODE, create( organisationUnitCode, RuleValueType.TEXT ) );
+            valueMap.put( RuleEngineUtils.ENV_VAR_OU_CODE, create( organisationUnitCode, RuleValueType.TEXT, currentDate() ) );
         }
 
         return valueMap;
     }
 
+    private LazyRuleVariableValueMap.VariableValues buildLazyRuleVariableValues()
+    {
+        Map<String, List<RuleVariable>> variablesByName = new HashMap<>();
+
+        for ( RuleVariable ruleVariable : ruleVariables )
+        {
+            if ( variableNames != null && !variableNames.contains( ruleVariable.name() ) )
+            {
+                continue;
+            }
+
+            List<RuleVariable> variables = variablesByName.get( ruleVariable.name() );
+
+            if ( variables == null )
+            {
+                variables = new ArrayList<>( 1 );
+                variablesByName.put( ruleVariable.name(), variables );
+            }
+
+            variables.add( ruleVariable );
+        }
+
+        return new LazyRuleVariableValueMap.VariableValues( variablesByName, new RuleVariableValueMapBuilder( this ),
+            eventTimeline().allEventValues( ruleEvent ), buildCurrentEnrollmentValues(), buildCurrentEventValues() );
+    }
+
     private Map<String, RuleVariableValue> buildRuleVariableValues()
     {
         Map<String, RuleVariableValue> valueMap = Maps.newHashMap();
 
-        // map data values within all events to data elements
-        Map<String, List<RuleDataValue>> allEventValues = buildAllEventValues();
+        // map data values within all events to data elements, target event
+        // should be among the list of all events in order to achieve correct behavior
+        Map<String, List<RuleDataValue>> allEventValues = eventTimeline().allEventValues( ruleEvent );
 
         // map tracked entity attributes to values from enrollment
         Map<String, RuleAttributeValue> currentEnrollmentValues = buildCurrentEnrollmentValues();
@@ -388,6 +529,11 @@ public final class RuleVariableValueMapBuilder
 
         for ( RuleVariable ruleVariable : ruleVariables )
         {
+            // variables no rule reads are not worth creating
+            if ( variableNames != null && !variableNames.contains( ruleVariable.name() ) )
+            {
+                continue;
+            }
 
             valueMap.putAll(
                 ruleVariable.createValues( this, allEventValues, currentEnrollmentValues, currentEventValues ) );
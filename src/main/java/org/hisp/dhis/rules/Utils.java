@@ -2,6 +2,7 @@ package org.hisp.dhis.rules;
 
 import org.hisp.dhis.rules.models.RuleDataValue;
 import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.utils.EpochDays;
 
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -13,7 +14,13 @@ import javax.annotation.Nonnull;
 public final class Utils
 {
 
+    /**
+     * @deprecated not thread safe and no longer used by the rule engine, use
+     * {@link #formatDate(Date)} instead. To be removed in the next release.
+     */
+    @Deprecated
     public static final SimpleDateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd", Locale.US );
+
     static final String VARIABLE_PATTERN = "[#]\\{([\\w -_.]+)\\}";
     static final Pattern VARIABLE_PATTERN_COMPILED = Pattern.compile( VARIABLE_PATTERN );
 
@@ -34,31 +41,58 @@ public final class Utils
 
     public static String getLastUpdateDateForPrevious( List<RuleDataValue> ruleDataValues,
         RuleEvent ruleEvent )
+    {
+        return getLastUpdateDateForPrevious( ruleDataValues, ruleEvent, RuleEngineClock.SYSTEM.currentDate() );
+    }
+
+    /**
+     * @return the latest date of the values before the event and not after
+     * the current date.
+     */
+    public static String getLastUpdateDateForPrevious( List<RuleDataValue> ruleDataValues,
+        RuleEvent ruleEvent, CurrentDate currentDate )
     {
         List<Date> dates = new ArrayList<>();
         for ( RuleDataValue date : ruleDataValues )
         {
             Date d = date.eventDate();
-            if ( !d.after( new Date() ) && d.before( ruleEvent.eventDate() ) )
+            if ( !currentDate.isBefore( d ) && d.before( ruleEvent.eventDate() ) )
             {
                 dates.add( d );
             }
         }
-        return dateFormat.format( Collections.max( dates ) );
+        return formatDate( Collections.max( dates ) );
     }
 
     public static String getLastUpdateDate( List<RuleDataValue> ruleDataValues )
+    {
+        return getLastUpdateDate( ruleDataValues, RuleEngineClock.SYSTEM.currentDate() );
+    }
+
+    /**
+     * @return the latest date of the values not after the current date.
+     */
+    public static String getLastUpdateDate( List<RuleDataValue> ruleDataValues, CurrentDate currentDate )
     {
         List<Date> dates = new ArrayList<>();
         for ( RuleDataValue date : ruleDataValues )
         {
             Date d = date.eventDate();
-            if ( !d.after( new Date() ) )
+            if ( !currentDate.isBefore( d ) )
             {
                 dates.add( d );
             }
         }
-        return dateFormat.format( Collections.max( dates ) );
+        return formatDate( Collections.max( dates ) );
+    }
+
+    /**
+     * @return the date formatted as {@code yyyy-MM-dd} in the default time
+     * zone. Thread safe.
+     */
+    public static String formatDate( Date date )
+    {
+        return EpochDays.format( date );
     }
 
     @Nonnull
@@ -0,0 +1,194 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleAttributeValue;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleValueType;
+import org.hisp.dhis.rules.models.TriggerEnvironment;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The values of a value map which depend neither on the enrollment nor on
+ * the event: the current date, the trigger environment and the constants.
+ * Built once and shared by all value maps of an evaluation, or of all the
+ * enrollments of a batch, which are evaluated at the same date.
+ * <p>
+ * A template derived for an enrollment also holds the values of the
+ * enrollment, shared by the value maps of the events of a stream.
+ */
+final class ValueMapTemplate
+{
+    @Nonnull
+    private final CurrentDate currentDate;
+
+    @Nonnull
+    private final Map<String, RuleVariableValue> environmentValues;
+
+    @Nonnull
+    private final Map<String, RuleVariableValue> constantValues;
+
+    @Nullable
+    private final RuleEnrollment ruleEnrollment;
+
+    @Nonnull
+    private final Map<String, RuleAttributeValue> attributeValues;
+
+    private ValueMapTemplate( @Nonnull CurrentDate currentDate,
+        @Nonnull Map<String, RuleVariableValue> environmentValues,
+        @Nonnull Map<String, RuleVariableValue> constantValues, @Nullable RuleEnrollment ruleEnrollment,
+        @Nonnull Map<String, RuleAttributeValue> attributeValues )
+    {
+        this.currentDate = currentDate;
+        this.environmentValues = Collections.unmodifiableMap( environmentValues );
+        this.constantValues = Collections.unmodifiableMap( constantValues );
+        this.ruleEnrollment = ruleEnrollment;
+        this.attributeValues = Collections.unmodifiableMap( attributeValues );
+    }
+
+    @Nonnull
+    static ValueMapTemplate create( @Nullable Map<String, String> constants,
+        @Nullable TriggerEnvironment triggerEnvironment, @Nonnull CurrentDate currentDate )
+    {
+        String formatted = currentDate.formatted();
+        Map<String, RuleVariableValue> environmentValues = new HashMap<>();
+
+        environmentValues.put( RuleEngineUtils.ENV_VAR_CURRENT_DATE,
+            RuleVariableValue.create( formatted, RuleValueType.TEXT, Arrays.asList( formatted ), formatted ) );
+
+        if ( triggerEnvironment != null )
+        {
+            String environment = triggerEnvironment.getClientName();
+            environmentValues.put( RuleEngineUtils.ENV_VAR_ENVIRONMENT,
+                RuleVariableValue.create( environment, RuleValueType.TEXT, Arrays.asList( environment ),
+                    formatted ) );
+        }
+
+        Map<String, RuleVariableValue> constantValues = new HashMap<>();
+
+        if ( constants != null )
+        {
+            for ( Map.Entry<String, String> constant : constants.entrySet() )
+            {
+                constantValues.put( constant.getKey(),
+                    RuleVariableValue.create( constant.getValue(), RuleValueType.NUMERIC, currentDate ) );
+            }
+        }
+
+        return new ValueMapTemplate( currentDate, environmentValues, constantValues, null,
+            Collections.<String, RuleAttributeValue>emptyMap() );
+    }
+
+    /**
+     * @return a template which also holds the environment variables and the
+     * attribute values of the enrollment, or this template if it is null.
+     */
+    @Nonnull
+    ValueMapTemplate withEnrollment( @Nullable RuleEnrollment ruleEnrollment )
+    {
+        if ( ruleEnrollment == null )
+        {
+            return this;
+        }
+
+        Map<String, RuleVariableValue> enrollmentValues = new HashMap<>( environmentValues );
+        putEnrollmentValues( enrollmentValues, ruleEnrollment, currentDate );
+
+        return new ValueMapTemplate( currentDate, enrollmentValues, constantValues, ruleEnrollment,
+            attributeValues( ruleEnrollment ) );
+    }
+
+    static void putEnrollmentValues( @Nonnull Map<String, RuleVariableValue> valueMap,
+        @Nonnull RuleEnrollment ruleEnrollment, @Nonnull CurrentDate currentDate )
+    {
+        String formatted = currentDate.formatted();
+
+        valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_ID, RuleVariableValue.create( ruleEnrollment.enrollment(),
+            RuleValueType.TEXT, Arrays.asList( ruleEnrollment.enrollment() ), formatted ) );
+        valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_COUNT, RuleVariableValue.create( "1",
+            RuleValueType.NUMERIC, Arrays.asList( "1" ), formatted ) );
+        valueMap.put( RuleEngineUtils.ENV_VAR_TEI_COUNT, RuleVariableValue.create( "1",
+            RuleValueType.NUMERIC, Arrays.asList( "1" ), formatted ) );
+
+        String enrollmentDate = Utils.formatDate( ruleEnrollment.enrollmentDate() );
+        valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_DATE, RuleVariableValue.create( enrollmentDate,
+            RuleValueType.TEXT, Arrays.asList( enrollmentDate ), formatted ) );
+
+        String incidentDate = Utils.formatDate( ruleEnrollment.incidentDate() );
+        valueMap.put( RuleEngineUtils.ENV_VAR_INCIDENT_DATE, RuleVariableValue.create( incidentDate,
+            RuleValueType.TEXT, Arrays.asList( incidentDate ), formatted ) );
+
+        String status = ruleEnrollment.status().toString();
+        valueMap.put( RuleEngineUtils.ENV_VAR_ENROLLMENT_STATUS, RuleVariableValue.create( status,
+            RuleValueType.TEXT, Arrays.asList( status ), formatted ) );
+
+        valueMap.put( RuleEngineUtils.ENV_VAR_OU, RuleVariableValue.create( ruleEnrollment.organisationUnit(),
+            RuleValueType.TEXT, currentDate ) );
+        valueMap.put( RuleEngineUtils.ENV_VAR_PROGRAM_NAME, RuleVariableValue.create( ruleEnrollment.programName(),
+            RuleValueType.TEXT, currentDate ) );
+        valueMap.put( RuleEngineUtils.ENV_VAR_OU_CODE, RuleVariableValue.create(
+            ruleEnrollment.organisationUnitCode(), RuleValueType.TEXT, currentDate ) );
+    }
+
+    @Nonnull
+    static Map<String, RuleAttributeValue> attributeValues( @Nullable RuleEnrollment ruleEnrollment )
+    {
+        Map<String, RuleAttributeValue> attributeValues = new HashMap<>();
+
+        if ( ruleEnrollment != null )
+        {
+            List<RuleAttributeValue> ruleAttributeValues = ruleEnrollment.attributeValues();
+
+            for ( int index = 0; index < ruleAttributeValues.size(); index++ )
+            {
+                RuleAttributeValue attributeValue = ruleAttributeValues.get( index );
+                attributeValues.put( attributeValue.trackedEntityAttribute(), attributeValue );
+            }
+        }
+
+        return attributeValues;
+    }
+
+    @Nonnull
+    CurrentDate currentDate()
+    {
+        return currentDate;
+    }
+
+    /**
+     * @return the current date, the trigger environment and the values of the
+     * enrollment, if any.
+     */
+    @Nonnull
+    Map<String, RuleVariableValue> environmentValues()
+    {
+        return environmentValues;
+    }
+
+    @Nonnull
+    Map<String, RuleVariableValue> constantValues()
+    {
+        return constantValues;
+    }
+
+    /**
+     * @return the enrollment the template holds the values of, if any.
+     */
+    @Nullable
+    RuleEnrollment ruleEnrollment()
+    {
+        return ruleEnrollment;
+    }
+
+    @Nonnull
+    Map<String, RuleAttributeValue> attributeValues()
+    {
+        return attributeValues;
+    }
+}
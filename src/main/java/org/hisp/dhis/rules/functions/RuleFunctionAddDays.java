@@ -28,8 +28,13 @@ package org.hisp.dhis.rules.functions;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
+import org.hisp.dhis.rules.utils.EpochDays;
 import org.joda.time.LocalDate;
 import org.joda.time.format.DateTimeFormat;
 
@@ -71,4 +76,51 @@ public class RuleFunctionAddDays
 
         return CommonExpressionVisitor.DEFAULT_DATE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode date = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode days = compiler.compile( ctx.expr( 1 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                int epochDay = evaluateEpochDay( context );
+
+                if ( epochDay == EpochDays.INVALID )
+                {
+                    return addDays( date.evaluateString( context ), days.evaluateString( context ) );
+                }
+
+                return EpochDays.format( epochDay );
+            }
+
+            @Override
+            public ItemValueType valueType()
+            {
+                return ItemValueType.DATE;
+            }
+
+            @Override
+            public int evaluateEpochDay( EvaluationContext context )
+            {
+                int epochDay = date.evaluateEpochDay( context );
+
+                if ( epochDay == EpochDays.EMPTY || epochDay == EpochDays.INVALID )
+                {
+                    return EpochDays.INVALID;
+                }
+
+                int offset = days.valueType() == ItemValueType.NUMBER ? (int) days.evaluateNumber( context )
+                    : Double.valueOf( days.evaluateString( context ) ).intValue();
+
+                long result = (long) epochDay + offset;
+
+                return EpochDays.isValid( result ) ? (int) result : EpochDays.INVALID;
+            }
+        };
+    }
 }
@@ -29,8 +29,13 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
+import java.util.List;
+
 import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
 import static org.hisp.dhis.antlr.AntlrParserUtils.castString;
 
@@ -63,4 +68,31 @@ public class RuleFunctionConcatenate
         castString( visitor.visit( ctx.expr( 0 ) ) );
         return "concatenated_string";
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final List<ExprNode> arguments = compiler.compileArguments( ctx );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                StringBuilder builder = new StringBuilder();
+
+                for ( ExprNode argument : arguments )
+                {
+                    String evaluatedString = argument.evaluateString( context );
+
+                    if ( evaluatedString != null )
+                    {
+                        builder.append( evaluatedString );
+                    }
+                }
+
+                return builder.toString();
+            }
+        };
+    }
 }
@@ -31,6 +31,10 @@ package org.hisp.dhis.rules.functions;
 import org.hisp.dhis.rules.RuleExpression;
 import org.hisp.dhis.rules.RuleVariableValue;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Map;
@@ -46,24 +50,24 @@ import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext
 public class RuleFunctionCount
     extends ScalarFunctionToEvaluate
 {
-    private String count( String ruleVariableName, Map<String, RuleVariableValue> valueMap )
+    private int count( String ruleVariableName, Map<String, RuleVariableValue> valueMap )
     {
         RuleVariableValue variableValue = valueMap.get( ruleVariableName );
 
         if ( variableValue != null )
         {
-            return Integer.toString( variableValue.candidates().size() );
+            return variableValue.candidates().size();
         }
         else
         {
-            return "0";
+            return 0;
         }
     }
 
     @Override
     public Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return count( RuleExpression.getProgramRuleVariable( ctx ), visitor.getValueMap() );
+        return Integer.toString( count( RuleExpression.getProgramRuleVariable( ctx ), visitor.getValueMap() ) );
     }
 
     @Override
@@ -73,4 +77,19 @@ public class RuleFunctionCount
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final String variableName = RuleExpression.getProgramRuleVariable( ctx );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                return count( variableName, context.valueMap() );
+            }
+        };
+    }
 }
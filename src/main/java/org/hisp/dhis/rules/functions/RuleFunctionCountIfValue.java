@@ -32,6 +32,10 @@ import org.hisp.dhis.rules.RuleExpression;
 import org.hisp.dhis.rules.RuleVariableValue;
 import org.hisp.dhis.rules.models.RuleValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Collections;
@@ -60,7 +64,7 @@ public class RuleFunctionCountIfValue
      * @param valueMap         key value pair containing values for each variable
      * @return count of program rule variable
      */
-    private String countIfValue( String ruleVariableName, String valueToFind, Map<String, RuleVariableValue> valueMap )
+    private int countIfValue( String ruleVariableName, String valueToFind, Map<String, RuleVariableValue> valueMap )
     {
         RuleVariableValue variableValue = valueMap.get( ruleVariableName );
 
@@ -78,11 +82,11 @@ public class RuleFunctionCountIfValue
                 }
             }
 
-            return Integer.toString( Collections.frequency( variableValue.candidates(), valueToFind ) );
+            return Collections.frequency( variableValue.candidates(), valueToFind );
         }
         else
         {
-            return "0";
+            return 0;
         }
     }
 
@@ -91,9 +95,9 @@ public class RuleFunctionCountIfValue
     {
         String valueToFind = visitor.castStringVisit( ctx.expr( 0 ) );
 
-        return countIfValue( RuleExpression.getProgramRuleVariable( ctx ),
+        return Integer.toString( countIfValue( RuleExpression.getProgramRuleVariable( ctx ),
             valueToFind,
-            visitor.getValueMap() );
+            visitor.getValueMap() ) );
     }
 
     @Override
@@ -103,4 +107,22 @@ public class RuleFunctionCountIfValue
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final String variableName = RuleExpression.getProgramRuleVariable( ctx );
+        final ExprNode argument = compiler.compile( ctx.expr( 0 ) );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                String valueToFind = argument.evaluateString( context );
+
+                return countIfValue( variableName, valueToFind, context.valueMap() );
+            }
+        };
+    }
 }
@@ -31,6 +31,10 @@ package org.hisp.dhis.rules.functions;
 import org.hisp.dhis.rules.RuleExpression;
 import org.hisp.dhis.rules.RuleVariableValue;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.List;
@@ -65,13 +69,16 @@ public class RuleFunctionCountIfZeroPos
     @Override
     public Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        RuleVariableValue value = visitor.getValueMap().get( RuleExpression.getProgramRuleVariable( ctx ) );
+        return String.valueOf( countIfZeroPos( visitor.getValueMap().get( RuleExpression.getProgramRuleVariable( ctx ) ) ) );
+    }
 
+    private int countIfZeroPos( RuleVariableValue value )
+    {
         if ( value != null )
         {
             List<String> candidates = value.candidates();
 
-            Integer count = 0;
+            int count = 0;
             for ( String string : candidates )
             {
                     if ( isZeroPos( string ) )
@@ -82,11 +89,11 @@ public class RuleFunctionCountIfZeroPos
 
 //                        Integer count = candidates.stream().filter( this::isZeroPos ).collect( Collectors.toList() ).size();
 
-            return String.valueOf( count );
+            return count;
         }
         else
         {
-            return "0";
+            return 0;
         }
     }
 
@@ -97,4 +104,19 @@ public class RuleFunctionCountIfZeroPos
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final String variableName = RuleExpression.getProgramRuleVariable( ctx );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                return countIfZeroPos( context.valueMap().get( variableName ) );
+            }
+        };
+    }
 }
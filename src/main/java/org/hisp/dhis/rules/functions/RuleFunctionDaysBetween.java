@@ -2,7 +2,12 @@ package org.hisp.dhis.rules.functions;
 
 import org.hisp.dhis.rules.models.TimeInterval;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
+import org.hisp.dhis.rules.utils.EpochDays;
 import org.joda.time.Days;
 
 import static org.hisp.dhis.antlr.AntlrParserUtils.castDate;
@@ -47,4 +52,33 @@ public class RuleFunctionDaysBetween
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode start = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode end = compiler.compile( ctx.expr( 1 ) );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                int startDay = start.evaluateEpochDay( context );
+                int endDay = end.evaluateEpochDay( context );
+
+                if ( startDay == EpochDays.INVALID || endDay == EpochDays.INVALID )
+                {
+                    return daysBetween( start.evaluateString( context ), end.evaluateString( context ) );
+                }
+
+                if ( startDay == EpochDays.EMPTY || endDay == EpochDays.EMPTY )
+                {
+                    return 0;
+                }
+
+                return endDay - startDay;
+            }
+        };
+    }
 }
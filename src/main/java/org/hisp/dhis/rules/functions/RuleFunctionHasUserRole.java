@@ -28,7 +28,11 @@ package org.hisp.dhis.rules.functions;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import org.hisp.dhis.rules.parser.expression.BooleanNode;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.List;
@@ -66,4 +70,28 @@ public class RuleFunctionHasUserRole
 
         return CommonExpressionVisitor.DEFAULT_BOOLEAN_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode argument = compiler.compile( ctx.expr( 0 ) );
+
+        return new BooleanNode()
+        {
+            @Override
+            protected boolean test( EvaluationContext context )
+            {
+                Map<String, List<String>> supplementaryData = context.supplementaryData();
+
+                if ( !supplementaryData.containsKey( USER ) )
+                {
+                    throw new IllegalArgumentException( "Supplementary data needs to be provided" );
+                }
+
+                List<String> roles = supplementaryData.get( USER );
+
+                return roles != null && roles.contains( argument.evaluateString( context ) );
+            }
+        };
+    }
 }
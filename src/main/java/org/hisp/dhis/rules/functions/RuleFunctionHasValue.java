@@ -2,7 +2,11 @@ package org.hisp.dhis.rules.functions;
 
 import org.hisp.dhis.rules.RuleExpression;
 import org.hisp.dhis.rules.RuleVariableValue;
+import org.hisp.dhis.rules.parser.expression.BooleanNode;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Map;
@@ -16,17 +20,19 @@ public class RuleFunctionHasValue
     @Override
     public Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        Map<String, RuleVariableValue> valueMap = visitor.getValueMap();
+        return String.valueOf( hasValue( RuleExpression.getProgramRuleVariable( ctx ), visitor.getValueMap() ) );
+    }
 
-        String variableName = RuleExpression.getProgramRuleVariable( ctx );
+    private boolean hasValue( String variableName, Map<String, RuleVariableValue> valueMap )
+    {
         RuleVariableValue variableValue = valueMap.get( variableName );
 
         if ( variableValue == null )
         {
-            return String.valueOf( false );
+            return false;
         }
 
-        return String.valueOf( valueMap.get( variableName ).value() != null );
+        return valueMap.get( variableName ).value() != null;
     }
 
     @Override
@@ -36,4 +42,19 @@ public class RuleFunctionHasValue
 
         return DEFAULT_BOOLEAN_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final String variableName = RuleExpression.getProgramRuleVariable( ctx );
+
+        return new BooleanNode()
+        {
+            @Override
+            protected boolean test( EvaluationContext context )
+            {
+                return hasValue( variableName, context.valueMap() );
+            }
+        };
+    }
 }
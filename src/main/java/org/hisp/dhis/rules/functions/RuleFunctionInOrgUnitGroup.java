@@ -30,7 +30,11 @@ package org.hisp.dhis.rules.functions;
 
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
 import org.hisp.dhis.rules.RuleVariableValue;
+import org.hisp.dhis.rules.parser.expression.BooleanNode;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.List;
@@ -45,20 +49,23 @@ public class RuleFunctionInOrgUnitGroup
     @Override
     public Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        Map<String, RuleVariableValue> valueMap = visitor.getValueMap();
-        Map<String, List<String>> supplementaryData = visitor.getSupplementaryData();
+        return String.valueOf( inOrgUnitGroup( visitor.castStringVisit( ctx.expr( 0 ) ), visitor.getValueMap(),
+            visitor.getSupplementaryData() ) );
+    }
 
-        String value = visitor.castStringVisit( ctx.expr( 0 ) );
+    private boolean inOrgUnitGroup( String value, Map<String, RuleVariableValue> valueMap,
+        Map<String, List<String>> supplementaryData )
+    {
         if ( !valueMap.containsKey( "org_unit" ) || !supplementaryData.containsKey( value ) )
         {
-            return String.valueOf( false );
+            return false;
         }
 
         String orgUnit = valueMap.get( "org_unit" ).value().replace( "'", "" );
 
         List<String> members = supplementaryData.get( value );
 
-        return String.valueOf( members.contains( orgUnit ) );
+        return members.contains( orgUnit );
     }
 
     @Override
@@ -67,4 +74,20 @@ public class RuleFunctionInOrgUnitGroup
         visitor.visit( ctx.expr( 0 ) );
         return CommonExpressionVisitor.DEFAULT_BOOLEAN_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode argument = compiler.compile( ctx.expr( 0 ) );
+
+        return new BooleanNode()
+        {
+            @Override
+            protected boolean test( EvaluationContext context )
+            {
+                return inOrgUnitGroup( argument.evaluateString( context ), context.valueMap(),
+                    context.supplementaryData() );
+            }
+        };
+    }
 }
@@ -30,6 +30,9 @@ package org.hisp.dhis.rules.functions;
 
 import org.hisp.dhis.rules.RuleVariableValue;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Map;
@@ -46,14 +49,17 @@ public class RuleFunctionLastEventDate
     @Override
     public Object evaluate( ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        Map<String, RuleVariableValue> valueMap = visitor.getValueMap();
+        return lastEventDate( visitor.castStringVisit( ctx.expr( 0 ) ), visitor.getValueMap() );
+    }
 
-        if ( !valueMap.containsKey( visitor.castStringVisit( ctx.expr( 0 ) ) ) )
+    private String lastEventDate( String variableName, Map<String, RuleVariableValue> valueMap )
+    {
+        if ( !valueMap.containsKey( variableName ) )
         {
             return "";
         }
 
-        RuleVariableValue variableValue = valueMap.get( visitor.castStringVisit( ctx.expr( 0 ) ) );
+        RuleVariableValue variableValue = valueMap.get( variableName );
 
         return wrap( variableValue.eventDate() );
     }
@@ -64,4 +70,19 @@ public class RuleFunctionLastEventDate
         visitor.visit( ctx.expr( 0 ) );
         return CommonExpressionVisitor.DEFAULT_DATE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode argument = compiler.compile( ctx.expr( 0 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                return lastEventDate( argument.evaluateString( context ), context.valueMap() );
+            }
+        };
+    }
 }
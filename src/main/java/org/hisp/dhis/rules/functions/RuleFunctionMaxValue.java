@@ -32,6 +32,9 @@ import com.google.common.collect.Lists;
 import org.hisp.dhis.rules.RuleExpression;
 import org.hisp.dhis.rules.RuleVariableValue;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Collections;
@@ -81,4 +84,19 @@ public class RuleFunctionMaxValue
         getProgramArgType( ctx ).getDescription( ctx, visitor );
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final String variableName = RuleExpression.getProgramRuleVariable( ctx );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                return getMaxValue( variableName, context.valueMap() );
+            }
+        };
+    }
 }
@@ -29,6 +29,9 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import static org.apache.commons.lang3.math.NumberUtils.toDouble;
@@ -56,4 +59,22 @@ public class RuleFunctionModulus
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode dividend = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode divisor = compiler.compile( ctx.expr( 1 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                return String.format( "%.1f",
+                    toDouble( dividend.evaluateString( context ), 0.0 ) %
+                        toDouble( divisor.evaluateString( context ), 0.0 ) );
+            }
+        };
+    }
 }
@@ -30,7 +30,11 @@ package org.hisp.dhis.rules.functions;
 
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
@@ -65,4 +69,31 @@ public class RuleFunctionRight
 
         return "sample_right_string_value";
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode input = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode chars = compiler.compile( ctx.expr( 1 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                double doubleValue = chars.valueType() == ItemValueType.NUMBER
+                    ? chars.evaluateNumber( context ) : castDouble( chars.evaluateString( context ) );
+                int numberOfChars = (int) doubleValue;
+
+                if ( doubleValue % 1 != 0 )
+                {
+                    throw new IllegalArgumentException( "Number has to be an integer" );
+                }
+
+                String reversed = StringUtils.reverse( input.evaluateString( context ) );
+
+                return wrap( StringUtils.reverse( StringUtils.substring( reversed, 0, numberOfChars ) ) );
+            }
+        };
+    }
 }
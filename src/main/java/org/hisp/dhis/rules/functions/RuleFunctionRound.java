@@ -29,7 +29,12 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import static org.apache.commons.lang3.math.NumberUtils.toDouble;
@@ -53,4 +58,22 @@ public class RuleFunctionRound
         visitor.castDoubleVisit( ctx.expr( 0 ) );
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode argument = compiler.compile( ctx.expr( 0 ) );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                double value = argument.valueType() == ItemValueType.NUMBER
+                    ? argument.evaluateNumber( context ) : toDouble( argument.evaluateString( context ), 0.0 );
+
+                return Math.round( value );
+            }
+        };
+    }
 }
@@ -29,7 +29,11 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.Arrays;
@@ -78,4 +82,40 @@ public class RuleFunctionSplit
 
         return "sample_text";
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode inputArgument = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode delimiterArgument = compiler.compile( ctx.expr( 1 ) );
+        final ExprNode indexArgument = compiler.compile( ctx.expr( 2 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                String input = inputArgument.evaluateString( context );
+                String delimiter = delimiterArgument.evaluateString( context );
+
+                if ( input == null || delimiter == null )
+                {
+                    return "";
+                }
+
+                int index = indexArgument.valueType() == ItemValueType.NUMBER
+                    ? (int) indexArgument.evaluateNumber( context )
+                    : castDouble( indexArgument.evaluateString( context ) ).intValue();
+
+                List<String> tokens = Arrays.asList( StringUtils.split( input, delimiter ) );
+
+                if ( tokens.size() > index && index >= 0 )
+                {
+                    return RuleFunction.wrap( tokens.get( index ) );
+                }
+
+                return "";
+            }
+        };
+    }
 }
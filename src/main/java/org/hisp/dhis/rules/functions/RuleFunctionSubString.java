@@ -29,7 +29,11 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
@@ -62,4 +66,36 @@ public class RuleFunctionSubString
 
         return "sample_substring";
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode input = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode start = compiler.compile( ctx.expr( 1 ) );
+        final ExprNode end = compiler.compile( ctx.expr( 2 ) );
+
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                String originalString = input.evaluateString( context );
+
+                return StringUtils.substring(
+                    originalString == null ? "" : originalString,
+                    index( start, context ),
+                    index( end, context ) );
+            }
+        };
+    }
+
+    private static int index( ExprNode argument, EvaluationContext context )
+    {
+        if ( argument.valueType() == ItemValueType.NUMBER )
+        {
+            return (int) argument.evaluateNumber( context );
+        }
+
+        return castDouble( argument.evaluateString( context ) ).intValue();
+    }
 }
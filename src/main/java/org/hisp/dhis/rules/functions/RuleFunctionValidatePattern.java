@@ -29,7 +29,11 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.rules.parser.expression.BooleanNode;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.regex.Matcher;
@@ -66,4 +70,26 @@ public class RuleFunctionValidatePattern
 
         return CommonExpressionVisitor.DEFAULT_BOOLEAN_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode inputArgument = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode regexArgument = compiler.compile( ctx.expr( 1 ) );
+
+        return new BooleanNode()
+        {
+            @Override
+            protected boolean test( EvaluationContext context )
+            {
+                String input = inputArgument.evaluateString( context );
+                String regex = regexArgument.evaluateString( context );
+
+                Pattern pattern = Pattern.compile( regex );
+                Matcher matcher = pattern.matcher( input );
+
+                return matcher.matches();
+            }
+        };
+    }
 }
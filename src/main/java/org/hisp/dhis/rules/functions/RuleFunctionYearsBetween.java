@@ -31,7 +31,12 @@ package org.hisp.dhis.rules.functions;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
 import org.hisp.dhis.rules.models.TimeInterval;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
+import org.hisp.dhis.rules.utils.EpochDays;
 import org.joda.time.Years;
 
 import static org.hisp.dhis.antlr.AntlrParserUtils.castDate;
@@ -70,4 +75,34 @@ public class RuleFunctionYearsBetween
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final ExprNode start = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode end = compiler.compile( ctx.expr( 1 ) );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                int startDay = start.evaluateEpochDay( context );
+                int endDay = end.evaluateEpochDay( context );
+
+                if ( startDay == EpochDays.INVALID || endDay == EpochDays.INVALID )
+                {
+                    return yearsBetween( start.evaluateString( context ), end.evaluateString( context ) );
+                }
+
+                if ( startDay == EpochDays.EMPTY || endDay == EpochDays.EMPTY )
+                {
+                    return 0;
+                }
+
+                return Years.yearsBetween( EpochDays.toLocalDate( startDay ), EpochDays.toLocalDate( endDay ) )
+                    .getYears();
+            }
+        };
+    }
 }
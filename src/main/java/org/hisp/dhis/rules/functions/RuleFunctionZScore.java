@@ -28,18 +28,26 @@ package org.hisp.dhis.rules.functions;
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.Sets;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import static org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
 
@@ -52,6 +60,20 @@ public abstract class RuleFunctionZScore
     private static final Set<String> GENDER_CODES = Sets.newHashSet( "male", "MALE", "Male", "ma", "m", "M", "0",
         "false" );
 
+    /**
+     * Children of a cohort given to each task of an executor.
+     */
+    static final int COHORT_CHUNK = 4096;
+
+    private static final ThreadLocal<DecimalFormat> DECIMAL_FORMAT = new ThreadLocal<DecimalFormat>()
+    {
+        @Override
+        protected DecimalFormat initialValue()
+        {
+            return getDecimalFormat();
+        }
+    };
+
     protected static DecimalFormat getDecimalFormat()
     {
         DecimalFormatSymbols decimalFormatSymbols = DecimalFormatSymbols.getInstance();
@@ -106,76 +128,219 @@ public abstract class RuleFunctionZScore
 
     public abstract Map<ZScoreTableKey, Map<Float, Integer>> getTableForBoy();
 
-    private String getZScore( float parameter, float weight, byte gender )
+    @Nullable
+    private final ZScoreData.Table girlTable;
+
+    @Nullable
+    private final ZScoreData.Table boyTable;
+
+    /**
+     * Built on first use, so that the reference data of unused functions is
+     * never loaded. Building it twice from two threads is harmless.
+     */
+    private volatile ZScoreRows rows;
+
+    /**
+     * Looks up z-scores in the tables of {@link #getTableForGirl()} and
+     * {@link #getTableForBoy()}.
+     */
+    protected RuleFunctionZScore()
+    {
+        this( null, null );
+    }
+
+    /**
+     * Looks up z-scores in the given tables of the reference data.
+     */
+    RuleFunctionZScore( @Nullable ZScoreData.Table girlTable, @Nullable ZScoreData.Table boyTable )
+    {
+        this.girlTable = girlTable;
+        this.boyTable = boyTable;
+    }
+
+    private ZScoreRows rows()
+    {
+        ZScoreRows zScoreRows = rows;
+
+        if ( zScoreRows == null )
+        {
+            zScoreRows = girlTable == null || boyTable == null
+                ? ZScoreRows.fromTables( getTableForGirl(), getTableForBoy() )
+                : new ZScoreRows( ZScoreData.rows( girlTable ), ZScoreData.rows( boyTable ) );
+            rows = zScoreRows;
+        }
+
+        return zScoreRows;
+    }
+
+    /**
+     * Computes the z-scores of a cohort in one loop, without formatting them.
+     * The z-score of child i is written to {@code zScores[i]}. It is the
+     * value the d2 function returns, before that value is rounded to two
+     * decimals: an SD for a weight equal to an SD value, 3.5 or -3.5 beyond
+     * 3SD or -3SD. It is NaN if the tables have no row for the parameter and
+     * gender or if the weight is NaN.
+     *
+     * @param parameters the age in months, or height in cm, of each child.
+     * @param weights    the weight, or height, of each child.
+     * @param genders    the gender of each child, 0 for male and any other
+     *                   value for female.
+     * @param zScores    receives the z-score of each child.
+     */
+    public void zScores( @Nonnull float[] parameters, @Nonnull float[] weights, @Nonnull byte[] genders,
+        @Nonnull float[] zScores )
     {
-        ZScoreTableKey key = new ZScoreTableKey( gender, parameter );
+        checkCohort( parameters, weights, genders, zScores );
 
-        Map<Float, Integer> sdMap;
+        zScores( parameters, weights, genders, zScores, 0, parameters.length );
+    }
+
+    /**
+     * Computes the z-scores of a cohort as
+     * {@link #zScores(float[], float[], byte[], float[])} does, in chunks of
+     * {@value #COHORT_CHUNK} children evaluated on the executor. The first
+     * chunk is evaluated on the calling thread.
+     */
+    public void zScores( @Nonnull final float[] parameters, @Nonnull final float[] weights,
+        @Nonnull final byte[] genders, @Nonnull final float[] zScores, @Nonnull ExecutorService executorService )
+    {
+        checkCohort( parameters, weights, genders, zScores );
 
-        // Female
-        if ( gender == 1 )
+        if ( executorService == null )
         {
-            if ( getTableForGirl().get( key ) != null )
+            throw new IllegalArgumentException( "executorService == null" );
+        }
+
+        List<Future<?>> futures = new ArrayList<>();
+
+        try
+        {
+            for ( int start = COHORT_CHUNK; start < parameters.length; start += COHORT_CHUNK )
             {
-                sdMap = getTableForGirl().get( key );
+                final int from = start;
+                final int to = Math.min( start + COHORT_CHUNK, parameters.length );
+
+                futures.add( executorService.submit( new Runnable()
+                {
+                    @Override
+                    public void run()
+                    {
+                        zScores( parameters, weights, genders, zScores, from, to );
+                    }
+                } ) );
             }
-            else
+
+            zScores( parameters, weights, genders, zScores, 0, Math.min( COHORT_CHUNK, parameters.length ) );
+
+            for ( Future<?> future : futures )
             {
-                sdMap = new HashMap<Float, Integer>();
+                future.get();
             }
         }
-        else
+        catch ( InterruptedException e )
         {
-            if ( getTableForBoy().get( key ) != null )
-            {
-                sdMap = getTableForBoy().get( key );
-            }
-            else
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while computing z-scores", e );
+        }
+        catch ( ExecutionException e )
+        {
+            Throwables.propagateIfPossible( e.getCause() );
+            throw new IllegalStateException( e.getCause() );
+        }
+        finally
+        {
+            for ( Future<?> future : futures )
             {
-                sdMap = new HashMap<Float, Integer>();
+                future.cancel( true );
             }
         }
+    }
+
+    private void zScores( float[] parameters, float[] weights, byte[] genders, float[] zScores, int from, int to )
+    {
+        ZScoreRows zScoreRows = rows();
 
-        if ( sdMap.isEmpty() )
+        for ( int i = from; i < to; i++ )
         {
-            throw new IllegalArgumentException( "No key exist for provided parameters" );
+            float[] row = zScoreRows.row( genders[i] == 0 ? (byte) 0 : (byte) 1, parameters[i] );
+
+            zScores[i] = row == null ? Float.NaN : zScore( row, weights[i] );
         }
+    }
 
-        int multiplicationFactor = getMultiplicationFactor( sdMap, weight );
+    private static void checkCohort( float[] parameters, float[] weights, byte[] genders, float[] zScores )
+    {
+        if ( parameters == null || weights == null || genders == null || zScores == null )
+        {
+            throw new IllegalArgumentException( "Cohort arrays cannot be null" );
+        }
 
-        // weight exactly matches with any of the SD values
-        if ( sdMap.containsKey( weight ) )
+        if ( weights.length != parameters.length || genders.length != parameters.length ||
+            zScores.length != parameters.length )
+        {
+            throw new IllegalArgumentException( "Cohort arrays must have the same length" );
+        }
+    }
+
+    private String getZScore( float parameter, float weight, byte gender )
+    {
+        float[] row = rows().row( gender, parameter );
+
+        if ( row == null )
         {
-            int sd = sdMap.get( weight );
+            throw new IllegalArgumentException( "No key exist for provided parameters" );
+        }
 
-            return String.valueOf( sd * multiplicationFactor );
+        if ( Float.isNaN( weight ) )
+        {
+            throw new IllegalArgumentException( "Weight is not a number" );
         }
 
-        // weight is beyond -3SD or 3SD
-        if ( weight > Collections.max( sdMap.keySet() ) )
+        // weight exactly matches with any of the SD values, or is beyond -3SD or 3SD
+        if ( Arrays.binarySearch( row, weight ) >= 0 )
         {
-            return String.valueOf( 3.5 );
+            return String.valueOf( (int) zScore( row, weight ) );
         }
-        else if ( weight < Collections.min( sdMap.keySet() ) )
+        else if ( weight > row[row.length - 1] || weight < row[0] )
         {
-            return String.valueOf( -3.5 );
+            return String.valueOf( (double) zScore( row, weight ) );
         }
 
-        float lowerLimitX = 0, higherLimitY = 0;
+        return String.valueOf( DECIMAL_FORMAT.get().format( zScore( row, weight ) ) );
+    }
 
-        // find the interval
-        for ( float f : sortKeySet( sdMap ) )
+    private static float zScore( float[] row, float weight )
+    {
+        if ( Float.isNaN( weight ) )
         {
-            if ( weight > f )
-            {
-                lowerLimitX = f;
-                continue;
-            }
+            return Float.NaN;
+        }
 
-            higherLimitY = f;
-            break;
+        float median = row[ZScoreRows.MEDIAN];
+        int multiplicationFactor = Float.compare( weight, median );
+        int index = Arrays.binarySearch( row, weight );
+
+        // weight exactly matches with any of the SD values
+        if ( index >= 0 )
+        {
+            return ZScoreRows.sd( index ) * multiplicationFactor;
         }
 
+        // weight is beyond -3SD or 3SD
+        if ( weight > row[row.length - 1] )
+        {
+            return 3.5f;
+        }
+        else if ( weight < row[0] )
+        {
+            return -3.5f;
+        }
+
+        // find the interval
+        int higher = -index - 1;
+        int lower = higher - 1;
+        float lowerLimitX = row[lower], higherLimitY = row[higher];
+
         float distance = higherLimitY - lowerLimitX;
 
         float gap;
@@ -184,46 +349,58 @@ public abstract class RuleFunctionZScore
 
         float result;
 
-        if ( weight > findMedian( sdMap ) )
+        if ( weight > median )
         {
             gap = weight - lowerLimitX;
             decimalAddition = gap / distance;
-            result = sdMap.get( lowerLimitX ) + decimalAddition;
+            result = ZScoreRows.sd( lower ) + decimalAddition;
         }
         else
         {
             gap = higherLimitY - weight;
             decimalAddition = gap / distance;
-            result = sdMap.get( higherLimitY ) + decimalAddition;
+            result = ZScoreRows.sd( higher ) + decimalAddition;
         }
 
-        result = result * multiplicationFactor;
-
-        return String.valueOf( getDecimalFormat().format( result ) );
+        return result * multiplicationFactor;
     }
 
-    private int getMultiplicationFactor( Map<Float, Integer> sdMap, float weight )
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
     {
-        float median = findMedian( sdMap );
+        final ExprNode parameterArgument = compiler.compile( ctx.expr( 0 ) );
+        final ExprNode weightArgument = compiler.compile( ctx.expr( 1 ) );
+        final ExprNode genderArgument = compiler.compile( ctx.expr( 2 ) );
 
-        return Float.compare( weight, median );
-    }
-
-    private float findMedian( Map<Float, Integer> sdMap )
-    {
-        List<Float> sortedList = sortKeySet( sdMap );
+        return new ExprNode()
+        {
+            @Override
+            public Object evaluate( EvaluationContext context )
+            {
+                String genderParameter = genderArgument.evaluateString( context );
 
-        return sortedList.get( 3 );
-    }
+                if ( genderParameter == null )
+                {
+                    throw new IllegalArgumentException( "Gender cannot be null" );
+                }
 
-    private List<Float> sortKeySet( Map<Float, Integer> sdMap )
-    {
-        Set<Float> keySet = sdMap.keySet();
+                byte gender = GENDER_CODES.contains( genderParameter ) ? (byte) 0 : (byte) 1;
 
-        List<Float> list = new ArrayList<>( keySet );
+                float parameter;
+                float weight;
 
-        Collections.sort( list );
+                try
+                {
+                    parameter = Float.parseFloat( parameterArgument.evaluateString( context ) );
+                    weight = Float.parseFloat( weightArgument.evaluateString( context ) );
+                }
+                catch ( NumberFormatException ex )
+                {
+                    throw new IllegalArgumentException( "Byte parsing failed" );
+                }
 
-        return list;
+                return getZScore( parameter, weight, gender );
+            }
+        };
     }
 }
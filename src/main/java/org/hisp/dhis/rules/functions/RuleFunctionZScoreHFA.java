@@ -38,10 +38,10 @@ public class RuleFunctionZScoreHFA
 {
     public static final String D2_ZSCOREHFA = "d2:zScoreHFA";
 
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_GIRL = ZScoreTable
-        .getZscoreHFATableGirl();
-
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_BOY = ZScoreTable.getZscoreHFATableBoy();
+    public RuleFunctionZScoreHFA()
+    {
+        super( ZScoreData.Table.HFA_GIRL, ZScoreData.Table.HFA_BOY );
+    }
 
     public static RuleFunctionZScoreHFA create()
     {
@@ -51,12 +51,12 @@ public class RuleFunctionZScoreHFA
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForGirl()
     {
-        return ZSCORE_TABLE_GIRL;
+        return ZScoreTable.getZscoreHFATableGirl();
     }
 
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForBoy()
     {
-        return ZSCORE_TABLE_BOY;
+        return ZScoreTable.getZscoreHFATableBoy();
     }
 }
@@ -40,10 +40,10 @@ public class RuleFunctionZScoreWFA
 {
     public static final String D2_ZSCOREWFA = "d2:zScoreWFA";
 
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_GIRL = ZScoreTable
-        .getZscoreWFATableGirl();
-
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_BOY = ZScoreTable.getZscoreWFATableBoy();
+    public RuleFunctionZScoreWFA()
+    {
+        super( ZScoreData.Table.WFA_GIRL, ZScoreData.Table.WFA_BOY );
+    }
 
     public static RuleFunctionZScoreWFA create()
     {
@@ -53,12 +53,12 @@ public class RuleFunctionZScoreWFA
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForGirl()
     {
-        return ZSCORE_TABLE_GIRL;
+        return ZScoreTable.getZscoreWFATableGirl();
     }
 
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForBoy()
     {
-        return ZSCORE_TABLE_BOY;
+        return ZScoreTable.getZscoreWFATableBoy();
     }
 }
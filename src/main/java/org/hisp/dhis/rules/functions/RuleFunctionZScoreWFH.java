@@ -36,10 +36,10 @@ import java.util.Map;
 public class RuleFunctionZScoreWFH
     extends RuleFunctionZScore
 {
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_GIRL = ZScoreTable
-        .getZscoreWFHTableGirl();
-
-    private static final Map<ZScoreTableKey, Map<Float, Integer>> ZSCORE_TABLE_BOY = ZScoreTable.getZscoreWFHTableBoy();
+    public RuleFunctionZScoreWFH()
+    {
+        super( ZScoreData.Table.WFH_GIRL, ZScoreData.Table.WFH_BOY );
+    }
 
     public static RuleFunctionZScoreWFH create()
     {
@@ -49,12 +49,12 @@ public class RuleFunctionZScoreWFH
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForGirl()
     {
-        return ZSCORE_TABLE_GIRL;
+        return ZScoreTable.getZscoreWFHTableGirl();
     }
 
     @Override
     public Map<ZScoreTableKey, Map<Float, Integer>> getTableForBoy()
     {
-        return ZSCORE_TABLE_BOY;
+        return ZScoreTable.getZscoreWFHTableBoy();
     }
 }
@@ -29,7 +29,12 @@ package org.hisp.dhis.rules.functions;
  */
 
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+import org.hisp.dhis.rules.parser.expression.IntegerNode;
 import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
 
 import java.util.ArrayList;
@@ -65,4 +70,32 @@ public class RuleFunctionZpvc
 
         return CommonExpressionVisitor.DEFAULT_DOUBLE_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        final List<ExprNode> arguments = compiler.compileArguments( ctx );
+
+        return new IntegerNode()
+        {
+            @Override
+            protected long evaluateLong( EvaluationContext context )
+            {
+                int count = 0;
+
+                for ( ExprNode argument : arguments )
+                {
+                    double value = argument.valueType() == ItemValueType.NUMBER
+                        ? argument.evaluateNumber( context ) : Double.valueOf( argument.evaluateString( context ) );
+
+                    if ( value >= 0 )
+                    {
+                        count++;
+                    }
+                }
+
+                return count;
+            }
+        };
+    }
 }
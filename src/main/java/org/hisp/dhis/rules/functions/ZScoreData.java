@@ -0,0 +1,183 @@
+package org.hisp.dhis.rules.functions;
+
+/*
+ * Copyright (c) 2004-2018, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The WHO z-score reference data, read from the binary resource
+ * {@value #RESOURCE} one table at a time, the first time a table is used.
+ * <p>
+ * The resource starts with a header of big-endian ints: the magic number
+ * {@value #MAGIC}, the version {@value #VERSION}, the number of tables, then
+ * for each {@link Table} its number of rows and the offset of its first row.
+ * Each row is eight big-endian floats: the parameter, then the values of -3SD
+ * to 3SD in ascending order. Rows are sorted by parameter.
+ *
+ * @author Zubair Asghar.
+ */
+final class ZScoreData
+{
+    enum Table
+    {
+        WFA_GIRL, WFA_BOY, HFA_GIRL, HFA_BOY, WFH_GIRL, WFH_BOY
+    }
+
+    static final String RESOURCE = "zscore.bin";
+
+    static final int MAGIC = 0x5A534352;
+
+    static final int VERSION = 1;
+
+    static final int ROW_LENGTH = 8;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private static final AtomicReferenceArray<float[][]> TABLES =
+        new AtomicReferenceArray<>( Table.values().length );
+
+    private ZScoreData()
+    {
+        throw new AssertionError( "no instances" );
+    }
+
+    /**
+     * @return the rows of the table, each the parameter followed by the
+     * values of -3SD to 3SD. Loaded on first use, the same arrays after.
+     */
+    static float[][] rows( Table table )
+    {
+        float[][] rows = TABLES.get( table.ordinal() );
+
+        if ( rows == null )
+        {
+            // loading twice from two threads is harmless
+            rows = load( table );
+            TABLES.compareAndSet( table.ordinal(), null, rows );
+        }
+
+        return TABLES.get( table.ordinal() );
+    }
+
+    private static float[][] load( Table table )
+    {
+        try
+        {
+            return read( table );
+        }
+        catch ( IOException e )
+        {
+            throw new IllegalStateException( "Could not load z-score table " + table + " from " + RESOURCE, e );
+        }
+    }
+
+    /**
+     * Reads the header and the rows of the table only.
+     */
+    static float[][] read( Table table )
+        throws IOException
+    {
+        InputStream resource = ZScoreData.class.getResourceAsStream( RESOURCE );
+
+        if ( resource == null )
+        {
+            throw new IOException( "Resource not found" );
+        }
+
+        try ( DataInputStream in = new DataInputStream( resource ) )
+        {
+            ByteBuffer header = ByteBuffer.allocate( headerLength() );
+            in.readFully( header.array() );
+
+            int rowCount = rowCount( header, table );
+            int offset = offset( header, table );
+            int skip = offset - header.capacity();
+
+            if ( in.skipBytes( skip ) != skip )
+            {
+                throw new IOException( "Unexpected end of resource" );
+            }
+
+            ByteBuffer body = ByteBuffer.allocate( rowCount * ROW_LENGTH * 4 );
+            in.readFully( body.array() );
+
+            return rows( body, 0, rowCount );
+        }
+    }
+
+    private static float[][] rows( ByteBuffer buffer, int offset, int rowCount )
+    {
+        float[][] rows = new float[rowCount][ROW_LENGTH];
+
+        for ( int i = 0; i < rowCount; i++ )
+        {
+            for ( int j = 0; j < ROW_LENGTH; j++ )
+            {
+                rows[i][j] = buffer.getFloat( offset + (i * ROW_LENGTH + j) * 4 );
+            }
+        }
+
+        return rows;
+    }
+
+    private static int headerLength()
+    {
+        return (HEADER_LENGTH + 2 * Table.values().length) * 4;
+    }
+
+    private static int rowCount( ByteBuffer header, Table table )
+        throws IOException
+    {
+        checkHeader( header );
+
+        return header.getInt( (HEADER_LENGTH + 2 * table.ordinal()) * 4 );
+    }
+
+    private static int offset( ByteBuffer header, Table table )
+        throws IOException
+    {
+        checkHeader( header );
+
+        return header.getInt( (HEADER_LENGTH + 2 * table.ordinal() + 1) * 4 );
+    }
+
+    private static void checkHeader( ByteBuffer header )
+        throws IOException
+    {
+        if ( header.getInt( 0 ) != MAGIC || header.getInt( 4 ) != VERSION ||
+            header.getInt( 8 ) != Table.values().length )
+        {
+            throw new IOException( "Unexpected header" );
+        }
+    }
+}
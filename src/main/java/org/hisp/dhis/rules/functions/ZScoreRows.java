@@ -0,0 +1,153 @@
+package org.hisp.dhis.rules.functions;
+
+/*
+ * Copyright (c) 2004-2018, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * The SD values of z-score tables as sorted primitive rows, looked up by
+ * binary search without allocating. Each row holds the values of -3SD to
+ * 3SD in ascending order, so the SD of a value is its distance from the
+ * median at {@link #MEDIAN}.
+ *
+ * @author Zubair Asghar.
+ */
+final class ZScoreRows
+{
+    static final int MEDIAN = 3;
+
+    private static final int SD_COUNT = 2 * MEDIAN + 1;
+
+    /**
+     * Sorted parameters, indexed by gender.
+     */
+    private final float[][] parameters;
+
+    /**
+     * Rows of SD values, indexed by gender then by parameter.
+     */
+    private final float[][][] rows;
+
+    /**
+     * @param girlRows rows of {@link ZScoreData}, sorted by parameter.
+     * @param boyRows  rows of {@link ZScoreData}, sorted by parameter.
+     */
+    ZScoreRows( float[][] girlRows, float[][] boyRows )
+    {
+        this.parameters = new float[2][];
+        this.rows = new float[2][][];
+
+        // 1 = female, 0 = male
+        put( (byte) 0, boyRows );
+        put( (byte) 1, girlRows );
+    }
+
+    /**
+     * @return the rows of tables given as maps from key to SD value to SD.
+     */
+    static ZScoreRows fromTables( Map<ZScoreTableKey, Map<Float, Integer>> tableForGirl,
+        Map<ZScoreTableKey, Map<Float, Integer>> tableForBoy )
+    {
+        return new ZScoreRows( toRows( tableForGirl ), toRows( tableForBoy ) );
+    }
+
+    private static float[][] toRows( Map<ZScoreTableKey, Map<Float, Integer>> table )
+    {
+        SortedMap<Float, Map<Float, Integer>> sdMaps = new TreeMap<>();
+
+        for ( Map.Entry<ZScoreTableKey, Map<Float, Integer>> entry : table.entrySet() )
+        {
+            sdMaps.put( entry.getKey().getParameter(), entry.getValue() );
+        }
+
+        float[][] rows = new float[sdMaps.size()][];
+        int i = 0;
+
+        for ( Map.Entry<Float, Map<Float, Integer>> entry : sdMaps.entrySet() )
+        {
+            if ( entry.getValue().size() != SD_COUNT )
+            {
+                throw new IllegalArgumentException( "Expected " + SD_COUNT + " SD values for parameter " +
+                    entry.getKey() + " but got " + entry.getValue().size() );
+            }
+
+            float[] row = new float[SD_COUNT + 1];
+            int sd = 1;
+
+            for ( Float value : entry.getValue().keySet() )
+            {
+                row[sd++] = value;
+            }
+
+            row[0] = entry.getKey();
+            Arrays.sort( row, 1, row.length );
+
+            rows[i++] = row;
+        }
+
+        return rows;
+    }
+
+    private void put( byte gender, float[][] genderRows )
+    {
+        parameters[gender] = new float[genderRows.length];
+        rows[gender] = new float[genderRows.length][];
+
+        for ( int i = 0; i < genderRows.length; i++ )
+        {
+            parameters[gender][i] = genderRows[i][0];
+            rows[gender][i] = Arrays.copyOfRange( genderRows[i], 1, genderRows[i].length );
+        }
+    }
+
+    /**
+     * @return the SD values for the gender and parameter, ascending, or null
+     * if the table has no such row.
+     */
+    @Nullable
+    float[] row( byte gender, float parameter )
+    {
+        int index = Arrays.binarySearch( parameters[gender], parameter );
+
+        return index < 0 ? null : rows[gender][index];
+    }
+
+    /**
+     * @return the SD of the value at the given index of a row, without sign.
+     */
+    static int sd( int index )
+    {
+        return Math.abs( index - MEDIAN );
+    }
+}
@@ -0,0 +1,52 @@
+package org.hisp.dhis.rules.models;
+
+import java.util.List;
+
+/**
+ * Effects of an enrollment or event which appeared or disappeared after an
+ * update of a rule engine session.
+ */
+public class RuleEffectsChange
+{
+    private final TrackerObjectType trackerObjectType;
+
+    private final String trackerObjectUid;
+
+    private final List<RuleEffect> addedRuleEffects;
+
+    private final List<RuleEffect> removedRuleEffects;
+
+    public RuleEffectsChange( TrackerObjectType trackerObjectType, String trackerObjectUid,
+        List<RuleEffect> addedRuleEffects, List<RuleEffect> removedRuleEffects )
+    {
+        this.trackerObjectType = trackerObjectType;
+        this.trackerObjectUid = trackerObjectUid;
+        this.addedRuleEffects = addedRuleEffects;
+        this.removedRuleEffects = removedRuleEffects;
+    }
+
+    public TrackerObjectType getTrackerObjectType()
+    {
+        return trackerObjectType;
+    }
+
+    public String getTrackerObjectUid()
+    {
+        return trackerObjectUid;
+    }
+
+    public List<RuleEffect> getAddedRuleEffects()
+    {
+        return addedRuleEffects;
+    }
+
+    public List<RuleEffect> getRemovedRuleEffects()
+    {
+        return removedRuleEffects;
+    }
+
+    public boolean isEmpty()
+    {
+        return addedRuleEffects.isEmpty() && removedRuleEffects.isEmpty();
+    }
+}
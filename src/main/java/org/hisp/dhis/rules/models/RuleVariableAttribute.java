@@ -7,12 +7,9 @@ import org.hisp.dhis.rules.RuleVariableValueMapBuilder;
 
 import javax.annotation.Nonnull;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
-import static org.hisp.dhis.rules.Utils.dateFormat;
-
 @AutoValue
 public abstract class RuleVariableAttribute
     extends RuleVariable
@@ -44,7 +41,7 @@ public abstract class RuleVariableAttribute
             return valueMap;
         }
 
-        String currentDate = dateFormat.format( new Date() );
+        String currentDate = builder.currentDate().formatted();
 
         RuleVariableValue variableValue;
 
@@ -57,7 +54,7 @@ public abstract class RuleVariableAttribute
         }
         else
         {
-            variableValue = RuleVariableValue.create( this.trackedEntityAttributeType() );
+            variableValue = RuleVariableValue.create( this.trackedEntityAttributeType(), builder.currentDate() );
         }
 
         valueMap.put( this.name(), variableValue );
@@ -39,8 +39,6 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
-import static org.hisp.dhis.rules.Utils.dateFormat;
-
 /**
  * @author Zubair Asghar.
  */
@@ -70,7 +68,7 @@ public abstract class RuleVariableCalculatedValue
     {
         Map<String, RuleVariableValue> valueMap = Maps.newHashMap();
 
-        valueMap.put( this.name(), RuleVariableValue.create( this.calculatedValueType() ) );
+        valueMap.put( this.name(), RuleVariableValue.create( this.calculatedValueType(), builder.currentDate() ) );
         return valueMap;
     }
 }
@@ -42,11 +42,11 @@ public abstract class RuleVariableCurrentEvent
         {
             RuleDataValue value = currentEventValues.get( this.dataElement() );
             variableValue = RuleVariableValue.create( value.value(), this.dataElementType(),
-                Arrays.asList( value.value() ), getLastUpdateDate( Arrays.asList( value ) ) );
+                Arrays.asList( value.value() ), getLastUpdateDate( Arrays.asList( value ), builder.currentDate() ) );
         }
         else
         {
-            variableValue = RuleVariableValue.create( this.dataElementType() );
+            variableValue = RuleVariableValue.create( this.dataElementType(), builder.currentDate() );
         }
 
         valueMap.put( this.name(), variableValue );
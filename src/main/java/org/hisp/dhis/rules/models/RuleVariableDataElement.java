@@ -2,7 +2,7 @@ package org.hisp.dhis.rules.models;
 
 import javax.annotation.Nonnull;
 
-abstract class RuleVariableDataElement
+public abstract class RuleVariableDataElement
     extends RuleVariable
 {
 
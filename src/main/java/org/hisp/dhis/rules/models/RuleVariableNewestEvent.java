@@ -35,12 +35,12 @@ public abstract class RuleVariableNewestEvent
 
         if ( ruleDataValues == null || ruleDataValues.isEmpty() )
         {
-            valueMap.put( this.name(), RuleVariableValue.create( this.dataElementType() ) );
+            valueMap.put( this.name(), RuleVariableValue.create( this.dataElementType(), builder.currentDate() ) );
         }
         else
         {
             valueMap.put( this.name(), RuleVariableValue.create( ruleDataValues.get( 0 ).value(),
-                this.dataElementType(), Utils.values( ruleDataValues ), getLastUpdateDate( ruleDataValues ) ) );
+                this.dataElementType(), Utils.values( ruleDataValues ), getLastUpdateDate( ruleDataValues, builder.currentDate() ) ) );
         }
         return valueMap;
     }
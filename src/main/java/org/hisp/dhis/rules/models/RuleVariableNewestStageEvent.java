@@ -54,13 +54,13 @@ public abstract class RuleVariableNewestStageEvent
 
         if ( stageRuleDataValues.isEmpty() )
         {
-            valueMap.put( this.name(), RuleVariableValue.create( this.dataElementType() ) );
+            valueMap.put( this.name(), RuleVariableValue.create( this.dataElementType(), builder.currentDate() ) );
         }
         else
         {
             valueMap.put( this.name(), RuleVariableValue.create( stageRuleDataValues.get( 0 ).value(),
                 this.dataElementType(), Utils.values( stageRuleDataValues ),
-                getLastUpdateDate( stageRuleDataValues ) ) );
+                getLastUpdateDate( stageRuleDataValues, builder.currentDate() ) ) );
         }
 
         return valueMap;
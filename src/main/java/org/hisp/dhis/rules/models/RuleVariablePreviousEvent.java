@@ -48,7 +48,7 @@ public abstract class RuleVariablePreviousEvent
                 {
                     variableValue = RuleVariableValue.create( ruleDataValue.value(), this.dataElementType(),
                         Utils.values( ruleDataValues ),
-                        getLastUpdateDateForPrevious( ruleDataValues, builder.ruleEvent ) );
+                        getLastUpdateDateForPrevious( ruleDataValues, builder.ruleEvent, builder.currentDate() ) );
                     break;
                 }
             }
@@ -56,7 +56,7 @@ public abstract class RuleVariablePreviousEvent
 
         if ( variableValue == null )
         {
-            variableValue = RuleVariableValue.create( this.dataElementType() );
+            variableValue = RuleVariableValue.create( this.dataElementType(), builder.currentDate() );
         }
 
         valueMap.put( this.name(), variableValue );
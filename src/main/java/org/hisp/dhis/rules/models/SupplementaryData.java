@@ -7,6 +7,8 @@ import java.util.Map;
 
 import javax.annotation.Nullable;
 
+import org.hisp.dhis.rules.utils.IndexedList;
+
 public class SupplementaryData
 {
     private List<String> userRoles;
@@ -97,7 +99,9 @@ public class SupplementaryData
                 orgUnitGroups = new HashMap<>();
             }
 
-            return new SupplementaryData( userRoles, androidVersion, orgUnitGroups );
+            // membership of user roles and org unit groups is tested per rule and event
+            return new SupplementaryData( IndexedList.of( userRoles ), androidVersion,
+                IndexedList.indexValues( orgUnitGroups ) );
         }
     }
 }
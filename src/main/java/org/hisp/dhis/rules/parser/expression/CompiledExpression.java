@@ -0,0 +1,181 @@
+package org.hisp.dhis.rules.parser.expression;
+
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.ParserErrorListener;
+import org.hisp.dhis.antlr.ParserException;
+import org.hisp.dhis.parser.expression.antlr.ExpressionLexer;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * An expression which has been lexed, parsed and lowered into an
+ * {@link ExprNode} tree once, so that it can be evaluated any number of times
+ * without going through ANTLR again.
+ * <p>
+ * Expressions which fail to parse are kept as well, flagged as invalid
+ * together with the parser message, so they are never parsed a second time.
+ */
+public final class CompiledExpression
+{
+    private static final CompiledExpression EMPTY = new CompiledExpression( "", null, null,
+        Collections.<String>emptySet() );
+
+    private static final ExprNodeCompiler COMPILER = new ExprNodeCompiler( RuleEngineUtils.FUNCTIONS );
+
+    @Nonnull
+    private final String expression;
+
+    @Nullable
+    private final ExprNode root;
+
+    @Nullable
+    private final String errorMessage;
+
+    @Nullable
+    private final Set<String> variables;
+
+    private CompiledExpression( @Nonnull String expression, @Nullable ExprNode root,
+        @Nullable String errorMessage, @Nullable Set<String> variables )
+    {
+        this.expression = expression;
+        this.root = root;
+        this.errorMessage = errorMessage;
+        this.variables = variables;
+    }
+
+    /**
+     * Parses the given expression. Never throws on syntax errors, the returned
+     * instance is flagged as invalid instead.
+     *
+     * @param expression the expression to parse.
+     * @return the compiled expression.
+     */
+    @Nonnull
+    public static CompiledExpression compile( @Nullable String expression )
+    {
+        return compile( expression, COMPILER );
+    }
+
+    /**
+     * @param expression the expression to parse.
+     * @param compiler   the compiler lowering the parse tree.
+     * @return the compiled expression.
+     */
+    @Nonnull
+    public static CompiledExpression compile( @Nullable String expression, @Nonnull ExprNodeCompiler compiler )
+    {
+        if ( expression == null || expression.isEmpty() )
+        {
+            return EMPTY;
+        }
+
+        try
+        {
+            ParseTree parseTree = parse( expression );
+
+            return new CompiledExpression( expression, compiler.compile( parseTree ), null,
+                VariableReferences.collect( parseTree ) );
+        }
+        catch ( ParserException e )
+        {
+            // invalid expressions are never evaluated
+            return new CompiledExpression( expression, null, e.getMessage(), Collections.<String>emptySet() );
+        }
+    }
+
+    private static ParseTree parse( String expression )
+    {
+        ParserErrorListener errorListener = new ParserErrorListener();
+
+        ExpressionLexer lexer = new ExpressionLexer( CharStreams.fromString( expression ) );
+        lexer.removeErrorListeners();
+        lexer.addErrorListener( errorListener );
+
+        ExpressionParser parser = new ExpressionParser( new CommonTokenStream( lexer ) );
+        parser.removeErrorListeners();
+        parser.addErrorListener( errorListener );
+
+        return parser.expression();
+    }
+
+    @Nonnull
+    public String expression()
+    {
+        return expression;
+    }
+
+    /**
+     * @return the root of the compiled tree, or null if the expression is empty
+     * or invalid.
+     */
+    @Nullable
+    public ExprNode root()
+    {
+        return root;
+    }
+
+    /**
+     * @return the parser error message, or null if the expression is valid.
+     */
+    @Nullable
+    public String errorMessage()
+    {
+        return errorMessage;
+    }
+
+    /**
+     * @return the names of the variables the expression reads, or null if
+     * they are only known at evaluation.
+     */
+    @Nullable
+    public Set<String> variables()
+    {
+        return variables;
+    }
+
+    public boolean isEmpty()
+    {
+        return expression.isEmpty();
+    }
+
+    public boolean isValid()
+    {
+        return errorMessage == null;
+    }
+}
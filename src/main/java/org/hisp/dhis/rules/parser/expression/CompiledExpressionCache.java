@@ -0,0 +1,216 @@
+package org.hisp.dhis.rules.parser.expression;
+
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hisp.dhis.rules.RuleEngineInstrumentation;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the compiled form of rule conditions and action data, keyed by the
+ * expression string. Expressions of the rules given at construction time are
+ * compiled eagerly and kept for the life of the cache. Any other expression,
+ * such as those of the rules given to a single evaluation, is compiled on
+ * first use and kept among at most {@link #MAX_OTHER_EXPRESSIONS} others,
+ * so that a long-lived context does not grow without bounds. Safe for
+ * concurrent use.
+ * <p>
+ * When built with the names of the enrollment-invariant variables, the sub
+ * expressions of the rules reading only those are hoisted, see
+ * {@link ExprNodeCompiler}, and {@link #invariantValues()} holds their values
+ * for one enrollment. Other expressions are evaluated without invariant
+ * values, so they hoist nothing and take no slot.
+ */
+public final class CompiledExpressionCache
+{
+    private static final Log log = LogFactory.getLog( CompiledExpressionCache.class );
+
+    static final int MAX_OTHER_EXPRESSIONS = 1000;
+
+    /**
+     * Expressions of the rules of the context, never modified after
+     * construction.
+     */
+    @Nonnull
+    private final Map<String, CompiledExpression> ruleExpressions;
+
+    @Nonnull
+    private final Cache<String, CompiledExpression> otherExpressions = CacheBuilder.newBuilder()
+        .maximumSize( MAX_OTHER_EXPRESSIONS )
+        .build();
+
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
+    /**
+     * Compiles the expressions outside the rules, hoisting nothing.
+     */
+    @Nonnull
+    private final ExprNodeCompiler compiler = new ExprNodeCompiler( RuleEngineUtils.FUNCTIONS );
+
+    /**
+     * The number of sub expressions of the rules hoisted at construction.
+     */
+    private final int invariantSlots;
+
+    public CompiledExpressionCache( @Nonnull List<Rule> rules )
+    {
+        this( rules, null );
+    }
+
+    /**
+     * @param instrumentation reported each lookup after construction, if not
+     *                        null.
+     */
+    public CompiledExpressionCache( @Nonnull List<Rule> rules, @Nullable RuleEngineInstrumentation instrumentation )
+    {
+        this( rules, instrumentation, null );
+    }
+
+    /**
+     * @param instrumentation    reported each lookup after construction, if
+     *                           not null.
+     * @param invariantVariables the names of the variables with the same value
+     *                           for all events of an enrollment, or null to
+     *                           hoist no sub expression.
+     */
+    public CompiledExpressionCache( @Nonnull List<Rule> rules, @Nullable RuleEngineInstrumentation instrumentation,
+        @Nullable Set<String> invariantVariables )
+    {
+        ExprNodeCompiler ruleCompiler = new ExprNodeCompiler( RuleEngineUtils.FUNCTIONS, invariantVariables );
+        Map<String, CompiledExpression> ruleExpressions = new HashMap<>();
+
+        for ( Rule rule : rules )
+        {
+            compile( rule.condition(), ruleExpressions, ruleCompiler );
+
+            if ( rule.actions() != null )
+            {
+                for ( RuleAction action : rule.actions() )
+                {
+                    compile( action.data(), ruleExpressions, ruleCompiler );
+                }
+            }
+        }
+
+        this.ruleExpressions = ruleExpressions;
+        this.invariantSlots = ruleCompiler.slots();
+        this.instrumentation = instrumentation;
+    }
+
+    /**
+     * @param expression the expression to look up.
+     * @return the compiled expression, compiling and caching it if it has not
+     * been seen before.
+     */
+    @Nonnull
+    public CompiledExpression get( @Nullable String expression )
+    {
+        if ( expression == null || expression.isEmpty() )
+        {
+            return CompiledExpression.compile( expression );
+        }
+
+        CompiledExpression compiledExpression = ruleExpressions.get( expression );
+
+        if ( compiledExpression == null )
+        {
+            compiledExpression = otherExpressions.getIfPresent( expression );
+        }
+
+        if ( instrumentation != null )
+        {
+            instrumentation.expressionLookedUp( compiledExpression != null );
+        }
+
+        if ( compiledExpression == null )
+        {
+            compiledExpression = compile( expression, compiler );
+            CompiledExpression previous = otherExpressions.asMap().putIfAbsent( expression, compiledExpression );
+
+            if ( previous != null )
+            {
+                compiledExpression = previous;
+            }
+        }
+
+        return compiledExpression;
+    }
+
+    private static void compile( @Nullable String expression, Map<String, CompiledExpression> ruleExpressions,
+        ExprNodeCompiler ruleCompiler )
+    {
+        if ( expression != null && !expression.isEmpty() && !ruleExpressions.containsKey( expression ) )
+        {
+            ruleExpressions.put( expression, compile( expression, ruleCompiler ) );
+        }
+    }
+
+    @Nonnull
+    private static CompiledExpression compile( @Nonnull String expression, @Nonnull ExprNodeCompiler compiler )
+    {
+        CompiledExpression compiledExpression = CompiledExpression.compile( expression, compiler );
+
+        if ( !compiledExpression.isValid() )
+        {
+            log.warn( "Expression " + expression + " is invalid and will not be evaluated: " +
+                compiledExpression.errorMessage() );
+        }
+
+        return compiledExpression;
+    }
+
+    /**
+     * @return empty values for the sub expressions hoisted from the rules, to
+     * share between the evaluations of the events of one enrollment.
+     */
+    @Nonnull
+    public InvariantValues invariantValues()
+    {
+        return new InvariantValues( invariantSlots );
+    }
+
+    public int size()
+    {
+        return ruleExpressions.size() + (int) otherExpressions.size();
+    }
+}
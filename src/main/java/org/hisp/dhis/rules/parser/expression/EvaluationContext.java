@@ -0,0 +1,110 @@
+package org.hisp.dhis.rules.parser.expression;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.rules.RuleEngineInstrumentation;
+import org.hisp.dhis.rules.RuleVariableValue;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values an {@link ExprNode} tree is evaluated against.
+ */
+public final class EvaluationContext
+{
+    @Nonnull
+    private final Map<String, RuleVariableValue> valueMap;
+
+    private final Map<String, List<String>> supplementaryData;
+
+    @Nullable
+    private final RuleEngineInstrumentation instrumentation;
+
+    @Nullable
+    private final InvariantValues invariantValues;
+
+    public EvaluationContext( @Nonnull Map<String, RuleVariableValue> valueMap,
+        Map<String, List<String>> supplementaryData )
+    {
+        this( valueMap, supplementaryData, null );
+    }
+
+    public EvaluationContext( @Nonnull Map<String, RuleVariableValue> valueMap,
+        Map<String, List<String>> supplementaryData, @Nullable RuleEngineInstrumentation instrumentation )
+    {
+        this( valueMap, supplementaryData, instrumentation, null );
+    }
+
+    /**
+     * @param invariantValues the values of the hoisted sub expressions, shared
+     *                        with the other evaluations of the enrollment, or
+     *                        null to evaluate them each time.
+     */
+    public EvaluationContext( @Nonnull Map<String, RuleVariableValue> valueMap,
+        Map<String, List<String>> supplementaryData, @Nullable RuleEngineInstrumentation instrumentation,
+        @Nullable InvariantValues invariantValues )
+    {
+        this.valueMap = valueMap;
+        this.supplementaryData = supplementaryData;
+        this.instrumentation = instrumentation;
+        this.invariantValues = invariantValues;
+    }
+
+    @Nonnull
+    public Map<String, RuleVariableValue> valueMap()
+    {
+        return valueMap;
+    }
+
+    public Map<String, List<String>> supplementaryData()
+    {
+        return supplementaryData;
+    }
+
+    /**
+     * @return the instrumentation functions report to, or null.
+     */
+    @Nullable
+    public RuleEngineInstrumentation instrumentation()
+    {
+        return instrumentation;
+    }
+
+    /**
+     * @return the values of the hoisted sub expressions, or null.
+     */
+    @Nullable
+    public InvariantValues invariantValues()
+    {
+        return invariantValues;
+    }
+}
@@ -0,0 +1,107 @@
+package org.hisp.dhis.rules.parser.expression;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.rules.ItemValueType;
+import org.hisp.dhis.rules.utils.EpochDays;
+
+import javax.annotation.Nullable;
+
+import static org.hisp.dhis.antlr.AntlrParserUtils.castBoolean;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castString;
+
+/**
+ * A node of a compiled expression. The tree is built once by the
+ * {@link ExprNodeCompiler} and evaluated directly against the value map,
+ * without visiting the parse tree again.
+ * <p>
+ * Nodes are immutable and can be evaluated concurrently.
+ * <p>
+ * Nodes with a known {@link #valueType()} also evaluate to primitives, which
+ * lets numbers and dates flow between operators and functions without being
+ * formatted to strings and parsed back.
+ */
+public abstract class ExprNode
+{
+    /**
+     * @param context the values to evaluate against.
+     * @return the value of the node, with the same semantics as visiting the
+     * parse tree with a {@link CommonExpressionVisitor}.
+     */
+    public abstract Object evaluate( EvaluationContext context );
+
+    /**
+     * The type inferred at compile time. When {@link ItemValueType#NUMBER},
+     * {@link #evaluate} only returns a {@link Double} or an integer string, so
+     * {@link #evaluateNumber} can be used in its place; NaN is then only
+     * returned where {@link #evaluate} returns {@link Double#NaN}. When
+     * {@link ItemValueType#BOOLEAN}, {@link #evaluateBoolean} is never null.
+     *
+     * @return the type of the value, or null if only known at evaluation.
+     */
+    @Nullable
+    public ItemValueType valueType()
+    {
+        return null;
+    }
+
+    public String evaluateString( EvaluationContext context )
+    {
+        return castString( evaluate( context ) );
+    }
+
+    public double evaluateNumber( EvaluationContext context )
+    {
+        return castDouble( evaluate( context ) );
+    }
+
+    /**
+     * @return the value as epoch day, or {@link EpochDays#EMPTY} and
+     * {@link EpochDays#INVALID} when it is not a date.
+     */
+    public int evaluateEpochDay( EvaluationContext context )
+    {
+        return EpochDays.parse( evaluateString( context ) );
+    }
+
+    public Boolean evaluateBoolean( EvaluationContext context )
+    {
+        return castBoolean( evaluate( context ) );
+    }
+
+    /**
+     * Operators skip the remaining operands as soon as one of them is null
+     * or not a number, and return that value.
+     */
+    public static boolean isNullOrNaN( Object value )
+    {
+        return value == null || value instanceof Double && ((Double) value).isNaN();
+    }
+}
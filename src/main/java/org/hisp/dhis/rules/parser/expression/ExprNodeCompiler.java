@@ -0,0 +1,543 @@
+package org.hisp.dhis.rules.parser.expression;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.antlr.v4.runtime.tree.TerminalNode;
+import org.hisp.dhis.antlr.AntlrExprItem;
+import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
+import org.hisp.dhis.antlr.literal.DefaultLiteral;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.BooleanLiteralContext;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExpressionContext;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.NumericLiteralContext;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.StringLiteralContext;
+import org.hisp.dhis.rules.ItemValueType;
+import org.hisp.dhis.rules.RuleEngineInstrumentation;
+import org.hisp.dhis.rules.parser.expression.function.ScalarFunctionToEvaluate;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lowers a parse tree into a tree of {@link ExprNode}s. Each item of the
+ * function map compiles its own node through
+ * {@link ScalarFunctionToEvaluate#compile}, so the item lookup, the visitor
+ * dispatch and the operator wrappers are paid once here instead of on every
+ * evaluation.
+ * <p>
+ * Given the names of the variables which have the same value for all events
+ * of an enrollment, the largest sub expressions reading only those variables
+ * are hoisted: each gets a slot in the {@link InvariantValues} of the
+ * evaluation, and is evaluated once for all the evaluations sharing them.
+ */
+public final class ExprNodeCompiler
+{
+    private static final DefaultLiteral LITERAL = new DefaultLiteral();
+
+    private static final String D2_PREFIX = "d2:";
+
+    @Nonnull
+    private final Map<Integer, AntlrExprItem> itemMap;
+
+    @Nullable
+    private final Set<String> invariantVariables;
+
+    /**
+     * Compiles hoisted sub expressions, which are not hoisted again inside.
+     */
+    @Nullable
+    private final ExprNodeCompiler plainCompiler;
+
+    private final AtomicInteger slots = new AtomicInteger();
+
+    public ExprNodeCompiler( @Nonnull Map<Integer, AntlrExprItem> itemMap )
+    {
+        this( itemMap, null );
+    }
+
+    /**
+     * @param invariantVariables the names of the variables with the same value
+     *                           for all events of an enrollment, or null to
+     *                           hoist nothing.
+     */
+    public ExprNodeCompiler( @Nonnull Map<Integer, AntlrExprItem> itemMap,
+        @Nullable Set<String> invariantVariables )
+    {
+        this.itemMap = itemMap;
+        this.invariantVariables = invariantVariables;
+        this.plainCompiler = invariantVariables == null ? null : new ExprNodeCompiler( itemMap );
+    }
+
+    /**
+     * @return the number of slots given to the sub expressions hoisted so far.
+     */
+    public int slots()
+    {
+        return slots.get();
+    }
+
+    @Nonnull
+    public ExprNode compile( @Nonnull ParseTree parseTree )
+    {
+        if ( parseTree instanceof ExpressionContext )
+        {
+            return compile( ((ExpressionContext) parseTree).expr() );
+        }
+
+        if ( parseTree instanceof ExprContext )
+        {
+            return compile( (ExprContext) parseTree );
+        }
+
+        try
+        {
+            if ( parseTree instanceof NumericLiteralContext )
+            {
+                return new ConstantNode( LITERAL.getNumericLiteral( (NumericLiteralContext) parseTree ) );
+            }
+
+            if ( parseTree instanceof StringLiteralContext )
+            {
+                return new ConstantNode( LITERAL.getStringLiteral( (StringLiteralContext) parseTree ) );
+            }
+
+            if ( parseTree instanceof BooleanLiteralContext )
+            {
+                return new ConstantNode( LITERAL.getBooleanLiteral( (BooleanLiteralContext) parseTree ) );
+            }
+        }
+        catch ( RuntimeException e )
+        {
+            return new FailingNode( e );
+        }
+
+        if ( parseTree instanceof TerminalNode )
+        {
+            return new ConstantNode( parseTree.getText() );
+        }
+
+        List<ExprNode> children = new ArrayList<>();
+
+        for ( int i = 0; i < parseTree.getChildCount(); i++ )
+        {
+            children.add( compile( parseTree.getChild( i ) ) );
+        }
+
+        return new ChildrenNode( children );
+    }
+
+    @Nonnull
+    public ExprNode compile( @Nonnull ExprContext ctx )
+    {
+        if ( plainCompiler != null && isInvariant( ctx ) )
+        {
+            ExprNode node = plainCompiler.compile( ctx );
+
+            // reading a constant or a variable is as cheap as reading the slot
+            if ( node instanceof ConstantNode || node instanceof VariableNode )
+            {
+                return node;
+            }
+
+            return new HoistedNode( slots.getAndIncrement(), node );
+        }
+
+        if ( ctx.it != null )
+        {
+            AntlrExprItem item = itemMap.get( ctx.it.getType() );
+
+            if ( !(item instanceof ScalarFunctionToEvaluate) )
+            {
+                return new FailingNode( new ParserExceptionWithoutContext(
+                    "DataItem " + ctx.it.getText() + " not supported for this type of expression" ) );
+            }
+
+            try
+            {
+                ExprNode node = ((ScalarFunctionToEvaluate) item).compile( ctx, this );
+                String function = ctx.it.getText();
+
+                if ( function.startsWith( D2_PREFIX ) && function.endsWith( "(" ) )
+                {
+                    return new InstrumentedNode( function.substring( 0, function.length() - 1 ), node );
+                }
+
+                return node;
+            }
+            catch ( RuntimeException e )
+            {
+                // keep failing at evaluation time, where the exception is handled
+                return new FailingNode( e );
+            }
+        }
+
+        if ( ctx.expr().size() > 0 )
+        {
+            return compile( ctx.expr( 0 ) );
+        }
+
+        return compile( ctx.getChild( 0 ) );
+    }
+
+    /**
+     * @param ctx the function or operator context.
+     * @return the compiled arguments of the context, in order.
+     */
+    @Nonnull
+    public List<ExprNode> compileArguments( @Nonnull ExprContext ctx )
+    {
+        List<ExprNode> arguments = new ArrayList<>( ctx.expr().size() );
+
+        for ( ExprContext expr : ctx.expr() )
+        {
+            arguments.add( compile( expr ) );
+        }
+
+        return arguments;
+    }
+
+    /**
+     * @return true if the sub expression only reads enrollment-invariant
+     * variables.
+     */
+    private boolean isInvariant( ExprContext ctx )
+    {
+        Set<String> variables = VariableReferences.collect( ctx );
+
+        return variables != null && invariantVariables.containsAll( variables );
+    }
+
+    /**
+     * Stands for a sub expression which cannot be evaluated, and throws the
+     * same exception evaluation of the parse tree would have thrown.
+     */
+    private static final class FailingNode
+        extends ExprNode
+    {
+        private final RuntimeException exception;
+
+        FailingNode( RuntimeException exception )
+        {
+            this.exception = exception;
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            throw exception;
+        }
+    }
+
+    /**
+     * Generic rule context: evaluates all children and returns the value of
+     * the last one, as the default visitor does.
+     */
+    private static final class ChildrenNode
+        extends ExprNode
+    {
+        private final List<ExprNode> children;
+
+        ChildrenNode( List<ExprNode> children )
+        {
+            this.children = children;
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            Object result = null;
+
+            for ( ExprNode child : children )
+            {
+                result = child.evaluate( context );
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * A sub expression evaluated once per {@link InvariantValues}. Failed
+     * evaluations are not kept, so that each of them reports its failure.
+     * Without invariant values, the sub expression is evaluated each time.
+     */
+    private static final class HoistedNode
+        extends ExprNode
+    {
+        private final int slot;
+
+        private final ExprNode node;
+
+        HoistedNode( int slot, ExprNode node )
+        {
+            this.slot = slot;
+            this.node = node;
+        }
+
+        @Override
+        public ItemValueType valueType()
+        {
+            return node.valueType();
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            InvariantValues invariantValues = context.invariantValues();
+
+            if ( invariantValues == null )
+            {
+                return node.evaluate( context );
+            }
+
+            return value( invariantValues, context );
+        }
+
+        @Override
+        public String evaluateString( EvaluationContext context )
+        {
+            InvariantValues invariantValues = context.invariantValues();
+
+            if ( invariantValues == null )
+            {
+                return node.evaluateString( context );
+            }
+
+            return super.evaluateString( context );
+        }
+
+        @Override
+        public double evaluateNumber( EvaluationContext context )
+        {
+            InvariantValues invariantValues = context.invariantValues();
+
+            if ( invariantValues == null )
+            {
+                return node.evaluateNumber( context );
+            }
+
+            return super.evaluateNumber( context );
+        }
+
+        @Override
+        public int evaluateEpochDay( EvaluationContext context )
+        {
+            InvariantValues invariantValues = context.invariantValues();
+
+            if ( invariantValues == null )
+            {
+                return node.evaluateEpochDay( context );
+            }
+
+            return super.evaluateEpochDay( context );
+        }
+
+        @Override
+        public Boolean evaluateBoolean( EvaluationContext context )
+        {
+            InvariantValues invariantValues = context.invariantValues();
+
+            if ( invariantValues == null )
+            {
+                return node.evaluateBoolean( context );
+            }
+
+            return super.evaluateBoolean( context );
+        }
+
+        private Object value( InvariantValues invariantValues, EvaluationContext context )
+        {
+            Object value = invariantValues.get( slot );
+
+            if ( value == InvariantValues.MISSING )
+            {
+                value = node.evaluate( context );
+                invariantValues.set( slot, value );
+            }
+
+            return value;
+        }
+    }
+
+    /**
+     * Reports the evaluations of a d2 function to the instrumentation of the
+     * context, if any. The time of a function includes the time of the
+     * functions in its arguments.
+     */
+    private static final class InstrumentedNode
+        extends ExprNode
+    {
+        private final String function;
+
+        private final ExprNode node;
+
+        InstrumentedNode( String function, ExprNode node )
+        {
+            this.function = function;
+            this.node = node;
+        }
+
+        @Override
+        public ItemValueType valueType()
+        {
+            return node.valueType();
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            RuleEngineInstrumentation instrumentation = context.instrumentation();
+
+            if ( instrumentation == null )
+            {
+                return node.evaluate( context );
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                Object result = node.evaluate( context );
+                failed = false;
+                return result;
+            }
+            finally
+            {
+                instrumentation.functionEvaluated( function, System.nanoTime() - start, failed );
+            }
+        }
+
+        @Override
+        public String evaluateString( EvaluationContext context )
+        {
+            RuleEngineInstrumentation instrumentation = context.instrumentation();
+
+            if ( instrumentation == null )
+            {
+                return node.evaluateString( context );
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                String result = node.evaluateString( context );
+                failed = false;
+                return result;
+            }
+            finally
+            {
+                instrumentation.functionEvaluated( function, System.nanoTime() - start, failed );
+            }
+        }
+
+        @Override
+        public double evaluateNumber( EvaluationContext context )
+        {
+            RuleEngineInstrumentation instrumentation = context.instrumentation();
+
+            if ( instrumentation == null )
+            {
+                return node.evaluateNumber( context );
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                double result = node.evaluateNumber( context );
+                failed = false;
+                return result;
+            }
+            finally
+            {
+                instrumentation.functionEvaluated( function, System.nanoTime() - start, failed );
+            }
+        }
+
+        @Override
+        public int evaluateEpochDay( EvaluationContext context )
+        {
+            RuleEngineInstrumentation instrumentation = context.instrumentation();
+
+            if ( instrumentation == null )
+            {
+                return node.evaluateEpochDay( context );
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                int result = node.evaluateEpochDay( context );
+                failed = false;
+                return result;
+            }
+            finally
+            {
+                instrumentation.functionEvaluated( function, System.nanoTime() - start, failed );
+            }
+        }
+
+        @Override
+        public Boolean evaluateBoolean( EvaluationContext context )
+        {
+            RuleEngineInstrumentation instrumentation = context.instrumentation();
+
+            if ( instrumentation == null )
+            {
+                return node.evaluateBoolean( context );
+            }
+
+            long start = System.nanoTime();
+            boolean failed = true;
+
+            try
+            {
+                Boolean result = node.evaluateBoolean( context );
+                failed = false;
+                return result;
+            }
+            finally
+            {
+                instrumentation.functionEvaluated( function, System.nanoTime() - start, failed );
+            }
+        }
+    }
+}
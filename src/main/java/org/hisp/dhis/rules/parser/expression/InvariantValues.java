@@ -0,0 +1,91 @@
+package org.hisp.dhis.rules.parser.expression;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import javax.annotation.Nullable;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Values of the hoisted sub expressions of a {@link CompiledExpressionCache},
+ * shared by evaluations whose enrollment-invariant variables all have the same
+ * values, such as the events of one enrollment. Each value is computed by the
+ * first evaluation reaching it; concurrent evaluations may compute it again,
+ * which is harmless as they compute the same value.
+ */
+public final class InvariantValues
+{
+    /**
+     * Returned by {@link #get} for a value which has not been computed yet.
+     */
+    static final Object MISSING = new Object();
+
+    private static final Object NULL = new Object();
+
+    private final AtomicReferenceArray<Object> values;
+
+    InvariantValues( int size )
+    {
+        this.values = new AtomicReferenceArray<>( size );
+    }
+
+    int size()
+    {
+        return values.length();
+    }
+
+    /**
+     * @return the value of the slot, or {@link #MISSING}.
+     */
+    @Nullable
+    Object get( int slot )
+    {
+        if ( slot >= values.length() )
+        {
+            // compiled after this instance was created
+            return MISSING;
+        }
+
+        Object value = values.get( slot );
+
+        if ( value == null )
+        {
+            return MISSING;
+        }
+
+        return value == NULL ? null : value;
+    }
+
+    void set( int slot, @Nullable Object value )
+    {
+        if ( slot < values.length() )
+        {
+            values.set( slot, value == null ? NULL : value );
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.hisp.dhis.rules.parser.expression;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.hisp.dhis.antlr.literal.DefaultLiteral;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.ExprContext;
+import org.hisp.dhis.parser.expression.antlr.ExpressionParser.StringLiteralContext;
+import org.hisp.dhis.rules.RuleExpression;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Finds the names of the variables an expression reads from the value map:
+ * <code>#{}</code>, <code>A{}</code>, <code>V{}</code> and <code>C{}</code>
+ * items, and the variable arguments of the <code>d2:</code> functions.
+ */
+public final class VariableReferences
+{
+    private static final DefaultLiteral LITERAL = new DefaultLiteral();
+
+    private VariableReferences()
+    {
+    }
+
+    /**
+     * @param parseTree the parsed expression.
+     * @return the names of the variables read by the expression, or null if
+     * they are only known at evaluation, as for <code>d2:lastEventDate</code>
+     * with a computed argument.
+     */
+    @Nullable
+    public static Set<String> collect( @Nonnull ParseTree parseTree )
+    {
+        Set<String> variables = new HashSet<>();
+
+        return collect( parseTree, variables ) ? variables : null;
+    }
+
+    private static boolean collect( ParseTree parseTree, Set<String> variables )
+    {
+        if ( parseTree instanceof ExprContext && !collect( (ExprContext) parseTree, variables ) )
+        {
+            return false;
+        }
+
+        for ( int i = 0; i < parseTree.getChildCount(); i++ )
+        {
+            if ( !collect( parseTree.getChild( i ), variables ) )
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean collect( ExprContext ctx, Set<String> variables )
+    {
+        if ( ctx.programRuleVariableName() != null || ctx.programRuleStringVariableName() != null ||
+            ctx.programVariable() != null || ctx.uid0 != null )
+        {
+            variables.add( RuleExpression.getProgramRuleVariable( ctx ) );
+
+            if ( ctx.programRuleVariableName() != null )
+            {
+                variables.add( ctx.programRuleVariableName().getText() );
+            }
+
+            if ( ctx.programVariable() != null )
+            {
+                variables.add( ctx.programVariable().getText() );
+            }
+
+            if ( ctx.uid0 != null )
+            {
+                variables.add( ctx.uid0.getText() );
+            }
+        }
+
+        if ( ctx.it == null )
+        {
+            return true;
+        }
+
+        switch ( ctx.it.getType() )
+        {
+        case ExpressionParser.D2_IN_ORG_UNIT_GROUP:
+            variables.add( RuleEngineUtils.ENV_VAR_OU );
+            return true;
+
+        case ExpressionParser.D2_LAST_EVENT_DATE:
+            String variable = stringLiteral( ctx.expr( 0 ) );
+
+            if ( variable == null )
+            {
+                return false;
+            }
+
+            variables.add( variable );
+            return true;
+
+        default:
+            return true;
+        }
+    }
+
+    @Nullable
+    private static String stringLiteral( @Nullable ExprContext ctx )
+    {
+        if ( ctx != null && ctx.it == null && ctx.getChildCount() == 1 &&
+            ctx.getChild( 0 ) instanceof StringLiteralContext )
+        {
+            Object literal = LITERAL.getStringLiteral( (StringLiteralContext) ctx.getChild( 0 ) );
+
+            return literal == null ? null : literal.toString();
+        }
+
+        return null;
+    }
+}
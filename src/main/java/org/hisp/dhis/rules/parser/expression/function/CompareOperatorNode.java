@@ -0,0 +1,155 @@
+package org.hisp.dhis.rules.parser.expression.function;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.hisp.dhis.antlr.InternalParserException;
+import org.hisp.dhis.rules.ItemValueType;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+
+import static org.hisp.dhis.antlr.AntlrParserUtils.castBoolean;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castString;
+
+/**
+ * Base of compiled comparison operators. The comparison follows the type of
+ * the left operand, as the ANTLR compare operators do. When the left operand
+ * is known to be a number, both operands are compared as primitives.
+ */
+public abstract class CompareOperatorNode
+    extends BinaryOperatorNode
+{
+    private final boolean numericLeft;
+
+    private final boolean numericRight;
+
+    protected CompareOperatorNode( ExprNode left, ExprNode right )
+    {
+        super( left, right );
+        this.numericLeft = left.valueType() == ItemValueType.NUMBER;
+        this.numericRight = right.valueType() == ItemValueType.NUMBER;
+    }
+
+    /**
+     * @param comparison the result of comparing the left with the right operand.
+     * @return the result of the operator.
+     */
+    protected abstract boolean test( int comparison );
+
+    @Override
+    public Object evaluate( EvaluationContext context )
+    {
+        if ( numericLeft )
+        {
+            return evaluateNumeric( context );
+        }
+
+        Object leftValue = left.evaluate( context );
+
+        if ( isNullOrNaN( leftValue ) )
+        {
+            return leftValue;
+        }
+
+        Object rightValue = right.evaluate( context );
+
+        if ( isNullOrNaN( rightValue ) )
+        {
+            return rightValue;
+        }
+
+        return test( compare( leftValue, rightValue ) );
+    }
+
+    private Object evaluateNumeric( EvaluationContext context )
+    {
+        double leftValue = left.evaluateNumber( context );
+
+        if ( Double.isNaN( leftValue ) )
+        {
+            return leftValue;
+        }
+
+        double rightValue;
+
+        if ( numericRight )
+        {
+            rightValue = right.evaluateNumber( context );
+
+            if ( Double.isNaN( rightValue ) )
+            {
+                return rightValue;
+            }
+        }
+        else
+        {
+            Object value = right.evaluate( context );
+
+            if ( isNullOrNaN( value ) )
+            {
+                return value;
+            }
+
+            rightValue = castDouble( value );
+        }
+
+        return test( Double.compare( leftValue, rightValue ) );
+    }
+
+    protected static int compare( Object o1, Object o2 )
+    {
+        if ( o1 == null || o2 == null )
+        {
+            throw new InternalParserException( "found null when comparing '" + o1 + "' with '" + o2 + "'" );
+        }
+
+        if ( o1 instanceof Double )
+        {
+            return ((Double) o1).compareTo( castDouble( o2 ) );
+        }
+
+        if ( o1 instanceof String && NumberUtils.isCreatable( (String) o1 ) )
+        {
+            return Double.valueOf( (String) o1 ).compareTo( castDouble( o2 ) );
+        }
+
+        if ( o1 instanceof String )
+        {
+            return ((String) o1).compareTo( castString( o2 ) );
+        }
+
+        if ( o1 instanceof Boolean )
+        {
+            return ((Boolean) o1).compareTo( castBoolean( o2 ) );
+        }
+
+        throw new InternalParserException( "trying to compare class " + o1.getClass().getName() );
+    }
+}
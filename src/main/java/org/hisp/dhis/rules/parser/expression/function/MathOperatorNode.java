@@ -0,0 +1,130 @@
+package org.hisp.dhis.rules.parser.expression.function;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.rules.ItemValueType;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+
+import java.math.BigDecimal;
+
+import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
+
+/**
+ * Base of compiled binary math operators. Operands which are known to be
+ * numbers are evaluated as primitives, all others are cast like the
+ * {@link org.hisp.dhis.antlr.AntlrExpressionVisitor} does.
+ */
+public abstract class MathOperatorNode
+    extends BinaryOperatorNode
+{
+    protected MathOperatorNode( ExprNode left, ExprNode right )
+    {
+        super( left, right );
+    }
+
+    /**
+     * @return the result of the operator, computed with {@link BigDecimal}.
+     */
+    protected abstract double compute( double leftValue, double rightValue );
+
+    @Override
+    public ItemValueType valueType()
+    {
+        return ItemValueType.NUMBER;
+    }
+
+    @Override
+    public Object evaluate( EvaluationContext context )
+    {
+        Object leftValue = left.evaluate( context );
+
+        if ( isNullOrNaN( leftValue ) )
+        {
+            return leftValue;
+        }
+
+        Object rightValue = right.evaluate( context );
+
+        if ( isNullOrNaN( rightValue ) )
+        {
+            return rightValue;
+        }
+
+        return compute( castDouble( leftValue ), castDouble( rightValue ) );
+    }
+
+    @Override
+    public double evaluateNumber( EvaluationContext context )
+    {
+        double leftValue = operand( left, context );
+
+        if ( Double.isNaN( leftValue ) )
+        {
+            return leftValue;
+        }
+
+        double rightValue = operand( right, context );
+
+        if ( Double.isNaN( rightValue ) )
+        {
+            return rightValue;
+        }
+
+        return compute( leftValue, rightValue );
+    }
+
+    /**
+     * @return the operand, where NaN means that evaluation stops with NaN.
+     */
+    static double operand( ExprNode node, EvaluationContext context )
+    {
+        if ( node.valueType() == ItemValueType.NUMBER )
+        {
+            return node.evaluateNumber( context );
+        }
+
+        Object value = node.evaluate( context );
+
+        if ( value instanceof Double )
+        {
+            return (Double) value;
+        }
+
+        double number = castDouble( value );
+
+        if ( Double.isNaN( number ) )
+        {
+            // text such as "NaN" fails as it does in BigDecimal, instead of stopping evaluation with NaN
+            throw new NumberFormatException( "Infinite or NaN" );
+        }
+
+        return number;
+    }
+}
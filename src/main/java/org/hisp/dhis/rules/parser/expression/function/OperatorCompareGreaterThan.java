@@ -33,6 +33,8 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorCompareGreaterThan;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  * Compare operator: greater than
@@ -41,10 +43,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorCompareGreaterThan extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorCompareGreaterThan OPERATOR = new AntlrOperatorCompareGreaterThan();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorCompareGreaterThan().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -52,4 +56,25 @@ public class OperatorCompareGreaterThan extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new GreaterThanNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class GreaterThanNode
+        extends CompareOperatorNode
+    {
+        GreaterThanNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected boolean test( int comparison )
+        {
+            return comparison > 0;
+        }
+    }
 }
@@ -33,6 +33,8 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorCompareGreaterThanOrEqual;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  * Compare operator: greater than or equal
@@ -41,10 +43,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorCompareGreaterThanOrEqual extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorCompareGreaterThanOrEqual OPERATOR = new AntlrOperatorCompareGreaterThanOrEqual();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorCompareGreaterThanOrEqual().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -52,4 +56,25 @@ public class OperatorCompareGreaterThanOrEqual extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new GreaterThanOrEqualNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class GreaterThanOrEqualNode
+        extends CompareOperatorNode
+    {
+        GreaterThanOrEqualNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected boolean test( int comparison )
+        {
+            return comparison >= 0;
+        }
+    }
 }
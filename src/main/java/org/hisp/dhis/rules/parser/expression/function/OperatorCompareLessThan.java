@@ -32,6 +32,8 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorCompareLessThan;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  * Compare operator: less than
@@ -40,10 +42,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorCompareLessThan extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorCompareLessThan OPERATOR = new AntlrOperatorCompareLessThan();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorCompareLessThan().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +55,25 @@ public class OperatorCompareLessThan extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
-}
\ No newline at end of file
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new LessThanNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class LessThanNode
+        extends CompareOperatorNode
+    {
+        LessThanNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected boolean test( int comparison )
+        {
+            return comparison < 0;
+        }
+    }
+}
@@ -32,6 +32,8 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorGroupingParentheses;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  * Operator to group using parentheses
@@ -40,10 +42,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorGroupingParentheses extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorGroupingParentheses OPERATOR = new AntlrOperatorGroupingParentheses();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorGroupingParentheses().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +55,13 @@ public class OperatorGroupingParentheses extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    /**
+     * Parentheses only group, so the compiled tree skips them.
+     */
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return compiler.compile( ctx.expr( 0 ) );
+    }
 }
@@ -31,6 +31,9 @@ package org.hisp.dhis.rules.parser.expression.function;
 import org.hisp.dhis.antlr.operator.AntlrOperatorLogicalAnd;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  *
@@ -38,10 +41,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorLogicalAnd extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorLogicalAnd OPERATOR = new AntlrOperatorLogicalAnd();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorLogicalAnd().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -52,4 +57,32 @@ public class OperatorLogicalAnd extends ScalarFunctionToEvaluate
 
         return CommonExpressionVisitor.DEFAULT_BOOLEAN_VALUE;
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new AndNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class AndNode
+        extends BinaryOperatorNode
+    {
+        AndNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            Boolean value = left.evaluateBoolean( context );
+
+            if ( value != null && value )
+            {
+                value = right.evaluateBoolean( context );
+            }
+
+            return value;
+        }
+    }
 }
@@ -32,6 +32,9 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorLogicalNot;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 
 /**
  *
@@ -39,10 +42,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorLogicalNot extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorLogicalNot OPERATOR = new AntlrOperatorLogicalNot();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorLogicalNot().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -50,4 +55,29 @@ public class OperatorLogicalNot extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
-}
\ No newline at end of file
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new NotNode( compiler.compile( ctx.expr( 0 ) ) );
+    }
+
+    private static final class NotNode
+        extends ExprNode
+    {
+        private final ExprNode operand;
+
+        NotNode( ExprNode operand )
+        {
+            this.operand = operand;
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            Boolean value = operand.evaluateBoolean( context );
+
+            return value == null ? null : !value;
+        }
+    }
+}
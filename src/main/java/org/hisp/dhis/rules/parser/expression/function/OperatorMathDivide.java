@@ -32,6 +32,11 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorMathDivide;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
 
 /**
  * Math operator: Divide
@@ -40,10 +45,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorMathDivide extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorMathDivide OPERATOR = new AntlrOperatorMathDivide();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorMathDivide().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +58,35 @@ public class OperatorMathDivide extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
-}
\ No newline at end of file
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new DivideNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class DivideNode
+        extends MathOperatorNode
+    {
+        private static final BigDecimal ZERO = BigDecimal.valueOf( 0.0 );
+
+        DivideNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected double compute( double leftValue, double rightValue )
+        {
+            BigDecimal numerator = BigDecimal.valueOf( leftValue );
+            BigDecimal denominator = BigDecimal.valueOf( rightValue );
+
+            if ( denominator.equals( ZERO ) )
+            {
+                return Double.NaN;
+            }
+
+            return numerator.divide( denominator, MathContext.DECIMAL64 ).doubleValue();
+        }
+    }
+}
@@ -31,7 +31,15 @@ package org.hisp.dhis.rules.parser.expression.function;
 import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorMathMinus;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
+import org.hisp.dhis.rules.ItemValueType;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+
+import java.math.BigDecimal;
+
+import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
 
 /**
  * Math operator: Minus
@@ -40,10 +48,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorMathMinus extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorMathMinus OPERATOR = new AntlrOperatorMathMinus();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorMathMinus().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +61,69 @@ public class OperatorMathMinus extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        if ( ctx.expr().size() == 1 )
+        {
+            return new UnaryMinusNode( compiler.compile( ctx.expr( 0 ) ) );
+        }
+
+        return new MinusNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class UnaryMinusNode
+        extends ExprNode
+    {
+        private final ExprNode operand;
+
+        UnaryMinusNode( ExprNode operand )
+        {
+            this.operand = operand;
+        }
+
+        @Override
+        public Object evaluate( EvaluationContext context )
+        {
+            Object value = operand.evaluate( context );
+
+            if ( isNullOrNaN( value ) )
+            {
+                return value;
+            }
+
+            return -castDouble( value );
+        }
+
+        @Override
+        public ItemValueType valueType()
+        {
+            return ItemValueType.NUMBER;
+        }
+
+        @Override
+        public double evaluateNumber( EvaluationContext context )
+        {
+            double value = operand.valueType() == ItemValueType.NUMBER
+                ? operand.evaluateNumber( context ) : castDouble( operand.evaluate( context ) );
+
+            return -value;
+        }
+    }
+
+    private static final class MinusNode
+        extends MathOperatorNode
+    {
+        MinusNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected double compute( double leftValue, double rightValue )
+        {
+            return BigDecimal.valueOf( leftValue ).subtract( BigDecimal.valueOf( rightValue ) ).doubleValue();
+        }
+    }
 }
@@ -32,6 +32,10 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorMathModulus;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+
+import java.math.BigDecimal;
 
 /**
  * Math operator: Modulus
@@ -40,10 +44,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorMathModulus extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorMathModulus OPERATOR = new AntlrOperatorMathModulus();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorMathModulus().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +57,35 @@ public class OperatorMathModulus extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new ModulusNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class ModulusNode
+        extends MathOperatorNode
+    {
+        private static final BigDecimal ZERO = BigDecimal.valueOf( 0.0 );
+
+        ModulusNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected double compute( double leftValue, double rightValue )
+        {
+            BigDecimal numerator = BigDecimal.valueOf( leftValue );
+            BigDecimal denominator = BigDecimal.valueOf( rightValue );
+
+            if ( denominator.equals( ZERO ) )
+            {
+                return Double.NaN;
+            }
+
+            return numerator.remainder( denominator ).doubleValue();
+        }
+    }
 }
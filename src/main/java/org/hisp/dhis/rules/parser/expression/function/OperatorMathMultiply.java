@@ -32,6 +32,10 @@ import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.operator.AntlrOperatorMathMultiply;
 import org.hisp.dhis.parser.expression.antlr.ExpressionParser;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
+
+import java.math.BigDecimal;
 
 /**
  * Math operator: Multiply
@@ -40,10 +44,12 @@ import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
  */
 public class OperatorMathMultiply extends ScalarFunctionToEvaluate
 {
+    private static final AntlrOperatorMathMultiply OPERATOR = new AntlrOperatorMathMultiply();
+
     @Override
     public Object evaluate( ExpressionParser.ExprContext ctx, CommonExpressionVisitor visitor )
     {
-        return new AntlrOperatorMathMultiply().evaluate( ctx, visitor );
+        return OPERATOR.evaluate( ctx, visitor );
     }
 
     @Override
@@ -51,4 +57,25 @@ public class OperatorMathMultiply extends ScalarFunctionToEvaluate
     {
         return evaluate( ctx, (AntlrExpressionVisitor) visitor );
     }
+
+    @Override
+    public ExprNode compile( ExpressionParser.ExprContext ctx, ExprNodeCompiler compiler )
+    {
+        return new MultiplyNode( compiler.compile( ctx.expr( 0 ) ), compiler.compile( ctx.expr( 1 ) ) );
+    }
+
+    private static final class MultiplyNode
+        extends MathOperatorNode
+    {
+        MultiplyNode( ExprNode left, ExprNode right )
+        {
+            super( left, right );
+        }
+
+        @Override
+        protected double compute( double leftValue, double rightValue )
+        {
+            return BigDecimal.valueOf( leftValue ).multiply( BigDecimal.valueOf( rightValue ) ).doubleValue();
+        }
+    }
 }
@@ -4,6 +4,8 @@ import org.hisp.dhis.antlr.AntlrExprItem;
 import org.hisp.dhis.antlr.AntlrExpressionVisitor;
 import org.hisp.dhis.antlr.ParserExceptionWithoutContext;
 import org.hisp.dhis.rules.parser.expression.CommonExpressionVisitor;
+import org.hisp.dhis.rules.parser.expression.ExprNode;
+import org.hisp.dhis.rules.parser.expression.ExprNodeCompiler;
 import org.hisp.dhis.rules.variables.ProgramRuleCustomVariable;
 import org.hisp.dhis.rules.variables.ProgramRuleVariable;
 
@@ -48,6 +50,16 @@ public abstract class ScalarFunctionToEvaluate
      */
     public abstract Object getDescription(  ExprContext ctx, CommonExpressionVisitor visitor );
 
+    /**
+     * Compiles the function into a node which evaluates it directly against
+     * the value map, with the same result as {@link #evaluate}.
+     *
+     * @param ctx      the expression context
+     * @param compiler the compiler to use for the arguments
+     * @return the compiled node
+     */
+    public abstract ExprNode compile( ExprContext ctx, ExprNodeCompiler compiler );
+
     protected ScalarFunctionToEvaluate getProgramArgType( ExprContext ctx )
     {
         if ( ctx.programVariable() != null )
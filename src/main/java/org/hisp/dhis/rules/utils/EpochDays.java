@@ -0,0 +1,300 @@
+package org.hisp.dhis.rules.utils;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.joda.time.LocalDate;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * Dates as days since 1970-01-01, so that date functions can pass them to each
+ * other as plain ints instead of formatting and parsing {@code yyyy-MM-dd}
+ * strings.
+ * <p>
+ * Only years 0000 to 9999 are represented. Anything else, and any text that
+ * is not a valid date, is reported as {@link #INVALID} so that callers can
+ * fall back to the Joda-Time based implementation and fail the same way.
+ * <p>
+ * All methods are thread safe and take no lock, unlike a shared
+ * {@link java.text.SimpleDateFormat}.
+ */
+public final class EpochDays
+{
+    /**
+     * Returned for null and empty text.
+     */
+    public static final int EMPTY = Integer.MIN_VALUE;
+
+    /**
+     * Returned for text which is not a date, or a date out of range.
+     */
+    public static final int INVALID = Integer.MIN_VALUE + 1;
+
+    private static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormat.forPattern( DATE_PATTERN );
+
+    private static final LocalDate EPOCH = new LocalDate( 1970, 1, 1 );
+
+    private static final int MIN_YEAR = 0;
+
+    private static final int MAX_YEAR = 9999;
+
+    private static final int MIN_EPOCH_DAY = of( MIN_YEAR, 1, 1 );
+
+    private static final int MAX_EPOCH_DAY = of( MAX_YEAR, 12, 31 );
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * Formatted dates of the epoch days from 1970-01-01 to 2149-06-06, filled
+     * on first use. Strings are immutable, so threads racing to fill a slot
+     * at worst format the same date twice.
+     */
+    private static final String[] FORMATTED = new String[1 << 16];
+
+    private EpochDays()
+    {
+    }
+
+    /**
+     * @param text a date formatted as {@code yyyy-MM-dd}.
+     * @return the epoch day, {@link #EMPTY} or {@link #INVALID}.
+     */
+    public static int parse( String text )
+    {
+        if ( text == null || text.isEmpty() )
+        {
+            return EMPTY;
+        }
+
+        if ( text.length() == 10 && text.charAt( 4 ) == '-' && text.charAt( 7 ) == '-' )
+        {
+            int year = digits( text, 0, 4 );
+            int month = digits( text, 5, 7 );
+            int day = digits( text, 8, 10 );
+
+            if ( year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= lengthOfMonth( year, month ) )
+            {
+                return of( year, month, day );
+            }
+        }
+
+        // Joda-Time accepts more than the strict form, e.g. single digit months
+
+        try
+        {
+            return fromLocalDate( LocalDate.parse( text, FORMATTER ) );
+        }
+        catch ( IllegalArgumentException e )
+        {
+            return INVALID;
+        }
+    }
+
+    /**
+     * @param epochDay a valid epoch day.
+     * @return the date formatted as {@code yyyy-MM-dd}.
+     */
+    public static String format( int epochDay )
+    {
+        if ( !isValid( epochDay ) )
+        {
+            throw new IllegalArgumentException( "Epoch day out of range: " + epochDay );
+        }
+
+        if ( epochDay < 0 || epochDay >= FORMATTED.length )
+        {
+            return formatUncached( epochDay );
+        }
+
+        String formatted = FORMATTED[epochDay];
+
+        if ( formatted == null )
+        {
+            formatted = formatUncached( epochDay );
+            FORMATTED[epochDay] = formatted;
+        }
+
+        return formatted;
+    }
+
+    /**
+     * @param date an instant.
+     * @return the epoch day of the instant in the default time zone, as
+     * {@link java.text.SimpleDateFormat} would format it, or {@link #INVALID}
+     * if out of range.
+     */
+    public static int fromDate( Date date )
+    {
+        return fromMillis( date.getTime() );
+    }
+
+    /**
+     * @param millis an instant, in milliseconds since 1970-01-01T00:00Z.
+     * @return the epoch day of the instant in the default time zone, or
+     * {@link #INVALID} if out of range.
+     */
+    public static int fromMillis( long millis )
+    {
+        // read on each call, as SimpleDateFormat does, since the default zone may change while running
+        long localMillis = millis + TimeZone.getDefault().getOffset( millis );
+        long epochDay = localMillis / MILLIS_PER_DAY;
+
+        if ( localMillis % MILLIS_PER_DAY < 0 )
+        {
+            epochDay--;
+        }
+
+        return isValid( epochDay ) ? (int) epochDay : INVALID;
+    }
+
+    /**
+     * @param date an instant.
+     * @return the date formatted as {@code yyyy-MM-dd} in the default time
+     * zone. Years out of range are formatted by {@link SimpleDateFormat}.
+     */
+    public static String format( Date date )
+    {
+        int epochDay = fromDate( date );
+
+        if ( epochDay == INVALID )
+        {
+            return new SimpleDateFormat( DATE_PATTERN, Locale.US ).format( date );
+        }
+
+        return format( epochDay );
+    }
+
+    private static String formatUncached( int epochDay )
+    {
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+
+        int z = epochDay + 719468;
+        int era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = z - era * 146097;
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        char[] chars = new char[10];
+        chars[0] = (char) ('0' + year / 1000);
+        chars[1] = (char) ('0' + year / 100 % 10);
+        chars[2] = (char) ('0' + year / 10 % 10);
+        chars[3] = (char) ('0' + year % 10);
+        chars[4] = '-';
+        chars[5] = (char) ('0' + month / 10);
+        chars[6] = (char) ('0' + month % 10);
+        chars[7] = '-';
+        chars[8] = (char) ('0' + day / 10);
+        chars[9] = (char) ('0' + day % 10);
+
+        return new String( chars );
+    }
+
+    /**
+     * @param epochDay any value.
+     * @return true if the value is an epoch day within the supported range.
+     */
+    public static boolean isValid( long epochDay )
+    {
+        return epochDay >= MIN_EPOCH_DAY && epochDay <= MAX_EPOCH_DAY;
+    }
+
+    public static LocalDate toLocalDate( int epochDay )
+    {
+        return EPOCH.plusDays( epochDay );
+    }
+
+    public static int fromLocalDate( LocalDate date )
+    {
+        if ( date.getYear() < MIN_YEAR || date.getYear() > MAX_YEAR )
+        {
+            return INVALID;
+        }
+
+        return of( date.getYear(), date.getMonthOfYear(), date.getDayOfMonth() );
+    }
+
+    private static int of( int year, int month, int day )
+    {
+        // days from civil, see http://howardhinnant.github.io/date_algorithms.html
+
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    private static int lengthOfMonth( int year, int month )
+    {
+        switch ( month )
+        {
+        case 2:
+            return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+        case 4:
+        case 6:
+        case 9:
+        case 11:
+            return 30;
+        default:
+            return 31;
+        }
+    }
+
+    private static int digits( String text, int start, int end )
+    {
+        int value = 0;
+
+        for ( int i = start; i < end; i++ )
+        {
+            char c = text.charAt( i );
+
+            if ( c < '0' || c > '9' )
+            {
+                return -1;
+            }
+
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,130 @@
+package org.hisp.dhis.rules.utils;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * An unmodifiable list of strings whose {@link #contains(Object)} is a hash
+ * lookup, for the supplementary data of rule engines. Functions such as
+ * d2:inOrgUnitGroup and d2:hasUserRole test membership of lists holding
+ * thousands of organisation units once per rule and event.
+ */
+public final class IndexedList
+    extends AbstractList<String>
+    implements RandomAccess
+{
+    @Nonnull
+    private final String[] values;
+
+    @Nonnull
+    private final Set<String> index;
+
+    private IndexedList( @Nonnull Collection<String> values )
+    {
+        this.values = values.toArray( new String[values.size()] );
+        this.index = new HashSet<>( Arrays.asList( this.values ) );
+    }
+
+    /**
+     * @return the list itself if already indexed, null for null.
+     */
+    @Nullable
+    public static List<String> of( @Nullable List<String> values )
+    {
+        if ( values == null || values instanceof IndexedList )
+        {
+            return values;
+        }
+
+        return new IndexedList( values );
+    }
+
+    /**
+     * @return an unmodifiable copy of the map with each list indexed, the
+     * same index for a list found under several keys. Null for null.
+     */
+    @Nullable
+    public static Map<String, List<String>> indexValues( @Nullable Map<String, List<String>> map )
+    {
+        if ( map == null )
+        {
+            return null;
+        }
+
+        Map<List<String>, List<String>> indexed = new IdentityHashMap<>();
+        Map<String, List<String>> result = new HashMap<>( map.size() * 2 );
+
+        for ( Map.Entry<String, List<String>> entry : map.entrySet() )
+        {
+            List<String> values = entry.getValue();
+            List<String> indexedValues = values == null ? null : indexed.get( values );
+
+            if ( values != null && indexedValues == null )
+            {
+                indexedValues = of( values );
+                indexed.put( values, indexedValues );
+            }
+
+            result.put( entry.getKey(), indexedValues );
+        }
+
+        return Collections.unmodifiableMap( result );
+    }
+
+    @Override
+    public String get( int index )
+    {
+        return values[index];
+    }
+
+    @Override
+    public int size()
+    {
+        return values.length;
+    }
+
+    @Override
+    public boolean contains( Object value )
+    {
+        return index.contains( value );
+    }
+}
@@ -0,0 +1,214 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleActionAssign;
+import org.hisp.dhis.rules.models.RuleActionDisplayKeyValuePair;
+import org.hisp.dhis.rules.models.RuleAttributeValue;
+import org.hisp.dhis.rules.models.RuleDataValue;
+import org.hisp.dhis.rules.models.RuleEffects;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.models.RuleValueType;
+import org.hisp.dhis.rules.models.RuleVariable;
+import org.hisp.dhis.rules.models.RuleVariableAttribute;
+import org.hisp.dhis.rules.models.RuleVariableCalculatedValue;
+import org.hisp.dhis.rules.models.RuleVariableCurrentEvent;
+import org.hisp.dhis.rules.models.RuleVariableNewestEvent;
+import org.hisp.dhis.rules.models.RuleVariablePreviousEvent;
+import org.hisp.dhis.rules.models.TriggerEnvironment;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class LazyRuleVariableValueMapTest
+{
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private static final List<RuleVariable> RULE_VARIABLES = Arrays.<RuleVariable>asList(
+        RuleVariableCurrentEvent.create( "current", "de1", RuleValueType.NUMERIC ),
+        RuleVariablePreviousEvent.create( "previous", "de1", RuleValueType.NUMERIC ),
+        RuleVariableNewestEvent.create( "newest", "de2", RuleValueType.TEXT ),
+        RuleVariableAttribute.create( "attribute", "attribute", RuleValueType.TEXT ),
+        RuleVariableCalculatedValue.create( "calculated", "", RuleValueType.NUMERIC ),
+        RuleVariableCurrentEvent.create( "event_id", "de2", RuleValueType.TEXT ),
+        RuleVariableCurrentEvent.create( "constant", "de2", RuleValueType.TEXT ) );
+
+    @Test
+    public void lazyValueMapsShouldEqualEagerValueMaps()
+    {
+        RuleVariableValueMap eager = builder( false ).multipleBuild();
+        RuleVariableValueMap lazy = builder( true ).multipleBuild();
+
+        assertThat( new HashMap<>( lazy.getEnrollmentMap().values().iterator().next() ) )
+            .isEqualTo( eager.getEnrollmentMap().values().iterator().next() );
+
+        for ( RuleEvent ruleEvent : events() )
+        {
+            Map<String, RuleVariableValue> lazyValueMap = lazy.getEventMap().get( ruleEvent );
+            Map<String, RuleVariableValue> eagerValueMap = eager.getEventMap().get( ruleEvent );
+
+            for ( String name : eagerValueMap.keySet() )
+            {
+                assertThat( lazyValueMap.containsKey( name ) ).isTrue();
+                assertThat( lazyValueMap.get( name ) ).isEqualTo( eagerValueMap.get( name ) );
+            }
+
+            assertThat( lazyValueMap.containsKey( "unknown" ) ).isFalse();
+            assertThat( new HashMap<>( lazyValueMap ) ).isEqualTo( eagerValueMap );
+        }
+    }
+
+    @Test
+    public void variableValuesShouldBeCreatedOnceOnFirstLookup()
+    {
+        CountingVariable ruleVariable = new CountingVariable( "counting" );
+
+        Map<String, RuleVariableValue> valueMap = RuleVariableValueMapBuilder.target( events().get( 0 ) )
+            .ruleVariables( Arrays.<RuleVariable>asList( ruleVariable ) )
+            .lazyVariableValues( true )
+            .build();
+
+        assertThat( ruleVariable.count ).isEqualTo( 0 );
+
+        Map<String, RuleVariableValue> copy = LazyRuleVariableValueMap.copyOf( valueMap );
+
+        assertThat( copy.get( "counting" ).value() ).isEqualTo( "counted" );
+        assertThat( valueMap.get( "counting" ).value() ).isEqualTo( "counted" );
+        assertThat( LazyRuleVariableValueMap.copyOf( copy ).get( "counting" ).value() ).isEqualTo( "counted" );
+        assertThat( ruleVariable.count ).isEqualTo( 1 );
+    }
+
+    @Test
+    public void assignedValuesShouldOnlyChangeTheCopy()
+    {
+        Map<String, RuleVariableValue> valueMap = builder( true ).build();
+        Map<String, RuleVariableValue> copy = LazyRuleVariableValueMap.copyOf( valueMap );
+
+        copy.put( "calculated", RuleVariableValue.create( "5", RuleValueType.TEXT ) );
+
+        assertThat( copy.get( "calculated" ).value() ).isEqualTo( "5" );
+        assertThat( valueMap.get( "calculated" ).value() ).isNull();
+        assertThat( LazyRuleVariableValueMap.copyOf( copy ).get( "calculated" ).value() ).isEqualTo( "5" );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void builtValueMapShouldNotBeModifiable()
+    {
+        builder( true ).build().put( "calculated", RuleVariableValue.create( "5", RuleValueType.TEXT ) );
+    }
+
+    @Test
+    public void lazyEngineShouldGiveTheSameEffects()
+        throws Exception
+    {
+        RuleAction assign = RuleActionAssign.create( "#{calculated}", "#{current} + 1", null );
+        RuleAction display = RuleActionDisplayKeyValuePair.createForFeedback( "content",
+            "d2:concatenate(#{calculated}, #{newest}, A{attribute}, #{previous}, V{event_id})" );
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "d2:hasValue('current')", Arrays.asList( assign ), "", "assign" ),
+            Rule.create( null, 2, "true", Arrays.asList( display ), "", "display" ),
+            Rule.create( null, 3, "false && #{newest} == 'x'", Arrays.asList( display ), "", "skipped" ) );
+
+        RuleEngineContext ruleEngineContext = RuleEngineContext.builder()
+            .rules( rules )
+            .ruleVariables( RULE_VARIABLES )
+            .supplementaryData( new HashMap<String, List<String>>() )
+            .constantsValue( Collections.singletonMap( "constant", "7" ) )
+            .build();
+
+        List<RuleEffects> eager = ruleEngineContext.toEngineBuilder()
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .enrollment( enrollment() )
+            .events( events() )
+            .build().evaluate().call();
+        List<RuleEffects> lazy = ruleEngineContext.toEngineBuilder()
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .enrollment( enrollment() )
+            .events( events() )
+            .lazyVariableValues( true )
+            .build().evaluate().call();
+
+        assertThat( lazy.size() ).isEqualTo( eager.size() );
+
+        for ( int i = 0; i < eager.size(); i++ )
+        {
+            assertThat( lazy.get( i ).getTrackerObjectUid() ).isEqualTo( eager.get( i ).getTrackerObjectUid() );
+            assertThat( lazy.get( i ).getRuleEffects() ).isEqualTo( eager.get( i ).getRuleEffects() );
+        }
+    }
+
+    private static RuleVariableValueMapBuilder builder( boolean lazy )
+    {
+        return RuleVariableValueMapBuilder.target()
+            .ruleVariables( RULE_VARIABLES )
+            .ruleEnrollment( enrollment() )
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .ruleEvents( events() )
+            .constantValueMap( Collections.singletonMap( "constant", "7" ) )
+            .lazyVariableValues( lazy );
+    }
+
+    private static RuleEnrollment enrollment()
+    {
+        return RuleEnrollment.create( "enrollment", new Date( DAY ), new Date( DAY ), RuleEnrollment.Status.ACTIVE,
+            "ou", "ou_code", Arrays.asList( RuleAttributeValue.create( "attribute", "attribute_value" ) ),
+            "program" );
+    }
+
+    private static List<RuleEvent> events()
+    {
+        List<RuleEvent> events = new ArrayList<>();
+
+        for ( int i = 1; i <= 3; i++ )
+        {
+            Date eventDate = new Date( i * DAY );
+
+            events.add( RuleEvent.create( "event" + i, "stage", RuleEvent.Status.ACTIVE, eventDate, eventDate, "ou",
+                null, Arrays.asList( RuleDataValue.create( eventDate, "stage", "de1", String.valueOf( i ) ),
+                    RuleDataValue.create( eventDate, "stage", "de2", "value" + i ) ), "stage name", null ) );
+        }
+
+        return events;
+    }
+
+    private static final class CountingVariable
+        extends RuleVariable
+    {
+        private final String name;
+
+        private int count;
+
+        CountingVariable( String name )
+        {
+            this.name = name;
+        }
+
+        @Override
+        public String name()
+        {
+            return name;
+        }
+
+        @Override
+        public Map<String, RuleVariableValue> createValues( RuleVariableValueMapBuilder builder,
+            Map<String, List<RuleDataValue>> allEventValues, Map<String, RuleAttributeValue> currentEnrollmentValues,
+            Map<String, RuleDataValue> currentEventValues )
+        {
+            count++;
+
+            return Collections.singletonMap( name, RuleVariableValue.create( "counted", RuleValueType.TEXT ) );
+        }
+    }
+}
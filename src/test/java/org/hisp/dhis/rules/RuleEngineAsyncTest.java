@@ -0,0 +1,115 @@
+package org.hisp.dhis.rules;
+
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.hisp.dhis.rules.RuleEngineTestUtils.ExecutorServiceResource;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineAsyncTest
+{
+    @org.junit.Rule
+    public final ExecutorServiceResource executorService = new ExecutorServiceResource( 2 );
+
+    @Test
+    public void asyncEvaluationsShouldGiveTheEffectsOfEvaluate()
+        throws Exception
+    {
+        RuleEngine ruleEngine = ruleEngine();
+        RuleEvent ruleEvent = event( "target" );
+
+        assertThat( ruleEngine.evaluateAsync( ruleEvent, executorService.get() ).get() )
+            .isEqualTo( ruleEngine.evaluate( ruleEvent ).call() );
+        assertThat( ruleEngine.evaluateAsync( ruleEngine.enrollment(), executorService.get() ).get() )
+            .isEqualTo( ruleEngine.evaluate( ruleEngine.enrollment() ).call() );
+
+        List<RuleEffects> ruleEffects = ruleEngine.evaluateAsync( executorService.get() ).get();
+
+        assertThat( ruleEffects ).hasSize( 2 );
+        assertThat( ruleEffects.get( 1 ).getTrackerObjectUid() ).isEqualTo( "event" );
+        assertThat( ruleEffects.get( 1 ).getRuleEffects() ).hasSize( 1 );
+    }
+
+    @Test
+    public void asyncEvaluationsShouldCompose()
+        throws Exception
+    {
+        RuleEngine ruleEngine = ruleEngine();
+
+        ListenableFuture<Integer> effectCount = Futures.transform(
+            ruleEngine.evaluateAsync( event( "target" ), executorService.get() ),
+            new Function<List<RuleEffect>, Integer>()
+            {
+                @Override
+                public Integer apply( List<RuleEffect> ruleEffects )
+                {
+                    return ruleEffects.size();
+                }
+            } );
+
+        assertThat( effectCount.get() ).isEqualTo( 1 );
+    }
+
+    @Test
+    public void cancelledEvaluationsShouldNotRun()
+    {
+        final List<Runnable> tasks = new ArrayList<>();
+        Executor executor = new Executor()
+        {
+            @Override
+            public void execute( Runnable command )
+            {
+                tasks.add( command );
+            }
+        };
+
+        ListenableFuture<List<RuleEffects>> future = ruleEngine().evaluateAsync( executor );
+
+        assertThat( future.cancel( true ) ).isTrue();
+
+        tasks.get( 0 ).run();
+
+        assertThat( future.isCancelled() ).isTrue();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void evaluateAsyncShouldThrowOnNullExecutor()
+    {
+        ruleEngine().evaluateAsync( null );
+    }
+
+    private static RuleEngine ruleEngine()
+    {
+        Rule rule = Rule.create( null, null, "#{a} > 1", Arrays.<RuleAction>asList(
+            RuleActionDisplayText.createForFeedback( "a", "#{a}" ) ), "", "rule" );
+
+        return getRuleEngineContextBuilder( Arrays.asList( rule ), Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ) ) )
+            .build().toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", new Date() ) )
+            .events( Arrays.asList( event( "event" ) ) )
+            .build();
+    }
+
+    private static RuleEvent event( String uid )
+    {
+        Date eventDate = new Date();
+
+        return getEvent( uid, "stage", eventDate, RuleDataValue.create( eventDate, "stage", "deA", "2" ) );
+    }
+}
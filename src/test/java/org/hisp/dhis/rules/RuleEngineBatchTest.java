@@ -0,0 +1,120 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.RuleEngineTestUtils.ExecutorServiceResource;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.assertSameEffects;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineBatchTest
+{
+    @org.junit.Rule
+    public final ExecutorServiceResource executor = new ExecutorServiceResource( 4 );
+
+    @Test
+    public void batchShouldGiveTheEffectsOfEvaluatingEachEnrollment()
+        throws Exception
+    {
+        RuleEngineContext ruleEngineContext = context();
+        Random random = new Random( 42 );
+        List<RuleEnrollment> enrollments = new ArrayList<>();
+        List<List<RuleEvent>> events = new ArrayList<>();
+        List<RuleEffects> expected = new ArrayList<>();
+
+        for ( int i = 0; i < 50; i++ )
+        {
+            enrollments.add( enrollment( "enrollment" + i, random ) );
+            events.add( events( "enrollment" + i, random ) );
+            expected.addAll( ruleEngineContext.toEngineBuilder()
+                .triggerEnvironment( TriggerEnvironment.SERVER )
+                .enrollment( enrollments.get( i ) )
+                .events( events.get( i ) )
+                .build().evaluate().call() );
+        }
+
+        for ( int parallelThreshold : new int[]{ 1, 30, 100000 } )
+        {
+            RuleEngineBatch.Builder builder = ruleEngineContext.toBatchBuilder()
+                .triggerEnvironment( TriggerEnvironment.SERVER )
+                .executorService( executor.get() )
+                .parallelThreshold( parallelThreshold );
+
+            for ( int i = 0; i < enrollments.size(); i++ )
+            {
+                builder.enrollment( enrollments.get( i ), events.get( i ) );
+            }
+
+            RuleEngineBatch batch = builder.build();
+
+            assertThat( batch.size() ).isEqualTo( 50 );
+            assertSameEffects( batch.evaluate().call(), expected );
+        }
+    }
+
+    @Test
+    public void emptyBatchShouldHaveNoEffects()
+        throws Exception
+    {
+        assertThat( context().toBatchBuilder().executorService( executor.get() ).build().evaluate().call() )
+            .isEmpty();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void enrollmentShouldThrowOnNullEvents()
+    {
+        context().toBatchBuilder().enrollment( enrollment( "enrollment", new Random() ), null );
+    }
+
+    private static RuleEngineContext context()
+    {
+        List<RuleVariable> ruleVariables = Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ),
+            RuleVariableNewestEvent.create( "newest", "deA", RuleValueType.NUMERIC ),
+            RuleVariableAttribute.create( "att", "attribute", RuleValueType.NUMERIC ) );
+
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "#{a} > A{att}", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "above", "#{a}", "field" ) ), "", "above" ),
+            Rule.create( null, 2, "#{newest} == 0", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "newest", "#{newest}" ) ), "", "newest" ),
+            Rule.create( null, null, "A{att} > 2", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "att", "A{att}" ) ), "", "attribute" ) );
+
+        return getRuleEngineContextBuilder( rules, ruleVariables ).build();
+    }
+
+    private static RuleEnrollment enrollment( String uid, Random random )
+    {
+        return getEnrollment( uid, new Date( DAY ),
+            RuleAttributeValue.create( "attribute", String.valueOf( random.nextInt( 5 ) ) ) );
+    }
+
+    private static List<RuleEvent> events( String enrollment, Random random )
+    {
+        List<RuleEvent> events = new ArrayList<>();
+
+        for ( int i = random.nextInt( 5 ); i > 0; i-- )
+        {
+            Date eventDate = new Date( i * DAY );
+
+            events.add( getEvent( enrollment + "_event" + i, "stage", eventDate,
+                RuleDataValue.create( eventDate, "stage", "deA", String.valueOf( random.nextInt( 5 ) ) ) ) );
+        }
+
+        return events;
+    }
+}
@@ -0,0 +1,94 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvents;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineCallbackTest
+{
+    @Test
+    public void callbackShouldReceiveTheEffectsOfEvaluateInOrder()
+        throws Exception
+    {
+        RuleEngine ruleEngine = ruleEngine();
+        final List<RuleEffects> received = new ArrayList<>();
+
+        ruleEngine.evaluate( new RuleEffectCallback()
+        {
+            @Override
+            public void accept( TrackerObjectType trackerObjectType, String trackerObjectUid,
+                RuleEffect ruleEffect )
+            {
+                RuleEffects last = received.isEmpty() ? null : received.get( received.size() - 1 );
+
+                if ( last == null || !last.getTrackerObjectUid().equals( trackerObjectUid ) )
+                {
+                    last = new RuleEffects( trackerObjectType, trackerObjectUid, new ArrayList<RuleEffect>() );
+                    received.add( last );
+                }
+
+                last.getRuleEffects().add( ruleEffect );
+            }
+        } );
+
+        List<RuleEffects> expected = new ArrayList<>();
+
+        // targets without effects are not seen by the callback
+        for ( RuleEffects ruleEffects : ruleEngine.evaluate().call() )
+        {
+            if ( !ruleEffects.getRuleEffects().isEmpty() )
+            {
+                expected.add( ruleEffects );
+            }
+        }
+
+        assertThat( received ).hasSameSizeAs( expected );
+        assertThat( received ).hasSize( 5 );
+
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            assertThat( received.get( i ).getTrackerObjectType() )
+                .isEqualTo( expected.get( i ).getTrackerObjectType() );
+            assertThat( received.get( i ).getTrackerObjectUid() ).isEqualTo( expected.get( i ).getTrackerObjectUid() );
+            assertThat( received.get( i ).getRuleEffects() ).isEqualTo( expected.get( i ).getRuleEffects() );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void evaluateShouldThrowOnNullCallback()
+    {
+        ruleEngine().evaluate( (RuleEffectCallback) null );
+    }
+
+    private static RuleEngine ruleEngine()
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "#{a} > 1", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "high", "#{a}", "field" ),
+                RuleActionDisplayText.createForFeedback( "a", "#{a}" ) ), "", "high" ),
+            Rule.create( null, 2, "A{att} == 'yes'", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "att", "A{att}" ) ), "", "attribute" ) );
+
+        return getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ),
+            RuleVariableAttribute.create( "att", "attribute", RuleValueType.TEXT ) ) )
+            .build().toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", new Date( DAY ),
+                RuleAttributeValue.create( "attribute", "yes" ) ) )
+            .events( getEvents( 4 ) )
+            .build();
+    }
+}
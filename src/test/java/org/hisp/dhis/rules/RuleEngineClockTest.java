@@ -0,0 +1,103 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.NOW;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getDate;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineClockTest
+{
+    @Test
+    public void currentDateShouldComeFromTheClock()
+        throws Exception
+    {
+        RuleEngine ruleEngine = context( RuleEngineClock.fixed( NOW ) ).toEngineBuilder()
+            .events( Arrays.asList( getEvent( "event", "stage", getDate( 2020, Calendar.MARCH, 1 ) ) ) )
+            .build();
+
+        List<RuleEffect> ruleEffects = ruleEngine.evaluate( getEvent( "other", "stage", NOW ) ).call();
+
+        assertThat( ruleEffects ).hasSize( 2 );
+        assertThat( ruleEffects.get( 0 ).data() ).isEqualTo( "2020-03-15" );
+        assertThat( ruleEffects.get( 1 ).data() ).isEqualTo( "2020-03-15" );
+    }
+
+    @Test
+    public void enrollmentsOfBatchShouldBeEvaluatedAtTheSameDate()
+        throws Exception
+    {
+        final long[] millis = { NOW.getTime() };
+        RuleEngineClock clock = new RuleEngineClock()
+        {
+            @Override
+            public long currentTimeMillis()
+            {
+                // a day passes each time the clock is read
+                return millis[0] += DAY;
+            }
+        };
+
+        RuleEngineBatch.Builder builder = context( clock ).toBatchBuilder();
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            builder.enrollment( getEnrollment( "enrollment" + i, NOW ),
+                Arrays.asList( getEvent( "event" + i, "stage", NOW ) ) );
+        }
+
+        List<RuleEffects> ruleEffects = builder.build().evaluate().call();
+
+        assertThat( ruleEffects ).hasSize( 6 );
+
+        for ( RuleEffects effects : ruleEffects )
+        {
+            assertThat( effects.getRuleEffects() ).hasSize( 2 );
+            assertThat( effects.getRuleEffects().get( 0 ).data() ).isEqualTo( "2020-03-16" );
+        }
+    }
+
+    @Test
+    public void currentDateShouldBeFormattedInTheDefaultTimeZone()
+    {
+        CurrentDate currentDate = RuleEngineClock.fixed( NOW ).currentDate();
+
+        assertThat( currentDate.formatted() ).isEqualTo( "2020-03-15" );
+        assertThat( currentDate.formatted() ).isEqualTo( Utils.formatDate( NOW ) );
+        assertThat( currentDate.isBefore( getDate( 2020, Calendar.MARCH, 16 ) ) ).isTrue();
+        assertThat( currentDate.isBefore( NOW ) ).isFalse();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void contextShouldNotAcceptNullClock()
+    {
+        RuleEngineContext.builder().clock( null );
+    }
+
+    private static RuleEngineContext context( RuleEngineClock clock )
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "true", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "today", "V{current_date}" ) ), "today", "today" ),
+            Rule.create( null, 2, "true", Arrays.<RuleAction>asList(
+                RuleActionAssign.create( "#{assigned}", "V{current_date}", null ),
+                RuleActionDisplayText.createForFeedback( "assigned", "#{assigned}" ) ), "assigned", "assigned" ) );
+
+        return getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableCalculatedValue.create( "assigned", "", RuleValueType.TEXT ) ) )
+            .clock( clock )
+            .build();
+    }
+}
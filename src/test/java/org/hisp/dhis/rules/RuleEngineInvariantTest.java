@@ -0,0 +1,145 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.NOW;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getDate;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineInvariantTest
+{
+    private static final int EVENTS = 5;
+
+    @Test
+    public void enrollmentInvariantConditionShouldBeEvaluatedOncePerEnrollment()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+        List<RuleEffects> ruleEffects = ruleEngine( Arrays.asList(
+            Rule.create( "stage", 1, "d2:yearsBetween(A{birth}, V{current_date}) >= 18 && d2:hasUserRole('nurse')",
+                Arrays.<RuleAction>asList( RuleActionDisplayText.createForFeedback( "adult", "'adult'" ) ),
+                "adult", "adult" ),
+            Rule.create( "stage", 2, "d2:daysBetween(A{birth}, V{event_date}) > 0",
+                Arrays.<RuleAction>asList( RuleActionDisplayText.createForFeedback( "born", "#{de}" ) ),
+                "born", "born" ) ), metrics ).evaluate().call();
+
+        assertThat( ruleEffects ).hasSize( EVENTS + 1 );
+
+        for ( RuleEffects effects : ruleEffects.subList( 1, ruleEffects.size() ) )
+        {
+            assertThat( effects.getRuleEffects() ).hasSize( 2 );
+            assertThat( effects.getRuleEffects().get( 0 ).data() ).isEqualTo( "adult" );
+        }
+
+        Map<String, RuleEngineMetrics.Stats> functions = metrics.snapshot().functions();
+
+        assertThat( functions.get( "d2:yearsBetween" ).count() ).isEqualTo( 1 );
+        assertThat( functions.get( "d2:hasUserRole" ).count() ).isEqualTo( 1 );
+        assertThat( functions.get( "d2:daysBetween" ).count() ).isEqualTo( EVENTS );
+    }
+
+    @Test
+    public void assignedVariablesShouldNotBeHoisted()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+        List<RuleEffects> ruleEffects = ruleEngine( Arrays.asList(
+            Rule.create( "stage", 1, "true",
+                Arrays.<RuleAction>asList( RuleActionAssign.create( "#{birth}", "#{de}", null ) ), "assign",
+                "assign" ),
+            Rule.create( "stage", 2, "d2:round(A{birth}) > 2",
+                Arrays.<RuleAction>asList( RuleActionDisplayText.createForFeedback( "high", "A{birth}" ) ),
+                "high", "high" ) ), metrics ).evaluate().call();
+
+        Map<String, List<RuleEffect>> effectsByEvent = byEvent( ruleEffects );
+
+        assertThat( effectsByEvent ).hasSize( EVENTS );
+
+        for ( int i = 0; i < EVENTS; i++ )
+        {
+            assertThat( effectsByEvent.get( "event" + i ) ).hasSize( i > 2 ? 1 : 0 );
+        }
+
+        assertThat( metrics.snapshot().functions().get( "d2:round" ).count() ).isEqualTo( EVENTS );
+    }
+
+    @Test
+    public void eventsShouldNotShareOrgUnitGroupMembership()
+        throws Exception
+    {
+        List<RuleEffects> ruleEffects = ruleEngine( Arrays.asList(
+            Rule.create( "stage", 1, "d2:inOrgUnitGroup('group')",
+                Arrays.<RuleAction>asList( RuleActionDisplayText.createForFeedback( "member", "'member'" ) ),
+                "member", "member" ) ), null ).evaluate().call();
+
+        Map<String, List<RuleEffect>> effectsByEvent = byEvent( ruleEffects );
+
+        for ( int i = 0; i < EVENTS; i++ )
+        {
+            assertThat( effectsByEvent.get( "event" + i ) ).hasSize( i % 2 == 0 ? 1 : 0 );
+        }
+    }
+
+    private static Map<String, List<RuleEffect>> byEvent( List<RuleEffects> ruleEffects )
+    {
+        Map<String, List<RuleEffect>> effectsByEvent = new HashMap<>();
+
+        for ( RuleEffects effects : ruleEffects )
+        {
+            if ( effects.isEvent() )
+            {
+                effectsByEvent.put( effects.getTrackerObjectUid(), effects.getRuleEffects() );
+            }
+        }
+
+        return effectsByEvent;
+    }
+
+    private static RuleEngine ruleEngine( List<Rule> rules, RuleEngineInstrumentation instrumentation )
+    {
+        Map<String, List<String>> supplementaryData = new HashMap<>();
+        supplementaryData.put( "USER", Arrays.asList( "nurse" ) );
+        supplementaryData.put( "group", Arrays.asList( "ou0" ) );
+
+        RuleEngineContext.Builder builder = getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableAttribute.create( "birth", "birthAttribute", RuleValueType.TEXT ),
+            RuleVariableCurrentEvent.create( "de", "deA", RuleValueType.NUMERIC ) ) )
+            .supplementaryData( supplementaryData )
+            .clock( RuleEngineClock.fixed( NOW ) );
+
+        if ( instrumentation != null )
+        {
+            builder.instrumentation( instrumentation );
+        }
+
+        List<RuleEvent> events = new ArrayList<>();
+
+        for ( int i = 0; i < EVENTS; i++ )
+        {
+            Date eventDate = getDate( 2020, Calendar.MARCH, i + 1 );
+            events.add( RuleEvent.create( "event" + i, "stage", RuleEvent.Status.ACTIVE, eventDate, eventDate,
+                "ou" + i % 2, null, Arrays.asList( RuleDataValue.create( eventDate, "stage", "deA",
+                    String.valueOf( i ) ) ), "stage name", null ) );
+        }
+
+        return builder.build().toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", NOW,
+                RuleAttributeValue.create( "birthAttribute", "1990-01-01" ) ) )
+            .events( events )
+            .build();
+    }
+}
@@ -0,0 +1,94 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.RuleEngineTestUtils.ExecutorServiceResource;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvents;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineMetricsTest
+{
+    @org.junit.Rule
+    public final ExecutorServiceResource executor = new ExecutorServiceResource( 4 );
+
+    @Test
+    public void metricsShouldCountEvaluations()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+
+        context( metrics ).toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", new Date( DAY ) ) )
+            .events( getEvents( 10 ) )
+            .build().evaluate().call();
+
+        RuleEngineMetrics.Snapshot snapshot = metrics.snapshot();
+
+        // one enrollment and ten events
+        assertThat( snapshot.valueMaps().count() ).isEqualTo( 11 );
+        assertThat( snapshot.conditions().get( "hasValue" ).count() ).isEqualTo( 11 );
+        assertThat( snapshot.conditions().get( "hasValue" ).failures() ).isEqualTo( 0 );
+        assertThat( snapshot.conditions().get( "invalid" ).count() ).isEqualTo( 11 );
+        assertThat( snapshot.conditions().get( "invalid" ).failures() ).isEqualTo( 11 );
+        assertThat( snapshot.actions().get( "hasValue" ).count() ).isEqualTo( 10 );
+        assertThat( snapshot.actions() ).doesNotContainKey( "invalid" );
+        assertThat( snapshot.functions().get( "d2:hasValue" ).count() ).isEqualTo( 11 );
+        assertThat( snapshot.functions().get( "d2:concatenate" ).count() ).isEqualTo( 10 );
+        assertThat( snapshot.functions().get( "d2:hasValue" ).nanos() ).isGreaterThan( 0 );
+    }
+
+    @Test
+    public void metricsShouldCountParallelEvaluations()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+
+        context( metrics ).toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", new Date( DAY ) ) )
+            .events( getEvents( 200 ) )
+            .executorService( executor.get() )
+            .parallelThreshold( 1 )
+            .build().evaluate().call();
+
+        RuleEngineMetrics.Snapshot snapshot = metrics.snapshot();
+
+        assertThat( snapshot.conditions().get( "hasValue" ).count() ).isEqualTo( 201 );
+        assertThat( snapshot.functions().get( "d2:concatenate" ).count() ).isEqualTo( 200 );
+    }
+
+    @Test
+    public void snapshotShouldBeEmptyBeforeEvaluations()
+    {
+        RuleEngineMetrics.Snapshot snapshot = new RuleEngineMetrics().snapshot();
+
+        assertThat( snapshot.valueMaps().count() ).isEqualTo( 0 );
+        assertThat( snapshot.conditions() ).isEmpty();
+        assertThat( snapshot.functions() ).isEmpty();
+    }
+
+    private static RuleEngineContext context( RuleEngineInstrumentation instrumentation )
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "d2:hasValue('a')", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "a", "d2:concatenate(#{a}, 'x')" ) ), "has value",
+                "hasValue" ),
+            Rule.create( null, 2, "#{a} >", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "a", "#{a}" ) ), "invalid", "invalid" ) );
+
+        return getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ) ) )
+            .instrumentation( instrumentation )
+            .build();
+    }
+}
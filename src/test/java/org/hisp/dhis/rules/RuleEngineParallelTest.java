@@ -0,0 +1,165 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.RuleEngineTestUtils.ExecutorServiceResource;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.assertSameEffects;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+@RunWith( JUnit4.class )
+public class RuleEngineParallelTest
+{
+    private static final RuleEnrollment ENROLLMENT = getEnrollment( "enrollment", new Date( DAY ),
+        RuleAttributeValue.create( "attribute", "1" ) );
+
+    @org.junit.Rule
+    public final ExecutorServiceResource executor = new ExecutorServiceResource( 4 );
+
+    @Test
+    public void parallelEvaluationShouldGiveTheEffectsOfASequentialEvaluationInTheSameOrder()
+        throws Exception
+    {
+        RuleEngineContext ruleEngineContext = context();
+        List<RuleEvent> events = events( 200 );
+
+        List<RuleEffects> expected = ruleEngineContext.toEngineBuilder()
+            .enrollment( ENROLLMENT )
+            .events( events )
+            .build().evaluate().call();
+
+        for ( boolean lazyVariableValues : new boolean[]{ false, true } )
+        {
+            for ( int parallelThreshold : new int[]{ 1, 7, 100 } )
+            {
+                List<RuleEffects> ruleEffects = ruleEngineContext.toEngineBuilder()
+                    .enrollment( ENROLLMENT )
+                    .events( events )
+                    .lazyVariableValues( lazyVariableValues )
+                    .executorService( executor.get() )
+                    .parallelThreshold( parallelThreshold )
+                    .build().evaluate().call();
+
+                assertSameEffects( ruleEffects, expected );
+            }
+        }
+    }
+
+    @Test
+    public void smallEnrollmentsShouldBeEvaluatedOnTheCallingThread()
+        throws Exception
+    {
+        ExecutorService unused = mock( ExecutorService.class );
+
+        List<RuleEffects> ruleEffects = context().toEngineBuilder()
+            .enrollment( ENROLLMENT )
+            .events( events( 3 ) )
+            .executorService( unused )
+            .build().evaluate().call();
+
+        assertThat( ruleEffects ).hasSize( 4 );
+        verifyZeroInteractions( unused );
+    }
+
+    @Test
+    public void concurrentEvaluationsShouldNotCorruptDates()
+        throws Exception
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "true", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "dates", "d2:concatenate(V{event_date}, V{due_date}, " +
+                    "V{enrollment_date}, V{incident_date})" ),
+                RuleActionDisplayText.createForFeedback( "days",
+                    "d2:daysBetween(V{enrollment_date}, V{event_date})" ) ), "", "dates" ) );
+        final RuleEngineContext ruleEngineContext = getRuleEngineContextBuilder( rules,
+            new ArrayList<RuleVariable>() ).build();
+        final List<RuleEvent> events = events( 300 );
+        final List<RuleEffects> expected = ruleEngineContext.toEngineBuilder()
+            .enrollment( ENROLLMENT )
+            .events( events )
+            .build().evaluate().call();
+
+        List<Future<List<RuleEffects>>> futures = new ArrayList<>();
+
+        for ( int i = 0; i < 16; i++ )
+        {
+            futures.add( executor.get().submit( new Callable<List<RuleEffects>>()
+            {
+                @Override
+                public List<RuleEffects> call()
+                    throws Exception
+                {
+                    return ruleEngineContext.toEngineBuilder()
+                        .enrollment( ENROLLMENT )
+                        .events( events )
+                        .build().evaluate().call();
+                }
+            } ) );
+        }
+
+        for ( Future<List<RuleEffects>> future : futures )
+        {
+            assertSameEffects( future.get(), expected );
+        }
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void parallelThresholdShouldBePositive()
+    {
+        context().toEngineBuilder().parallelThreshold( 0 );
+    }
+
+    private static RuleEngineContext context()
+    {
+        List<RuleVariable> ruleVariables = Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ),
+            RuleVariablePreviousEvent.create( "previous", "deA", RuleValueType.NUMERIC ),
+            RuleVariableAttribute.create( "att", "attribute", RuleValueType.TEXT ),
+            RuleVariableCalculatedValue.create( "calc", "", RuleValueType.NUMERIC ) );
+
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "d2:hasValue('a')", Arrays.<RuleAction>asList(
+                RuleActionAssign.create( "#{calc}", "#{a} * 2", null ) ), "", "assign" ),
+            Rule.create( null, 2, "#{calc} > 4", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "calc", "#{calc}" ) ), "", "high" ),
+            Rule.create( "stage", 3, "#{previous} < #{a}", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "content", "#{previous}", "field" ) ), "", "increase" ),
+            Rule.create( null, null, "A{att} != ''", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "att", "A{att}" ) ), "", "attribute" ) );
+
+        return getRuleEngineContextBuilder( rules, ruleVariables ).build();
+    }
+
+    private static List<RuleEvent> events( int count )
+    {
+        Random random = new Random( 42 );
+        List<RuleEvent> events = new ArrayList<>();
+
+        for ( int i = 0; i < count; i++ )
+        {
+            Date eventDate = new Date( (i + 1) * DAY );
+
+            events.add( getEvent( "event" + i, random.nextBoolean() ? "stage" : "otherStage", eventDate,
+                RuleDataValue.create( eventDate, "stage", "deA", String.valueOf( random.nextInt( 5 ) ) ) ) );
+        }
+
+        return events;
+    }
+}
@@ -0,0 +1,189 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineSessionTest
+{
+    private static final String[] VALUES = { null, "1", "2", "3", "x" };
+
+    @Test
+    public void updatesShouldGiveTheEffectsOfAFullEvaluation()
+        throws Exception
+    {
+        RuleEngineContext ruleEngineContext = context();
+        Random random = new Random( 42 );
+
+        RuleEngineSession session = ruleEngineContext.toEngineBuilder()
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .enrollment( enrollment() )
+            .events( events() )
+            .build().session();
+
+        assertThat( byUid( session.ruleEffects() ) ).isEqualTo( evaluate( ruleEngineContext, session ) );
+
+        int changedTargets = 0;
+
+        for ( int i = 0; i < 200; i++ )
+        {
+            Map<String, List<RuleEffect>> before = byUid( session.ruleEffects() );
+            List<RuleEffectsChange> changes;
+
+            if ( random.nextInt( 4 ) == 0 )
+            {
+                changes = session.updateAttributeValue( "attribute", VALUES[random.nextInt( VALUES.length )] );
+            }
+            else
+            {
+                changes = session.updateDataValue( "event" + random.nextInt( 3 ),
+                    random.nextBoolean() ? "deA" : "deB", VALUES[random.nextInt( VALUES.length )] );
+            }
+
+            Map<String, List<RuleEffect>> after = evaluate( ruleEngineContext, session );
+
+            assertThat( byUid( session.ruleEffects() ) ).isEqualTo( after );
+
+            for ( RuleEffectsChange change : changes )
+            {
+                List<RuleEffect> ruleEffects = new ArrayList<>( before.get( change.getTrackerObjectUid() ) );
+
+                for ( RuleEffect removed : change.getRemovedRuleEffects() )
+                {
+                    assertThat( ruleEffects.remove( removed ) ).isTrue();
+                }
+
+                ruleEffects.addAll( change.getAddedRuleEffects() );
+
+                assertThat( ruleEffects ).containsOnlyElementsOf( after.get( change.getTrackerObjectUid() ) );
+                assertThat( ruleEffects ).hasSameSizeAs( after.get( change.getTrackerObjectUid() ) );
+                before.remove( change.getTrackerObjectUid() );
+                changedTargets++;
+            }
+
+            // targets without changes kept their effects
+            for ( Map.Entry<String, List<RuleEffect>> entry : before.entrySet() )
+            {
+                assertThat( after.get( entry.getKey() ) ).isEqualTo( entry.getValue() );
+            }
+        }
+
+        assertThat( changedTargets ).isGreaterThan( 50 );
+    }
+
+    @Test
+    public void updatesNotReadByRulesShouldNotChangeEffects()
+    {
+        RuleEngineSession session = context().toEngineBuilder()
+            .enrollment( enrollment() )
+            .events( events() )
+            .build().session();
+
+        assertThat( session.updateDataValue( "event0", "unused", "1" ) ).isEmpty();
+        assertThat( session.events().get( 0 ).dataValues() ).hasSize( 3 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void updateShouldThrowOnUnknownEvent()
+    {
+        context().toEngineBuilder()
+            .enrollment( enrollment() )
+            .build().session().updateDataValue( "unknown", "deA", "1" );
+    }
+
+    @Test( expected = IllegalStateException.class )
+    public void sessionShouldThrowWithoutEnrollment()
+    {
+        context().toEngineBuilder().build().session();
+    }
+
+    private static RuleEngineContext context()
+    {
+        List<RuleVariable> ruleVariables = Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ),
+            RuleVariableNewestEvent.create( "b", "deB", RuleValueType.TEXT ),
+            RuleVariablePreviousEvent.create( "previous", "deA", RuleValueType.NUMERIC ),
+            RuleVariableAttribute.create( "att", "attribute", RuleValueType.TEXT ),
+            RuleVariableCalculatedValue.create( "calc", "", RuleValueType.NUMERIC ),
+            RuleVariableCalculatedValue.create( "calc2", "", RuleValueType.TEXT ) );
+
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "d2:hasValue('a')", Arrays.<RuleAction>asList(
+                RuleActionAssign.create( "#{calc}", "#{a} * 2", null ) ), "", "assign" ),
+            Rule.create( null, 2, "#{calc} > 4", Arrays.<RuleAction>asList(
+                RuleActionAssign.create( "#{calc2}", "'high'", null ),
+                RuleActionDisplayText.createForFeedback( "calc", "#{calc}" ) ), "", "high" ),
+            Rule.create( null, 3, "#{calc2} == 'high'", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "content", "#{previous}", "field" ) ), "", "chained" ),
+            Rule.create( null, null, "A{att} != ''", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "att", "A{att}" ),
+                RuleActionAssign.create( null, "A{att}", "field", AttributeType.TRACKED_ENTITY_ATTRIBUTE ) ),
+                "", "attribute" ),
+            Rule.create( "stage", null, "#{b} == 'x'", Arrays.<RuleAction>asList(
+                RuleActionShowError.create( "content", "#{b}", "field" ) ), "", "stage" ),
+            Rule.create( null, null, "true", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "static", "'static'" ) ), "", "static" ) );
+
+        return getRuleEngineContextBuilder( rules, ruleVariables ).build();
+    }
+
+    private static Map<String, List<RuleEffect>> evaluate( RuleEngineContext ruleEngineContext,
+        RuleEngineSession session )
+        throws Exception
+    {
+        return byUid( ruleEngineContext.toEngineBuilder()
+            .triggerEnvironment( TriggerEnvironment.SERVER )
+            .enrollment( session.enrollment() )
+            .events( session.events() )
+            .build().evaluate().call() );
+    }
+
+    private static Map<String, List<RuleEffect>> byUid( List<RuleEffects> ruleEffects )
+    {
+        Map<String, List<RuleEffect>> byUid = new HashMap<>();
+
+        for ( RuleEffects effects : ruleEffects )
+        {
+            byUid.put( effects.getTrackerObjectUid(), effects.getRuleEffects() );
+        }
+
+        return byUid;
+    }
+
+    private static RuleEnrollment enrollment()
+    {
+        return getEnrollment( "enrollment", new Date( DAY ), RuleAttributeValue.create( "attribute", "1" ) );
+    }
+
+    private static List<RuleEvent> events()
+    {
+        List<RuleEvent> events = new ArrayList<>();
+
+        for ( int i = 0; i < 3; i++ )
+        {
+            Date eventDate = new Date( (i + 1) * DAY );
+
+            events.add( getEvent( "event" + i, i == 2 ? "otherStage" : "stage", eventDate,
+                RuleDataValue.create( eventDate, "stage", "deA", String.valueOf( i + 1 ) ),
+                RuleDataValue.create( eventDate, "stage", "deB", "x" ) ) );
+        }
+
+        return events;
+    }
+}
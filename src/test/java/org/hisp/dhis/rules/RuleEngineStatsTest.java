@@ -0,0 +1,152 @@
+package org.hisp.dhis.rules;
+
+import com.google.common.base.Ticker;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvents;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineStatsTest
+{
+    @Test
+    public void statsShouldBeReadableOverJmx()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+        RuleEngineContext ruleEngineContext = context( metrics );
+        RuleEngine ruleEngine = ruleEngineContext.toEngineBuilder()
+            .enrollment( getEnrollment( "enrollment", new Date( DAY ) ) )
+            .events( getEvents( 10 ) )
+            .build();
+
+        ruleEngine.evaluate().call();
+        ruleEngine.evaluate( getEvents( 11 ).get( 10 ) ).call();
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = RuleEngineStats.register( metrics, "test" );
+
+        try
+        {
+            assertThat( objectName.getKeyProperty( "type" ) ).isEqualTo( "RuleEngine" );
+            // one enrollment and ten events, then one event
+            assertThat( server.getAttribute( objectName, "Evaluations" ) ).isEqualTo( 12L );
+            assertThat( server.getAttribute( objectName, "ValueMapsBuilt" ) ).isEqualTo( 12L );
+            assertThat( (Double) server.getAttribute( objectName, "ExecutionLatency99thPercentile" ) )
+                .isGreaterThan( 0 );
+            assertThat( (Double) server.getAttribute( objectName, "MultipleExecutionLatency50thPercentile" ) )
+                .isGreaterThan( 0 );
+            assertThat( (Double) server.getAttribute( objectName, "ValueMapBuildTimeAverage" ) ).isGreaterThan( 0 );
+            assertThat( (Double) server.getAttribute( objectName, "ExpressionCacheHitRatio" ) ).isEqualTo( 1.0 );
+
+            String[] slowestRules = (String[]) server.getAttribute( objectName, "SlowestRules" );
+
+            assertThat( slowestRules ).hasSize( 2 );
+            assertThat( slowestRules[0] ).matches( "(hasValue|high): .* ms in 12 evaluations" );
+        }
+        finally
+        {
+            RuleEngineStats.unregister( objectName );
+        }
+
+        assertThat( server.isRegistered( objectName ) ).isFalse();
+    }
+
+    @Test
+    public void evaluationsPerSecondShouldBeComputedOverTheWindow()
+        throws Exception
+    {
+        RuleEngineMetrics metrics = new RuleEngineMetrics();
+        final long[] nanos = { 0 };
+        RuleEngineStats stats = new RuleEngineStats( metrics, new Ticker()
+        {
+            @Override
+            public long read()
+            {
+                return nanos[0];
+            }
+        } );
+        RuleEngine ruleEngine = context( metrics ).toEngineBuilder()
+            .events( getEvents( 10 ) )
+            .build();
+
+        ruleEngine.evaluate().call();
+        nanos[0] += TimeUnit.SECONDS.toNanos( 10 );
+
+        assertThat( stats.getEvaluationsPerSecond() ).isEqualTo( stats.getEvaluations() / 10.0 );
+        // reading does not reset the rate seen by other clients
+        assertThat( stats.getEvaluationsPerSecond() ).isEqualTo( stats.getEvaluations() / 10.0 );
+
+        nanos[0] += TimeUnit.SECONDS.toNanos( RuleEngineStats.WINDOW_SECONDS * 2 );
+
+        assertThat( stats.getEvaluationsPerSecond() ).isEqualTo( 0 );
+    }
+
+    @Test
+    public void slowestRulesShouldNotDependOnDefaultLocale()
+        throws Exception
+    {
+        Locale locale = Locale.getDefault();
+        Locale.setDefault( Locale.GERMANY );
+
+        try
+        {
+            RuleEngineMetrics metrics = new RuleEngineMetrics();
+            context( metrics ).toEngineBuilder().events( getEvents( 1 ) ).build().evaluate().call();
+
+            assertThat( new RuleEngineStats( metrics ).getSlowestRules()[0] )
+                .matches( ".*: \\d+\\.\\d{3} ms in 1 evaluations" );
+        }
+        finally
+        {
+            Locale.setDefault( locale );
+        }
+    }
+
+    @Test
+    public void statsShouldBeZeroBeforeEvaluations()
+    {
+        RuleEngineStats stats = new RuleEngineStats( new RuleEngineMetrics() );
+
+        assertThat( stats.getEvaluations() ).isEqualTo( 0 );
+        assertThat( stats.getExecutionLatency50thPercentile() ).isEqualTo( 0 );
+        assertThat( stats.getValueMapBuildTimeAverage() ).isEqualTo( 0 );
+        assertThat( stats.getExpressionCacheHitRatio() ).isEqualTo( 0 );
+        assertThat( stats.getSlowestRules() ).isEmpty();
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void percentileShouldBeAtMostHundred()
+    {
+        new RuleEngineMetrics().snapshot().executionLatencies().percentileNanos( 101 );
+    }
+
+    private static RuleEngineContext context( RuleEngineInstrumentation instrumentation )
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "d2:hasValue('a')", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "a", "#{a} * 2" ) ), "has value", "hasValue" ),
+            Rule.create( null, 2, "#{a} > 5", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "high", "#{a}", "field" ) ), "high", "high" ) );
+
+        return getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ) ) )
+            .instrumentation( instrumentation )
+            .build();
+    }
+}
@@ -0,0 +1,238 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.RuleEngineTestUtils.ExecutorServiceResource;
+import org.hisp.dhis.rules.models.*;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.DAY;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEnrollment;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getEvent;
+import static org.hisp.dhis.rules.RuleEngineTestUtils.getRuleEngineContextBuilder;
+
+@RunWith( JUnit4.class )
+public class RuleEngineStreamTest
+{
+    @org.junit.Rule
+    public final ExecutorServiceResource executor = new ExecutorServiceResource( 4 );
+
+    @Test
+    public void streamShouldPushTheEffectsOfEachEventInOrder()
+        throws Exception
+    {
+        RuleEngineContext ruleEngineContext = context();
+        RuleEngine sequential = ruleEngineContext.toEngineBuilder().build();
+        RuleEngine parallel = ruleEngineContext.toEngineBuilder()
+            .executorService( executor.get() )
+            .parallelThreshold( 5 )
+            .streamWindow( 30 )
+            .build();
+
+        for ( RuleEngine ruleEngine : Arrays.asList( sequential, parallel ) )
+        {
+            EventIterator events = new EventIterator( 100 );
+            List<RuleEffects> ruleEffects = new ArrayList<>();
+
+            ruleEngine.evaluate( events, collect( ruleEffects, events, Integer.MAX_VALUE ) );
+
+            assertThat( ruleEffects ).hasSize( 100 );
+
+            for ( int i = 0; i < 100; i++ )
+            {
+                assertThat( ruleEffects.get( i ).getTrackerObjectType() ).isEqualTo( TrackerObjectType.EVENT );
+                assertThat( ruleEffects.get( i ).getTrackerObjectUid() ).isEqualTo( "event" + i );
+                assertThat( ruleEffects.get( i ).getRuleEffects() )
+                    .isEqualTo( sequential.evaluate( event( i ) ).call() );
+            }
+        }
+    }
+
+    @Test
+    public void streamShouldHoldOneWindowOfEvents()
+    {
+        EventIterator events = new EventIterator( 1000 );
+
+        context().toEngineBuilder()
+            .executorService( executor.get() )
+            .parallelThreshold( 1 )
+            .streamWindow( 10 )
+            .build().evaluate( events, collect( new ArrayList<RuleEffects>(), events, 10 ) );
+
+        assertThat( events.read ).isEqualTo( 1000 );
+    }
+
+    @Test
+    public void sequentialStreamShouldHoldOneEvent()
+    {
+        EventIterator events = new EventIterator( 1000 );
+
+        context().toEngineBuilder().build().evaluate( events, collect( new ArrayList<RuleEffects>(), events, 1 ) );
+
+        assertThat( events.read ).isEqualTo( 1000 );
+    }
+
+    @Test
+    public void streamShouldBuildTheTimelineOfTheEventsOnce()
+        throws Exception
+    {
+        CountingList ruleEvents = new CountingList();
+
+        for ( int i = 0; i < 10; i++ )
+        {
+            ruleEvents.add( event( i ) );
+        }
+
+        RuleEnrollment enrollment = getEnrollment( "enrollment", new Date( DAY ) );
+        RuleEngineContext ruleEngineContext = context();
+        RuleEngine ruleEngine = ruleEngineContext.toEngineBuilder()
+            .enrollment( enrollment )
+            .events( ruleEvents )
+            .build();
+        int copies = ruleEvents.copies;
+
+        EventIterator events = new EventIterator( 20, 10 );
+        List<RuleEffects> ruleEffects = new ArrayList<>();
+
+        new RuleEngineStreamExecution( ruleEngineContext, enrollment, ruleEvents, false, null, 1, 1, events,
+            collect( ruleEffects, events, 1 ), ValueMapTemplate.create( ruleEngineContext.constantsValues(), null,
+            ruleEngineContext.clock().currentDate() ) ).run();
+
+        assertThat( ruleEvents.copies - copies ).isEqualTo( 1 );
+        assertThat( ruleEffects ).hasSize( 20 );
+
+        for ( int i = 0; i < 20; i++ )
+        {
+            assertThat( ruleEffects.get( i ).getRuleEffects() )
+                .isEqualTo( ruleEngine.evaluate( event( i + 10 ) ).call() );
+        }
+    }
+
+    @Test
+    public void streamShouldEvaluateEventsWithTheUidOfAnEventOfTheEngine()
+    {
+        RuleEngine ruleEngine = context().toEngineBuilder()
+            .events( Arrays.asList( event( 0 ), event( 1 ), event( 2 ) ) )
+            .build();
+
+        EventIterator events = new EventIterator( 3 );
+        List<RuleEffects> ruleEffects = new ArrayList<>();
+
+        ruleEngine.evaluate( events, collect( ruleEffects, events, 1 ) );
+
+        assertThat( ruleEffects ).hasSize( 3 );
+        assertThat( ruleEffects.get( 1 ).getTrackerObjectUid() ).isEqualTo( "event1" );
+        assertThat( ruleEffects.get( 1 ).getRuleEffects() ).hasSize( 1 );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void streamWindowShouldBePositive()
+    {
+        context().toEngineBuilder().streamWindow( 0 );
+    }
+
+    /**
+     * @return a sink adding the effects to the list, which fails if more than
+     * maxPending events were read but not pushed yet.
+     */
+    private static RuleEffectsSink collect( final List<RuleEffects> ruleEffects, final EventIterator events,
+        final int maxPending )
+    {
+        return new RuleEffectsSink()
+        {
+            @Override
+            public void accept( RuleEffects effects )
+            {
+                ruleEffects.add( effects );
+                assertThat( events.read - ruleEffects.size() ).isLessThan( maxPending );
+            }
+        };
+    }
+
+    private static RuleEngineContext context()
+    {
+        List<Rule> rules = Arrays.asList(
+            Rule.create( null, 1, "#{a} > 2", Arrays.<RuleAction>asList(
+                RuleActionShowWarning.create( "high", "#{a}", "field" ) ), "", "high" ),
+            Rule.create( null, 2, "d2:hasValue('a')", Arrays.<RuleAction>asList(
+                RuleActionDisplayText.createForFeedback( "a", "#{a} * 2" ) ), "", "value" ) );
+
+        return getRuleEngineContextBuilder( rules, Arrays.<RuleVariable>asList(
+            RuleVariableCurrentEvent.create( "a", "deA", RuleValueType.NUMERIC ) ) ).build();
+    }
+
+    private static RuleEvent event( int i )
+    {
+        Date eventDate = new Date( (i + 1) * DAY );
+        RuleDataValue[] dataValues = i % 5 == 0 ? new RuleDataValue[0] : new RuleDataValue[]{
+            RuleDataValue.create( eventDate, "stage", "deA", String.valueOf( i % 5 ) ) };
+
+        return getEvent( "event" + i, "stage", eventDate, dataValues );
+    }
+
+    /**
+     * Creates the events as they are read, counting them.
+     */
+    private static final class EventIterator
+        implements Iterator<RuleEvent>
+    {
+        private final int size;
+
+        private final int offset;
+
+        private volatile int read;
+
+        EventIterator( int size )
+        {
+            this( size, 0 );
+        }
+
+        EventIterator( int size, int offset )
+        {
+            this.size = size;
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            return read < size;
+        }
+
+        @Override
+        public RuleEvent next()
+        {
+            return event( offset + read++ );
+        }
+
+        @Override
+        public void remove()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Counts the copies of the events, which are made for each timeline of
+     * the events built.
+     */
+    private static final class CountingList
+        extends ArrayList<RuleEvent>
+    {
+        private int copies;
+
+        @Override
+        public Object[] toArray()
+        {
+            copies++;
+            return super.toArray();
+        }
+    }
+}
@@ -30,16 +30,28 @@ package org.hisp.dhis.rules;
 
 import com.google.common.collect.Lists;
 import org.hisp.dhis.rules.models.*;
+import org.junit.rules.ExternalResource;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
 
 /**
  * @author Zubair Asghar
  */
-public class RuleEngineTestUtil
+public class RuleEngineTestUtils
 {
+    public static final long DAY = 24L * 60 * 60 * 1000;
+
+    public static final Date NOW = getDate( 2020, Calendar.MARCH, 15 );
+
     public static RuleEngine getRuleEngine( Rule rule, List<RuleVariable> ruleVariables )
     {
         return getRuleEngineBuilder( Arrays.asList( rule ), ruleVariables )
@@ -82,4 +94,107 @@ public class RuleEngineTestUtil
             .enrollment( ruleEnrollment )
             .events( ruleEvents );
     }
+
+    public static RuleEngineContext.Builder getRuleEngineContextBuilder( List<Rule> rules,
+        List<RuleVariable> ruleVariables )
+    {
+        return RuleEngineContext.builder()
+            .rules( rules )
+            .ruleVariables( ruleVariables )
+            .supplementaryData( new HashMap<String, List<String>>() )
+            .constantsValue( new HashMap<String, String>() );
+    }
+
+    public static RuleEnrollment getEnrollment( String uid, Date date, RuleAttributeValue... attributeValues )
+    {
+        return RuleEnrollment.create( uid, date, date, RuleEnrollment.Status.ACTIVE, "ou", "ou_code",
+            Arrays.asList( attributeValues ), "program" );
+    }
+
+    public static RuleEvent getEvent( String uid, String programStage, Date eventDate, RuleDataValue... dataValues )
+    {
+        return RuleEvent.create( uid, programStage, RuleEvent.Status.ACTIVE, eventDate, eventDate, "ou", null,
+            Arrays.asList( dataValues ), "stage name", null );
+    }
+
+    /**
+     * @return events of the program stage "stage", one day apart, each with
+     * its index as the value of the data element "deA".
+     */
+    public static List<RuleEvent> getEvents( int count )
+    {
+        List<RuleEvent> events = new ArrayList<>( count );
+
+        for ( int i = 0; i < count; i++ )
+        {
+            Date eventDate = new Date( (i + 1) * DAY );
+
+            events.add( getEvent( "event" + i, "stage", eventDate,
+                RuleDataValue.create( eventDate, "stage", "deA", String.valueOf( i ) ) ) );
+        }
+
+        return events;
+    }
+
+    /**
+     * @return noon of the day, in the default time zone.
+     */
+    public static Date getDate( int year, int month, int day )
+    {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set( year, month, day, 12, 0 );
+        return calendar.getTime();
+    }
+
+    /**
+     * Asserts that the effects are those expected, for the same tracker
+     * objects and in the same order.
+     */
+    public static void assertSameEffects( List<RuleEffects> ruleEffects, List<RuleEffects> expected )
+    {
+        assertThat( ruleEffects ).hasSameSizeAs( expected );
+
+        for ( int i = 0; i < expected.size(); i++ )
+        {
+            assertThat( ruleEffects.get( i ).getTrackerObjectType() )
+                .isEqualTo( expected.get( i ).getTrackerObjectType() );
+            assertThat( ruleEffects.get( i ).getTrackerObjectUid() )
+                .isEqualTo( expected.get( i ).getTrackerObjectUid() );
+            assertThat( ruleEffects.get( i ).getRuleEffects() ).isEqualTo( expected.get( i ).getRuleEffects() );
+        }
+    }
+
+    /**
+     * Executor of a test, shut down after it.
+     */
+    public static final class ExecutorServiceResource
+        extends ExternalResource
+    {
+        private final int threads;
+
+        private ExecutorService executorService;
+
+        public ExecutorServiceResource( int threads )
+        {
+            this.threads = threads;
+        }
+
+        public ExecutorService get()
+        {
+            return executorService;
+        }
+
+        @Override
+        protected void before()
+        {
+            executorService = Executors.newFixedThreadPool( threads );
+        }
+
+        @Override
+        protected void after()
+        {
+            executorService.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,113 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.RuleDataValue;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class RuleEventTimelineTest
+{
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    @Test
+    public void valuesShouldMatchSortingEventsForEachTarget()
+    {
+        Random random = new Random( 42 );
+
+        for ( int run = 0; run < 20; run++ )
+        {
+            List<RuleEvent> events = new ArrayList<>();
+
+            for ( int i = 0; i < 30; i++ )
+            {
+                events.add( event( "event" + i, random ) );
+            }
+
+            RuleEventTimeline timeline = new RuleEventTimeline( events );
+
+            assertThat( timeline.allEventValues( null ) ).isEqualTo( sortAndAggregate( events, null ) );
+
+            for ( RuleEvent target : events )
+            {
+                assertThat( timeline.contains( target ) ).isTrue();
+                assertThat( timeline.allEventValues( target ) ).isEqualTo( sortAndAggregate( events, target ) );
+            }
+
+            RuleEvent newEvent = event( "new", random );
+
+            assertThat( timeline.contains( newEvent ) ).isFalse();
+            assertThat( timeline.allEventValues( newEvent ) ).isEqualTo( sortAndAggregate( events, newEvent ) );
+        }
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void valuesShouldNotBeModifiable()
+    {
+        Date eventDate = new Date( DAY );
+        RuleEvent event = RuleEvent.create( "event", "stage", RuleEvent.Status.ACTIVE, eventDate, eventDate, "ou",
+            null, Arrays.asList( RuleDataValue.create( eventDate, "stage", "de", "value" ) ), "stage name", null );
+        RuleEventTimeline timeline = new RuleEventTimeline( Arrays.asList( event ) );
+
+        timeline.allEventValues( event ).get( "de" ).clear();
+    }
+
+    private static RuleEvent event( String uid, Random random )
+    {
+        // few distinct dates, so that many events share the same date
+        Date eventDate = new Date( random.nextInt( 5 ) * DAY );
+        List<RuleDataValue> dataValues = new ArrayList<>();
+
+        for ( int i = random.nextInt( 4 ); i > 0; i-- )
+        {
+            dataValues.add( RuleDataValue.create( new Date( random.nextInt( 5 ) * DAY ), "stage",
+                "de" + random.nextInt( 4 ), uid + "_" + i ) );
+        }
+
+        return RuleEvent.create( uid, "stage", RuleEvent.Status.ACTIVE, eventDate, eventDate, "ou", null,
+            dataValues, "stage name", null );
+    }
+
+    /**
+     * What building the value map for a target event used to do.
+     */
+    private static Map<String, List<RuleDataValue>> sortAndAggregate( List<RuleEvent> ruleEvents, RuleEvent target )
+    {
+        Map<String, List<RuleDataValue>> allEventsValues = new HashMap<>();
+        List<RuleEvent> events = new ArrayList<>( ruleEvents );
+
+        if ( target != null )
+        {
+            events.add( target );
+        }
+
+        Collections.sort( events, RuleEvent.EVENT_DATE_COMPARATOR );
+
+        for ( RuleEvent ruleEvent : events )
+        {
+            for ( RuleDataValue ruleDataValue : ruleEvent.dataValues() )
+            {
+                if ( !allEventsValues.containsKey( ruleDataValue.dataElement() ) )
+                {
+                    allEventsValues.put( ruleDataValue.dataElement(), new ArrayList<RuleDataValue>() );
+                }
+
+                allEventsValues.get( ruleDataValue.dataElement() ).add( ruleDataValue );
+            }
+        }
+
+        return allEventsValues;
+    }
+}
@@ -0,0 +1,177 @@
+package org.hisp.dhis.rules;
+
+import org.hisp.dhis.rules.models.AttributeType;
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleActionAssign;
+import org.hisp.dhis.rules.models.RuleActionShowWarning;
+import org.hisp.dhis.rules.models.RuleDataValue;
+import org.hisp.dhis.rules.models.RuleEnrollment;
+import org.hisp.dhis.rules.models.RuleEvent;
+import org.hisp.dhis.rules.parser.expression.CompiledExpressionCache;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@RunWith( JUnit4.class )
+public class RulePartitionsTest
+{
+    private static final String[] PROGRAM_STAGES = { null, "", "stage1", "stage2", "stage3" };
+
+    private static final Integer[] PRIORITIES = { null, 1, 2, 3 };
+
+    @Test
+    public void rulesShouldMatchFilteringAndSortingForEachTarget()
+    {
+        Random random = new Random( 42 );
+
+        for ( int run = 0; run < 20; run++ )
+        {
+            List<Rule> rules = new ArrayList<>();
+
+            for ( int i = 0; i < 20; i++ )
+            {
+                rules.add( rule( "rule" + i, random ) );
+            }
+
+            RulePartitions rulePartitions = partitions( rules );
+            RuleEnrollment ruleEnrollment = mock( RuleEnrollment.class );
+
+            assertThat( rulePartitions.rules() ).isEqualTo( sorted( rules ) );
+
+            assertThat( rulePartitions.rules( ruleEnrollment ) )
+                .isEqualTo( sorted( RuleEngineFilter.filterRules( rules, ruleEnrollment ) ) );
+
+            for ( String programStage : Arrays.asList( "", "stage1", "stage2", "stage3", "unknown" ) )
+            {
+                RuleEvent ruleEvent = event( programStage );
+
+                assertThat( rulePartitions.rules( ruleEvent ) )
+                    .isEqualTo( sorted( RuleEngineFilter.filterRules( rules, ruleEvent ) ) );
+            }
+        }
+    }
+
+    @Test
+    public void rulesShouldBeSharedBetweenEventsOfTheSameStage()
+    {
+        RulePartitions rulePartitions = partitions( Arrays.asList(
+            Rule.create( "stage", null, "true", new ArrayList<RuleAction>(), "", "rule" ) ) );
+
+        assertThat( rulePartitions.rules( event( "stage" ) ) ).isSameAs( rulePartitions.rules( event( "stage" ) ) );
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void rulesShouldNotBeModifiable()
+    {
+        RulePartitions rulePartitions = partitions( new ArrayList<Rule>() );
+
+        rulePartitions.rules( event( "stage" ) ).clear();
+    }
+
+    @Test
+    public void variablesShouldBeReadByTheRulesOfTheTarget()
+    {
+        Rule enrollmentRule = Rule.create( null, null, "#{a} > 1 && d2:hasValue('b')",
+            Arrays.<RuleAction>asList( RuleActionAssign.create( null, "A{c}", "field",
+                AttributeType.TRACKED_ENTITY_ATTRIBUTE ) ), "", "enrollmentRule" );
+        Rule stageRule = Rule.create( "stage", null, "d2:count(#{d}) > 0",
+            Arrays.<RuleAction>asList( RuleActionAssign.create( "#{calculated}", "d2:lastEventDate('e')", null ),
+                RuleActionShowWarning.create( "content", "#{f}", "field", AttributeType.TRACKED_ENTITY_ATTRIBUTE ) ),
+            "", "stageRule" );
+        Rule otherStageRule = Rule.create( "otherStage", null, "d2:inOrgUnitGroup('group') && C{Gfd3ppDfq8E}",
+            new ArrayList<RuleAction>(), "", "otherStageRule" );
+
+        RulePartitions rulePartitions = partitions( Arrays.asList( enrollmentRule, stageRule, otherStageRule ) );
+
+        assertThat( rulePartitions.variables( mock( RuleEnrollment.class ) ) ).containsOnly( "a", "b", "c" );
+        assertThat( rulePartitions.variables( event( "stage" ) ) ).containsOnly( "a", "b", "d", "e" );
+        assertThat( rulePartitions.variables( event( "otherStage" ) ) )
+            .containsOnly( "a", "b", "org_unit", "Gfd3ppDfq8E" );
+        assertThat( rulePartitions.variables( event( "unknown" ) ) ).containsOnly( "a", "b" );
+        assertThat( rulePartitions.variables() ).containsOnly( "a", "b", "c", "d", "e", "f", "org_unit",
+            "Gfd3ppDfq8E" );
+    }
+
+    @Test
+    public void variablesShouldNotBeKnownForComputedVariableNames()
+    {
+        Rule rule = Rule.create( null, null, "d2:lastEventDate(#{name}) != ''", new ArrayList<RuleAction>(), "",
+            "rule" );
+
+        assertThat( partitions( Arrays.asList( rule ) ).variables() ).isNull();
+    }
+
+    private static RulePartitions partitions( List<Rule> rules )
+    {
+        return new RulePartitions( rules, new CompiledExpressionCache( rules ) );
+    }
+
+    private static Rule rule( String uid, Random random )
+    {
+        List<RuleAction> ruleActions = new ArrayList<>();
+
+        for ( int i = random.nextInt( 4 ); i > 0; i-- )
+        {
+            AttributeType attributeType = AttributeType.values()[random.nextInt( AttributeType.values().length )];
+
+            ruleActions.add( random.nextBoolean() ?
+                RuleActionAssign.create( null, "data", "field" + i, attributeType ) :
+                RuleActionShowWarning.create( "content", null, "field" + i, attributeType ) );
+        }
+
+        return Rule.create( PROGRAM_STAGES[random.nextInt( PROGRAM_STAGES.length )],
+            PRIORITIES[random.nextInt( PRIORITIES.length )], "true", ruleActions, uid, uid );
+    }
+
+    private static RuleEvent event( String programStage )
+    {
+        return RuleEvent.create( "event", programStage, RuleEvent.Status.ACTIVE, new Date(), new Date(), "ou", null,
+            new ArrayList<RuleDataValue>(), "stage name", null );
+    }
+
+    @Test
+    public void sortByPriorityShouldKeepTheOrderOfEqualPriorities()
+    {
+        Rule first = Rule.create( null, 2, "true", new ArrayList<RuleAction>(), "first", "first" );
+        Rule second = Rule.create( null, null, "true", new ArrayList<RuleAction>(), "second", "second" );
+        Rule third = Rule.create( null, 1, "true", new ArrayList<RuleAction>(), "third", "third" );
+        Rule fourth = Rule.create( null, 2, "true", new ArrayList<RuleAction>(), "fourth", "fourth" );
+        Rule fifth = Rule.create( null, null, "true", new ArrayList<RuleAction>(), "fifth", "fifth" );
+
+        assertThat( RuleEngineFilter.sortByPriority( Arrays.asList( first, second, third, fourth, fifth ) ) )
+            .containsExactly( third, first, fourth, second, fifth );
+    }
+
+    /**
+     * What the rule condition evaluator used to do for each evaluation.
+     */
+    private static List<Rule> sorted( List<Rule> rules )
+    {
+        List<Rule> sortedRules = new ArrayList<>( rules );
+        Collections.sort( sortedRules, new Comparator<Rule>()
+        {
+            @Override
+            public int compare( Rule rule1, Rule rule2 )
+            {
+                Integer priority1 = rule1.priority() == null ? Integer.MAX_VALUE : rule1.priority();
+                Integer priority2 = rule2.priority() == null ? Integer.MAX_VALUE : rule2.priority();
+
+                return priority1.compareTo( priority2 );
+            }
+        } );
+
+        return sortedRules;
+    }
+}
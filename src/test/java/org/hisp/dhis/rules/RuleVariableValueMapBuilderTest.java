@@ -14,7 +14,10 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
@@ -137,6 +140,37 @@ public class RuleVariableValueMapBuilderTest
             .isTypeOf( RuleValueType.TEXT ).hasCandidates( "test_value_two" );
     }
 
+    @Test
+    public void variablesNotReadByRulesShouldNotBeCreated()
+        throws ParseException
+    {
+        RuleVariable ruleVariableOne = RuleVariableCurrentEvent.create(
+            "test_variable_one", "test_dataelement_one", RuleValueType.TEXT );
+        RuleVariable ruleVariableTwo = RuleVariableCurrentEvent.create(
+            "test_variable_two", "test_dataelement_two", RuleValueType.TEXT );
+
+        Date eventDate = dateFormat.parse( "2015-01-01" );
+
+        RuleEvent currentEvent = RuleEvent.create( "test_event_uid", "test_program_stage",
+            RuleEvent.Status.ACTIVE, eventDate, eventDate, "", null, Arrays.asList(
+                RuleDataValue.create( eventDate, "test_program_stage",
+                    "test_dataelement_one", "test_value_one" ),
+                RuleDataValue.create( eventDate, "test_program_stage",
+                    "test_dataelement_two", "test_value_two" ) ), "", null);
+
+        Map<String, RuleVariableValue> valueMap = RuleVariableValueMapBuilder.target( currentEvent )
+            .ruleVariables( Arrays.asList( ruleVariableOne, ruleVariableTwo ) )
+            .variableNames( new HashSet<>( Arrays.asList( "test_variable_two" ) ) )
+            .build();
+
+        assertThat( valueMap ).doesNotContainKey( "test_variable_one" );
+        assertThatVariable( valueMap.get( "test_variable_two" ) ).hasValue( "test_value_two" )
+            .isTypeOf( RuleValueType.TEXT ).hasCandidates( "test_value_two" );
+
+        // environment variables are always created
+        assertThatVariable( valueMap.get( "event_id" ) ).hasValue( "test_event_uid" );
+    }
+
     @Test
     public void newestEventProgramVariableShouldContainValueFromNewestContextEvent()
         throws ParseException
@@ -749,4 +783,33 @@ public class RuleVariableValueMapBuilderTest
             .ruleEvents( Arrays.asList( ruleEvent ) )
             .build();
     }
+
+    @Test
+    public void valueMapsShouldShareTheValuesOfTheirTemplate()
+    {
+        ValueMapTemplate valueMapTemplate = ValueMapTemplate.create( Collections.singletonMap( "pi", "3.14" ),
+            TriggerEnvironment.SERVER, RuleEngineClock.SYSTEM.currentDate() );
+        List<Map<String, RuleVariableValue>> valueMaps = new ArrayList<>();
+
+        for ( int i = 0; i < 2; i++ )
+        {
+            RuleEnrollment ruleEnrollment = RuleEnrollment.create( "enrollment" + i, new Date(), new Date(),
+                RuleEnrollment.Status.ACTIVE, "", null, new ArrayList<RuleAttributeValue>(), "" );
+
+            valueMaps.add( RuleVariableValueMapBuilder.target( ruleEnrollment )
+                .ruleVariables( new ArrayList<RuleVariable>() )
+                .triggerEnvironment( TriggerEnvironment.SERVER )
+                .constantValueMap( Collections.singletonMap( "pi", "3.14" ) )
+                .valueMapTemplate( valueMapTemplate )
+                .build() );
+        }
+
+        for ( String name : Arrays.asList( "current_date", "environment", "pi" ) )
+        {
+            assertThat( valueMaps.get( 0 ).get( name ) ).isNotNull();
+            assertThat( valueMaps.get( 1 ).get( name ) ).isSameAs( valueMaps.get( 0 ).get( name ) );
+        }
+
+        assertThat( valueMaps.get( 1 ).get( "enrollment_id" ).value() ).isEqualTo( "enrollment1" );
+    }
 }
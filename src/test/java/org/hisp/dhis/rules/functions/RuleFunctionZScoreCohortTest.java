@@ -0,0 +1,152 @@
+package org.hisp.dhis.rules.functions;
+
+/*
+ * Copyright (c) 2004-2018, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.hisp.dhis.rules.RuleVariableValue;
+import org.hisp.dhis.rules.parser.expression.CompiledExpression;
+import org.hisp.dhis.rules.parser.expression.EvaluationContext;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.assertj.core.api.Java6Assertions.within;
+
+@RunWith( JUnit4.class )
+public class RuleFunctionZScoreCohortTest
+{
+    private final ExecutorService executorService = Executors.newFixedThreadPool( 4 );
+
+    @After
+    public void tearDown()
+    {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void cohortShouldMatchFunction()
+    {
+        RuleFunctionZScore[] functions = { new RuleFunctionZScoreWFA(), new RuleFunctionZScoreHFA(),
+            new RuleFunctionZScoreWFH() };
+        String[] names = { "d2:zScoreWFA", "d2:zScoreHFA", "d2:zScoreWFH" };
+        EvaluationContext context = new EvaluationContext( Collections.<String, RuleVariableValue>emptyMap(),
+            Collections.<String, List<String>>emptyMap() );
+
+        for ( int f = 0; f < functions.length; f++ )
+        {
+            float[] parameters = new float[500];
+            float[] weights = new float[500];
+            byte[] genders = new byte[500];
+            float[] zScores = new float[500];
+            Random random = new Random( f );
+
+            for ( int i = 0; i < parameters.length; i++ )
+            {
+                parameters[i] = f == 2 ? 45 + random.nextInt( 150 ) * 0.5f : random.nextInt( 60 );
+                weights[i] = f == 0 ? 2 + random.nextInt( 200 ) * 0.1f :
+                    f == 1 ? 40 + random.nextInt( 800 ) * 0.1f : 1 + random.nextInt( 300 ) * 0.1f;
+                genders[i] = (byte) random.nextInt( 2 );
+            }
+
+            functions[f].zScores( parameters, weights, genders, zScores );
+
+            for ( int i = 0; i < parameters.length; i++ )
+            {
+                String expression = names[f] + "(" + parameters[i] + ", " + weights[i] + ", '" +
+                    (genders[i] == 0 ? "male" : "female") + "')";
+                Object zScore;
+
+                try
+                {
+                    zScore = CompiledExpression.compile( expression ).root().evaluate( context );
+                }
+                catch ( IllegalArgumentException e )
+                {
+                    // no row for the parameter
+                    assertThat( zScores[i] ).isNaN();
+                    continue;
+                }
+
+                assertThat( zScores[i] ).isCloseTo( Float.parseFloat( (String) zScore ), within( 0.0051f ) );
+            }
+        }
+    }
+
+    @Test
+    public void cohortShouldHaveNaNForMissingRows()
+    {
+        float[] zScores = new float[3];
+
+        new RuleFunctionZScoreWFA().zScores( new float[] { 1.5f, 1, 1 }, new float[] { 4.8f, Float.NaN, 4.8f },
+            new byte[] { 1, 1, 1 }, zScores );
+
+        assertThat( zScores[0] ).isNaN();
+        assertThat( zScores[1] ).isNaN();
+        assertThat( zScores[2] ).isEqualTo( 1f );
+    }
+
+    @Test
+    public void parallelCohortShouldMatchSequentialCohort()
+    {
+        int size = 3 * RuleFunctionZScore.COHORT_CHUNK + 17;
+        float[] parameters = new float[size];
+        float[] weights = new float[size];
+        byte[] genders = new byte[size];
+        Random random = new Random( 42 );
+
+        for ( int i = 0; i < size; i++ )
+        {
+            parameters[i] = random.nextInt( 60 );
+            weights[i] = 2 + random.nextInt( 200 ) * 0.1f;
+            genders[i] = (byte) random.nextInt( 2 );
+        }
+
+        float[] sequential = new float[size];
+        float[] parallel = new float[size];
+        RuleFunctionZScoreWFA function = new RuleFunctionZScoreWFA();
+
+        function.zScores( parameters, weights, genders, sequential );
+        function.zScores( parameters, weights, genders, parallel, executorService );
+
+        assertThat( parallel ).isEqualTo( sequential );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void cohortArraysShouldHaveTheSameLength()
+    {
+        new RuleFunctionZScoreWFA().zScores( new float[2], new float[2], new byte[1], new float[2] );
+    }
+}
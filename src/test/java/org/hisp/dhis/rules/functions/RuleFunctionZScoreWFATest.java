@@ -121,6 +121,24 @@ public class RuleFunctionZScoreWFATest
         assertZScore( "1", "abc", "1", "2.40" );
     }
 
+    @Test( expected = IllegalArgumentException.class )
+    public void testExceptionWeightIsNotANumber()
+    {
+        assertZScore( "1", "NaN", "1", "0" );
+    }
+
+    @Test( expected = IllegalArgumentException.class )
+    public void testExceptionIfParameterIsNotInTable()
+    {
+        assertZScore( "1.5", "4.8", "1", "1" );
+    }
+
+    @Test
+    public void testZscoreAtMedian()
+    {
+        assertZScore( "1", "4.2", "1", "0" );
+    }
+
     private void assertZScore( String parameter, String weight, String gender, String zScore )
     {
         when( visitor.castStringVisit( mockedFirstExpr ) ).thenReturn( parameter );
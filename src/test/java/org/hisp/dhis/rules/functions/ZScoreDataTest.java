@@ -0,0 +1,85 @@
+package org.hisp.dhis.rules.functions;
+
+/*
+ * Copyright (c) 2004-2018, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class ZScoreDataTest
+{
+    @Test
+    public void tablesShouldHaveSortedRows()
+    {
+        for ( ZScoreData.Table table : ZScoreData.Table.values() )
+        {
+            float[][] rows = ZScoreData.rows( table );
+
+            assertThat( rows ).isNotEmpty();
+
+            for ( int i = 0; i < rows.length; i++ )
+            {
+                assertThat( rows[i] ).hasSize( ZScoreData.ROW_LENGTH );
+
+                if ( i > 0 )
+                {
+                    assertThat( rows[i][0] ).isGreaterThan( rows[i - 1][0] );
+                }
+
+                for ( int j = 2; j < ZScoreData.ROW_LENGTH; j++ )
+                {
+                    assertThat( rows[i][j] ).isGreaterThan( rows[i][j - 1] );
+                }
+            }
+        }
+    }
+
+    @Test
+    public void tablesShouldHoldReferenceData()
+    {
+        assertThat( ZScoreData.rows( ZScoreData.Table.WFA_GIRL )[0] )
+            .containsExactly( 0f, 2.0f, 2.4f, 2.8f, 3.2f, 3.7f, 4.2f, 4.8f );
+        assertThat( ZScoreData.rows( ZScoreData.Table.WFA_BOY ) ).hasSize( 60 );
+        assertThat( ZScoreData.rows( ZScoreData.Table.WFH_GIRL ) ).hasSize( 151 );
+        assertThat( ZScoreData.rows( ZScoreData.Table.WFA_GIRL ) )
+            .isSameAs( ZScoreData.rows( ZScoreData.Table.WFA_GIRL ) );
+    }
+
+    @Test
+    public void tablesShouldMatchMaps()
+    {
+        assertThat( ZScoreTable.getZscoreHFATableBoy() ).hasSize( 61 );
+        assertThat( ZScoreTable.getZscoreHFATableBoy().get( new ZScoreTableKey( (byte) 0, 0f ) ) )
+            .containsKeys( ZScoreData.rows( ZScoreData.Table.HFA_BOY )[0][1] )
+            .hasSize( 7 );
+    }
+}
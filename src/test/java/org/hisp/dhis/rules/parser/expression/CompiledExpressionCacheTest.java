@@ -0,0 +1,104 @@
+package org.hisp.dhis.rules.parser.expression;
+
+import org.hisp.dhis.rules.models.Rule;
+import org.hisp.dhis.rules.models.RuleAction;
+import org.hisp.dhis.rules.models.RuleActionDisplayText;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+@RunWith( JUnit4.class )
+public class CompiledExpressionCacheTest
+{
+    @Test
+    public void rulesShouldBeCompiledWhenCacheIsCreated()
+    {
+        RuleAction ruleAction = RuleActionDisplayText.createForFeedback( "test", "d2:ceil(#{test})" );
+        Rule rule = Rule.create( null, null, "#{test} > 3", Arrays.asList( ruleAction ), "", "" );
+
+        CompiledExpressionCache cache = new CompiledExpressionCache( Arrays.asList( rule ) );
+
+        assertThat( cache.size() ).isEqualTo( 2 );
+        assertThat( cache.get( "#{test} > 3" ).isValid() ).isTrue();
+        assertThat( cache.get( "#{test} > 3" ).root() ).isNotNull();
+        assertThat( cache.size() ).isEqualTo( 2 );
+    }
+
+    @Test
+    public void sameExpressionShouldBeCompiledOnlyOnce()
+    {
+        CompiledExpressionCache cache = new CompiledExpressionCache( new ArrayList<Rule>() );
+
+        CompiledExpression first = cache.get( "d2:hasValue('test')" );
+        CompiledExpression second = cache.get( "d2:hasValue('test')" );
+
+        assertThat( second ).isSameAs( first );
+        assertThat( cache.size() ).isEqualTo( 1 );
+    }
+
+    @Test
+    public void invalidExpressionShouldBeFlagged()
+    {
+        CompiledExpressionCache cache = new CompiledExpressionCache( new ArrayList<Rule>() );
+
+        CompiledExpression compiledExpression = cache.get( "#{test} >" );
+
+        assertThat( compiledExpression.isValid() ).isFalse();
+        assertThat( compiledExpression.errorMessage() ).isNotNull();
+        assertThat( compiledExpression.root() ).isNull();
+        assertThat( cache.get( "#{test} >" ) ).isSameAs( compiledExpression );
+    }
+
+    @Test
+    public void emptyExpressionShouldNotBeCached()
+    {
+        CompiledExpressionCache cache = new CompiledExpressionCache(
+            Arrays.asList( mock( Rule.class ), mock( Rule.class ) ) );
+
+        assertThat( cache.get( "" ).isEmpty() ).isTrue();
+        assertThat( cache.get( null ).isEmpty() ).isTrue();
+        assertThat( cache.size() ).isEqualTo( 0 );
+    }
+
+    @Test
+    public void expressionsOutsideTheRulesShouldBeBounded()
+    {
+        Rule rule = Rule.create( null, 1, "#{test} > 3", Arrays.<RuleAction>asList(
+            RuleActionDisplayText.createForFeedback( "content", "#{test}" ) ), "rule", "rule" );
+        CompiledExpressionCache cache = new CompiledExpressionCache( Arrays.asList( rule ) );
+
+        for ( int i = 0; i < 2 * CompiledExpressionCache.MAX_OTHER_EXPRESSIONS; i++ )
+        {
+            assertThat( cache.get( "#{test} > " + i ).isValid() ).isTrue();
+        }
+
+        assertThat( cache.size() ).isLessThanOrEqualTo( 2 + CompiledExpressionCache.MAX_OTHER_EXPRESSIONS );
+        assertThat( cache.get( "#{test} > 3" ) ).isSameAs( cache.get( "#{test} > 3" ) );
+        assertThat( cache.get( "#{test}" ) ).isSameAs( cache.get( "#{test}" ) );
+    }
+
+    @Test
+    public void expressionsOutsideTheRulesShouldNotTakeInvariantSlots()
+    {
+        Rule rule = Rule.create( null, 1, "#{invariant} * 2 > 3", Arrays.<RuleAction>asList(
+            RuleActionDisplayText.createForFeedback( "content", "#{invariant} * 2" ) ), "rule", "rule" );
+        CompiledExpressionCache cache = new CompiledExpressionCache( Arrays.asList( rule ), null,
+            Collections.singleton( "invariant" ) );
+        int size = cache.invariantValues().size();
+
+        for ( int i = 0; i < 2 * CompiledExpressionCache.MAX_OTHER_EXPRESSIONS; i++ )
+        {
+            assertThat( cache.get( "#{invariant} * 3 > " + i ).isValid() ).isTrue();
+        }
+
+        assertThat( size ).isGreaterThan( 0 );
+        assertThat( cache.invariantValues().size() ).isEqualTo( size );
+    }
+}
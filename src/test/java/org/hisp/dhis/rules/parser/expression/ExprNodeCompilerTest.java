@@ -0,0 +1,210 @@
+package org.hisp.dhis.rules.parser.expression;
+
+import org.hisp.dhis.antlr.Parser;
+import org.hisp.dhis.rules.ItemValueType;
+import org.hisp.dhis.rules.RuleVariableValue;
+import org.hisp.dhis.rules.models.RuleValueType;
+import org.hisp.dhis.rules.utils.EpochDays;
+import org.hisp.dhis.rules.utils.RuleEngineUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castBoolean;
+import static org.hisp.dhis.antlr.AntlrParserUtils.castDouble;
+import static org.hisp.dhis.rules.parser.expression.ParserUtils.FUNCTION_EVALUATE;
+
+/**
+ * Compiled expressions have to give the same results as visiting the parse
+ * tree, including the failures.
+ */
+@RunWith( JUnit4.class )
+public class ExprNodeCompilerTest
+{
+    private static final List<String> EXPRESSIONS = Arrays.asList(
+        "1 + 2 * 3", "(1 + 2) * 3", "-#{num}", "+#{num}", "10 / 4", "10 / 0", "10 % 4", "10 % 0", "2 ^ 10",
+        "(10 / 0) + 1", "(10 / 0) > 1", "#{num} - 2.5",
+        "#{num} == 5", "#{num} != 5", "#{num} > 4", "#{num} >= 5", "#{num} < 4", "#{num} <= 5",
+        "#{text} == 'abc'", "#{text} < 'abd'", "#{bool} == true", "'5' == 5.0", "true == 'true'",
+        "#{bool} && #{num} > 3", "#{bool} and false", "!#{bool}", "not #{bool}", "#{bool} || false",
+        "false or #{bool}", "#{empty} == 0", "#{missing} == 1", "#{text} > 1",
+        "A{num} + 1", "C{abcdefghijk} * 2", "V{current_date}",
+        "d2:addDays(#{date}, 2)", "d2:ceil(#{decimal})", "d2:floor(#{decimal})", "d2:round(#{decimal})",
+        "d2:concatenate(#{text}, 'x', #{num})", "d2:count(#{num})", "d2:count('num')",
+        "d2:countIfValue(#{num}, 5)", "d2:countIfValue(#{bool}, 1)", "d2:countIfZeroPos(#{num})",
+        "d2:daysBetween(#{date}, '2020-02-10')", "d2:weeksBetween(#{date}, '2020-02-10')",
+        "d2:monthsBetween(#{date}, '2021-02-10')", "d2:yearsBetween(#{date}, '2023-02-10')",
+        "d2:hasUserRole('admin')", "d2:hasValue(#{num})", "d2:hasValue('empty')", "d2:hasValue('missing')",
+        "d2:inOrgUnitGroup('group')", "d2:lastEventDate('num')", "d2:left(#{text}, 2)", "d2:left(#{text}, 1.5)",
+        "d2:right(#{text}, 2)", "d2:length(#{text})", "d2:maxValue(#{num})", "d2:minValue('num')",
+        "d2:modulus(#{num}, 3)", "d2:oizp(#{num})", "d2:split('a,b,c', ',', 1)", "d2:substring(#{text}, 1, 2)",
+        "d2:validatePattern(#{text}, '[a-z]+')", "d2:zing(-#{num})", "d2:zpvc(1, -1, 0)",
+        "d2:zScoreWFA(2, 10, 'male')", "d2:zScoreHFA(2, 80, 'female')", "d2:zScoreWFH(60, 5, 'M')",
+        "d2:zScoreWFA(2, 'x', 'male')", "d2:substring(#{text}, 'x', 2)", "d2:oizp(#{text})", "isNull(1)" );
+
+    /**
+     * Expressions where numbers and dates are passed between nodes as primitives.
+     */
+    private static final List<String> TYPED_EXPRESSIONS = Arrays.asList(
+        "d2:daysBetween(#{date}, d2:addDays(#{date}, 40)) > 5", "d2:count(#{num}) + d2:length(#{text})",
+        "d2:daysBetween('2020-01-01', '2021-01-01') * 2", "d2:weeksBetween('2020-03-01', '2020-01-01')",
+        "d2:weeksBetween(#{date}, d2:addDays(#{date}, -15))", "d2:monthsBetween(d2:addDays(#{date}, 31), #{date})",
+        "d2:yearsBetween(d2:addDays(#{date}, 800), #{date})", "d2:addDays(d2:addDays(#{date}, 10), d2:count(#{num}))",
+        "d2:addDays(#{date}, 2.7)", "d2:addDays(#{date}, 10 / 0)", "d2:addDays('9999-12-30', 5)",
+        "d2:daysBetween(d2:addDays('9999-12-30', 5), #{date})", "d2:addDays('0000-01-02', -5)",
+        "d2:addDays(#{shortdate}, 1)", "d2:daysBetween(#{shortdate}, #{date})", "d2:daysBetween(#{baddate}, #{date})",
+        "d2:daysBetween(#{baddate}, '')", "d2:daysBetween('', #{date})", "d2:addDays(#{baddate}, 1)",
+        "d2:addDays('', 1)", "d2:addDays(#{date}, 'x')", "d2:daysBetween(d2:addDays(#{baddate}, 1), #{date})",
+        "d2:daysBetween(#{date}, #{num})", "#{nan} + 1", "#{nan} > 1", "1 > #{nan}", "-#{nan}", "-#{nan} + 1",
+        "(10 / 0) + d2:count(#{num})", "d2:count(#{num}) > 10 / 0", "d2:count(#{num}) == '2'",
+        "d2:count(#{num}) > #{text}", "d2:count(#{num}) < true", "d2:count(#{num}) >= #{nan}",
+        "d2:ceil(10 / 4) + d2:floor(-2.5) + d2:round(d2:count(#{num}) / 3)", "d2:ceil(10 / 0)",
+        "d2:left(#{text}, d2:count(#{num}))", "d2:left(#{text}, 3 / 2)", "d2:right(#{text}, 4 - 3)",
+        "d2:substring(#{text}, d2:count(#{num}) - 1, 3)", "d2:split('a,b,c', ',', d2:count(#{num}))",
+        "d2:oizp(d2:count(#{num}) - 3)", "d2:zpvc(d2:count(#{num}), -1 * 2, 10 / 0)",
+        "d2:hasValue(#{num}) && d2:validatePattern(#{text}, '[a-z]+')", "!d2:hasUserRole('admin')",
+        "d2:inOrgUnitGroup('group') == true", "d2:hasValue('missing') || d2:count(#{num}) > 1",
+        "2 ^ d2:count(#{num})", "d2:count(#{num}) % 0", "-(d2:count(#{num}) - 5)", "true && 10 / 0 > 1" );
+
+    private Map<String, RuleVariableValue> valueMap;
+
+    private Map<String, List<String>> supplementaryData;
+
+    @Before
+    public void setUp()
+    {
+        valueMap = new HashMap<>();
+        valueMap.put( "num", RuleVariableValue.create( "5", RuleValueType.NUMERIC, Arrays.asList( "5", "-2" ),
+            "2020-01-05" ) );
+        valueMap.put( "decimal", RuleVariableValue.create( "2.5", RuleValueType.NUMERIC ) );
+        valueMap.put( "text", RuleVariableValue.create( "abc", RuleValueType.TEXT ) );
+        valueMap.put( "bool", RuleVariableValue.create( "true", RuleValueType.BOOLEAN, Arrays.asList( "true" ),
+            "2020-01-05" ) );
+        valueMap.put( "date", RuleVariableValue.create( "2020-01-10", RuleValueType.DATE ) );
+        valueMap.put( "empty", RuleVariableValue.create( RuleValueType.NUMERIC ) );
+        valueMap.put( "abcdefghijk", RuleVariableValue.create( "3", RuleValueType.NUMERIC ) );
+        valueMap.put( "current_date", RuleVariableValue.create( "2020-01-01", RuleValueType.DATE ) );
+        valueMap.put( "org_unit", RuleVariableValue.create( "location1", RuleValueType.TEXT ) );
+        valueMap.put( "nan", RuleVariableValue.create( "NaN", RuleValueType.NUMERIC ) );
+        valueMap.put( "baddate", RuleVariableValue.create( "2020-13-01", RuleValueType.DATE ) );
+        valueMap.put( "shortdate", RuleVariableValue.create( "2020-1-5", RuleValueType.DATE ) );
+
+        supplementaryData = new HashMap<>();
+        supplementaryData.put( "USER", Arrays.asList( "admin" ) );
+        supplementaryData.put( "group", Arrays.asList( "location1" ) );
+    }
+
+    @Test
+    public void compiledExpressionsShouldEvaluateLikeTheVisitor()
+    {
+        for ( String expression : EXPRESSIONS )
+        {
+            assertThat( evaluateCompiled( expression ) ).as( expression )
+                .isEqualTo( evaluateWithVisitor( expression ) );
+        }
+    }
+
+    @Test
+    public void typedExpressionsShouldEvaluateLikeTheVisitor()
+    {
+        for ( String expression : TYPED_EXPRESSIONS )
+        {
+            assertThat( evaluateCompiled( expression ) ).as( expression )
+                .isEqualTo( evaluateWithVisitor( expression ) );
+        }
+    }
+
+    @Test
+    public void primitiveValuesShouldMatchTheObjectValues()
+    {
+        EvaluationContext context = new EvaluationContext( valueMap, supplementaryData );
+
+        for ( String expression : TYPED_EXPRESSIONS )
+        {
+            ExprNode root = CompiledExpression.compile( expression ).root();
+            Object value = evaluateCompiled( expression );
+
+            if ( value instanceof Class )
+            {
+                continue;
+            }
+
+            if ( root.valueType() == ItemValueType.NUMBER )
+            {
+                assertThat( root.evaluateNumber( context ) ).as( expression ).isEqualTo( castDouble( value ) );
+            }
+            else if ( root.valueType() == ItemValueType.DATE )
+            {
+                assertThat( root.evaluateEpochDay( context ) ).as( expression )
+                    .isEqualTo( EpochDays.parse( (String) value ) );
+            }
+            else if ( root.valueType() == ItemValueType.BOOLEAN )
+            {
+                assertThat( root.evaluateBoolean( context ) ).as( expression ).isEqualTo( castBoolean( value ) );
+            }
+        }
+    }
+
+    @Test
+    public void valueTypeShouldBeInferredFromTheNodes()
+    {
+        assertThat( CompiledExpression.compile( "d2:count(#{num}) + 1" ).root().valueType() )
+            .isEqualTo( ItemValueType.NUMBER );
+        assertThat( CompiledExpression.compile( "d2:daysBetween(#{date}, '2020-02-10')" ).root().valueType() )
+            .isEqualTo( ItemValueType.NUMBER );
+        assertThat( CompiledExpression.compile( "d2:addDays(#{date}, 2)" ).root().valueType() )
+            .isEqualTo( ItemValueType.DATE );
+        assertThat( CompiledExpression.compile( "d2:hasValue(#{num})" ).root().valueType() )
+            .isEqualTo( ItemValueType.BOOLEAN );
+        assertThat( CompiledExpression.compile( "#{num}" ).root().valueType() ).isNull();
+        assertThat( CompiledExpression.compile( "d2:concatenate(#{text}, 'x')" ).root().valueType() ).isNull();
+    }
+
+    @Test
+    public void unsupportedItemShouldFailAtEvaluation()
+    {
+        CompiledExpression compiledExpression = CompiledExpression.compile( "if(true, 1, 2)" );
+
+        assertThat( compiledExpression.isValid() ).isTrue();
+        assertThat( evaluateCompiled( "if(true, 1, 2)" ) ).isEqualTo( evaluateWithVisitor( "if(true, 1, 2)" ) );
+    }
+
+    private Object evaluateCompiled( String expression )
+    {
+        try
+        {
+            return CompiledExpression.compile( expression ).root()
+                .evaluate( new EvaluationContext( valueMap, supplementaryData ) );
+        }
+        catch ( RuntimeException e )
+        {
+            return e.getClass();
+        }
+    }
+
+    private Object evaluateWithVisitor( String expression )
+    {
+        CommonExpressionVisitor visitor = CommonExpressionVisitor.newBuilder()
+            .withFunctionMap( RuleEngineUtils.FUNCTIONS )
+            .withFunctionMethod( FUNCTION_EVALUATE )
+            .withVariablesMap( valueMap )
+            .withSupplementaryData( supplementaryData )
+            .validateCommonProperties();
+
+        try
+        {
+            return Parser.visit( expression, visitor );
+        }
+        catch ( RuntimeException e )
+        {
+            return e.getClass();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package org.hisp.dhis.rules.utils;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.joda.time.Days;
+import org.joda.time.LocalDate;
+import org.joda.time.Weeks;
+import org.joda.time.format.DateTimeFormat;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class EpochDaysTest
+{
+    private static final LocalDate EPOCH = new LocalDate( 1970, 1, 1 );
+
+    @Test
+    public void parseAndFormatShouldMatchJodaTime()
+    {
+        for ( LocalDate date = new LocalDate( 1895, 1, 1 ); date.getYear() < 2105; date = date.plusDays( 1 ) )
+        {
+            String text = date.toString( "yyyy-MM-dd" );
+            int epochDay = Days.daysBetween( EPOCH, date ).getDays();
+
+            assertThat( EpochDays.parse( text ) ).as( text ).isEqualTo( epochDay );
+            assertThat( EpochDays.format( epochDay ) ).isEqualTo( text );
+            assertThat( EpochDays.toLocalDate( epochDay ) ).isEqualTo( date );
+        }
+    }
+
+    @Test
+    public void rangeLimitsShouldBeSupported()
+    {
+        assertThat( EpochDays.format( EpochDays.parse( "0000-01-01" ) ) ).isEqualTo( "0000-01-01" );
+        assertThat( EpochDays.format( EpochDays.parse( "9999-12-31" ) ) ).isEqualTo( "9999-12-31" );
+        assertThat( EpochDays.isValid( EpochDays.parse( "9999-12-31" ) + 1L ) ).isFalse();
+        assertThat( EpochDays.isValid( EpochDays.parse( "0000-01-01" ) - 1L ) ).isFalse();
+    }
+
+    @Test
+    public void lenientTextShouldBeParsedLikeJodaTime()
+    {
+        assertThat( EpochDays.parse( "2020-1-5" ) ).isEqualTo( EpochDays.parse( "2020-01-05" ) );
+        assertThat( EpochDays.parse( "2020-02-29" ) )
+            .isEqualTo( Days.daysBetween( EPOCH, LocalDate.parse( "2020-02-29" ) ).getDays() );
+    }
+
+    @Test
+    public void emptyAndInvalidTextShouldBeReported()
+    {
+        assertThat( EpochDays.parse( null ) ).isEqualTo( EpochDays.EMPTY );
+        assertThat( EpochDays.parse( "" ) ).isEqualTo( EpochDays.EMPTY );
+        assertThat( EpochDays.parse( "2019-02-29" ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.parse( "2020-13-01" ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.parse( "2020-01-1x" ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.parse( "5.0" ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.parse( "12020-01-01" ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.parse( "-0001-12-31" ) ).isEqualTo( EpochDays.INVALID );
+    }
+
+    @Test
+    public void weeksShouldBeTruncatedLikeJodaTime()
+    {
+        LocalDate start = LocalDate.parse( "2020-01-10", DateTimeFormat.forPattern( "yyyy-MM-dd" ) );
+
+        for ( int days = -30; days <= 30; days++ )
+        {
+            LocalDate end = start.plusDays( days );
+
+            assertThat( days / 7 ).as( String.valueOf( days ) )
+                .isEqualTo( Weeks.weeksBetween( start, end ).getWeeks() );
+        }
+    }
+
+    @Test
+    public void formatDateShouldMatchSimpleDateFormat()
+    {
+        SimpleDateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd", Locale.US );
+
+        // every hour over two years covers the daylight saving changes of the default zone
+        for ( long millis = 1577836800000L; millis < 1640995200000L; millis += 60 * 60 * 1000 )
+        {
+            Date date = new Date( millis );
+
+            assertThat( EpochDays.format( date ) ).isEqualTo( dateFormat.format( date ) );
+        }
+
+        Date beforeEpoch = new Date( -12345678901L );
+
+        assertThat( EpochDays.format( beforeEpoch ) ).isEqualTo( dateFormat.format( beforeEpoch ) );
+    }
+
+    @Test
+    public void formatDateShouldFollowChangesOfTheDefaultTimeZone()
+    {
+        TimeZone timeZone = TimeZone.getDefault();
+        Date date = new Date( 1584313200000L ); // 2020-03-15T23:00Z
+
+        try
+        {
+            TimeZone.setDefault( TimeZone.getTimeZone( "UTC" ) );
+            assertThat( EpochDays.format( date ) ).isEqualTo( "2020-03-15" );
+
+            TimeZone.setDefault( TimeZone.getTimeZone( "Asia/Kolkata" ) );
+            assertThat( EpochDays.format( date ) ).isEqualTo( "2020-03-16" );
+        }
+        finally
+        {
+            TimeZone.setDefault( timeZone );
+        }
+    }
+
+    @Test
+    public void formatDateShouldFormatYearsOutOfRange()
+    {
+        SimpleDateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd", Locale.US );
+        Date date = new Date( 253402300800000L * 2 );
+
+        assertThat( EpochDays.fromDate( date ) ).isEqualTo( EpochDays.INVALID );
+        assertThat( EpochDays.format( date ) ).isEqualTo( dateFormat.format( date ) );
+    }
+
+    @Test
+    public void concurrentFormattingShouldNotCorruptDates()
+        throws Exception
+    {
+        int threads = Math.max( 4, Runtime.getRuntime().availableProcessors() );
+        ExecutorService executorService = Executors.newFixedThreadPool( threads );
+
+        try
+        {
+            List<Future<Integer>> futures = new ArrayList<>();
+
+            for ( int i = 0; i < threads; i++ )
+            {
+                final long seed = i;
+
+                futures.add( executorService.submit( new Callable<Integer>()
+                {
+                    @Override
+                    public Integer call()
+                    {
+                        SimpleDateFormat dateFormat = new SimpleDateFormat( "yyyy-MM-dd", Locale.US );
+                        Random random = new Random( seed );
+                        int mismatches = 0;
+
+                        for ( int j = 0; j < 100000; j++ )
+                        {
+                            // 1900 to 2100
+                            Date date = new Date( -2208988800000L + (long) (random.nextDouble() * 6311433600000L) );
+
+                            if ( !EpochDays.format( date ).equals( dateFormat.format( date ) ) )
+                            {
+                                mismatches++;
+                            }
+                        }
+
+                        return mismatches;
+                    }
+                } ) );
+            }
+
+            for ( Future<Integer> future : futures )
+            {
+                assertThat( future.get() ).isEqualTo( 0 );
+            }
+        }
+        finally
+        {
+            executorService.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package org.hisp.dhis.rules.utils;
+
+/*
+ * Copyright (c) 2004-2019, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Java6Assertions.assertThat;
+
+@RunWith( JUnit4.class )
+public class IndexedListTest
+{
+    @Test
+    public void indexedListShouldEqualItsValues()
+    {
+        List<String> values = Arrays.asList( "ou3", "ou1", "ou2", "ou1" );
+        List<String> indexed = IndexedList.of( values );
+
+        assertThat( indexed ).isEqualTo( values );
+        assertThat( indexed.hashCode() ).isEqualTo( values.hashCode() );
+        assertThat( indexed.contains( "ou2" ) ).isTrue();
+        assertThat( indexed.contains( "ou4" ) ).isFalse();
+        assertThat( indexed.contains( null ) ).isFalse();
+        assertThat( IndexedList.of( indexed ) ).isSameAs( indexed );
+    }
+
+    @Test
+    public void indexValuesShouldCopyTheMap()
+    {
+        List<String> members = new ArrayList<>( Arrays.asList( "ou1", "ou2" ) );
+        Map<String, List<String>> supplementaryData = new HashMap<>();
+        supplementaryData.put( "groupUid", members );
+        supplementaryData.put( "GROUP_CODE", members );
+        supplementaryData.put( "USER", null );
+
+        Map<String, List<String>> indexed = IndexedList.indexValues( supplementaryData );
+        members.add( "ou3" );
+
+        assertThat( indexed ).hasSize( 3 );
+        assertThat( indexed.get( "groupUid" ) ).containsExactly( "ou1", "ou2" );
+        assertThat( indexed.get( "groupUid" ) ).isSameAs( indexed.get( "GROUP_CODE" ) );
+        assertThat( indexed.get( "USER" ) ).isNull();
+        assertThat( IndexedList.indexValues( null ) ).isNull();
+    }
+
+    @Test( expected = UnsupportedOperationException.class )
+    public void indexedListShouldBeUnmodifiable()
+    {
+        IndexedList.of( new ArrayList<String>() ).add( "ou1" );
+    }
+}